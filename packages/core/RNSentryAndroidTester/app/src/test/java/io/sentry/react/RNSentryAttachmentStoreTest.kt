@@ -0,0 +1,130 @@
+package io.sentry.react
+
+import io.sentry.ILogger
+import io.sentry.transport.ICurrentDateProvider
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import org.mockito.Mockito.mock
+import java.io.File
+
+@RunWith(JUnit4::class)
+class RNSentryAttachmentStoreTest {
+    @get:Rule
+    val tmpDir = TemporaryFolder()
+
+    private lateinit var logger: ILogger
+    private lateinit var dir: File
+    private var now = 0L
+    private lateinit var store: RNSentryAttachmentStore
+
+    @Before
+    fun setUp() {
+        logger = mock(ILogger::class.java)
+        dir = File(tmpDir.root, RNSentryAttachmentStore.DIR_NAME)
+        now = 1_000_000L
+        store = RNSentryAttachmentStore(ICurrentDateProvider { now })
+        store.configure(dir, 1024, 1000)
+    }
+
+    @Test
+    fun `disabled store does not store attachments`() {
+        store.configure(null, 1024, 1000)
+
+        assertNull(store.put(byteArrayOf(1), "image/png", "screenshot.png", logger))
+    }
+
+    @Test
+    fun `handles are replaced with the stored bytes`() {
+        val entry = store.put("PNG".toByteArray(), "image/png", "screenshot.png", logger)!!
+        val envelope = envelope(item("event", "application/json", "{}"), handleItem(entry.handle))
+
+        val spliced = splice(envelope)
+
+        val lines = String(spliced).split("\n")
+        assertEquals(
+            "{\"type\":\"attachment\",\"length\":3,\"content_type\":\"image/png\",\"filename\":\"screenshot.png\"}",
+            lines[3],
+        )
+        assertEquals("PNG", lines[4])
+        assertTrue(store.isEmpty)
+        assertFalse(File(dir, entry.handle).exists())
+    }
+
+    @Test
+    fun `handles can be spliced once`() {
+        val entry = store.put(byteArrayOf(1), "image/png", "screenshot.png", logger)!!
+        splice(envelope(handleItem(entry.handle)))
+
+        val spliced = splice(envelope(item("event", "application/json", "{}"), handleItem(entry.handle)))
+
+        assertEquals(1, RNSentryEnvelopeScanner.scan(spliced, logger)!!.items.size)
+    }
+
+    @Test
+    fun `regular items are not handles`() {
+        val envelope = envelope(item("event", "application/json", "{}"))
+
+        assertFalse(RNSentryAttachmentStore.hasHandles(RNSentryEnvelopeScanner.scan(envelope, logger)!!))
+    }
+
+    @Test
+    fun `least recently used attachments are evicted over the quota`() {
+        val first = store.put(ByteArray(400), "image/png", "first.png", logger)!!
+        val second = store.put(ByteArray(400), "image/png", "second.png", logger)!!
+        val third = store.put(ByteArray(400), "image/png", "third.png", logger)!!
+
+        assertNull(store.remove(first.handle))
+        assertNotNull(store.remove(second.handle))
+        assertNotNull(store.remove(third.handle))
+        assertFalse(File(dir, first.handle).exists())
+    }
+
+    @Test
+    fun `attachments larger than the quota are not stored`() {
+        assertNull(store.put(ByteArray(1025), "image/png", "screenshot.png", logger))
+    }
+
+    @Test
+    fun `attachments expire after the time to live`() {
+        val entry = store.put(byteArrayOf(1), "image/png", "screenshot.png", logger)!!
+
+        now += 1001
+
+        assertNull(store.remove(entry.handle))
+        assertFalse(File(dir, entry.handle).exists())
+    }
+
+    @Test
+    fun `attachments of a previous run are deleted`() {
+        val entry = store.put(byteArrayOf(1), "image/png", "screenshot.png", logger)!!
+
+        RNSentryAttachmentStore(ICurrentDateProvider { now }).configure(dir, 1024, 1000)
+
+        assertFalse(File(dir, entry.handle).exists())
+    }
+
+    private fun splice(envelope: ByteArray): ByteArray = store.splice(envelope, RNSentryEnvelopeScanner.scan(envelope, logger)!!, logger)
+
+    private fun handleItem(handle: String): String = item("attachment", RNSentryAttachmentStore.HANDLE_CONTENT_TYPE, handle, "screenshot.png")
+
+    private fun item(
+        type: String,
+        contentType: String,
+        payload: String,
+        filename: String? = null,
+    ): String {
+        val file = filename?.let { ",\"filename\":\"$it\"" } ?: ""
+        return "{\"type\":\"$type\",\"length\":${payload.toByteArray().size},\"content_type\":\"$contentType\"$file}\n$payload\n"
+    }
+
+    private fun envelope(vararg items: String): ByteArray = ("{\"event_id\":\"event0\"}\n" + items.joinToString("")).toByteArray()
+}
@@ -0,0 +1,65 @@
+package io.sentry.react
+
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import java.lang.management.ManagementFactory
+import java.nio.ByteBuffer
+import kotlin.random.Random
+
+/**
+ * Micro-benchmark for Base64 encoding of binary payloads handed over by JS.
+ *
+ * Encodes 10 KB, 1 MB and 10 MB of random bytes from a direct buffer, the way the JSI function
+ * passes an `ArrayBuffer`, and from a heap array, and prints the throughput. Skipped unless the
+ * `SENTRY_BENCHMARKS` environment variable is set, e.g.
+ * `SENTRY_BENCHMARKS=1 ./gradlew test --tests '*RNSentryBase64BenchmarkTest'`.
+ */
+@RunWith(JUnit4::class)
+class RNSentryBase64BenchmarkTest {
+    @Before
+    fun setUp() {
+        assumeTrue(System.getenv("SENTRY_BENCHMARKS") != null)
+    }
+
+    @Test
+    fun `encoding throughput`() {
+        for ((name, size) in SIZES) {
+            val bytes = Random(size).nextBytes(size)
+            val direct = ByteBuffer.allocateDirect(size)
+            direct.put(bytes).flip()
+
+            for ((source, buffer) in listOf("direct" to direct, "heap" to ByteBuffer.wrap(bytes))) {
+                val mbPerSecond = measure(buffer, size)
+                println(String.format("[base64] %-6s %-6s %8.1f MB/s", name, source, mbPerSecond))
+            }
+        }
+    }
+
+    private fun measure(
+        buffer: ByteBuffer,
+        size: Int,
+    ): Double {
+        val iterations = maxOf(1, TARGET_BYTES_PER_RUN / size)
+        repeat(WARMUP_ITERATIONS) { RNSentryBase64.encode(buffer, false) }
+
+        val threads = ManagementFactory.getThreadMXBean()
+        val start = threads.currentThreadCpuTime
+        repeat(iterations) { RNSentryBase64.encode(buffer, false) }
+        val cpuNanos = maxOf(1L, threads.currentThreadCpuTime - start)
+
+        return size.toDouble() * iterations / (1024 * 1024) / (cpuNanos / 1e9)
+    }
+
+    companion object {
+        private val SIZES = listOf("10KB" to 10 * 1024, "1MB" to 1024 * 1024, "10MB" to 10 * 1024 * 1024)
+
+        /** Input bytes encoded per measured run, so small inputs are repeated often enough. */
+        private const val TARGET_BYTES_PER_RUN = 50 * 1024 * 1024
+
+        /** Discarded runs, so JIT warm-up doesn't land in the measured window. */
+        private const val WARMUP_ITERATIONS = 3
+    }
+}
@@ -0,0 +1,48 @@
+package io.sentry.react
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import java.nio.ByteBuffer
+import java.util.Base64
+import kotlin.random.Random
+
+@RunWith(JUnit4::class)
+class RNSentryBase64Test {
+    @Test
+    fun `encodes like the standard encoder for every padding`() {
+        for (size in 0..7) {
+            val bytes = Random(size).nextBytes(size)
+
+            assertEquals(Base64.getEncoder().encodeToString(bytes), RNSentryBase64.encode(bytes, false))
+        }
+    }
+
+    @Test
+    fun `encodes with the url safe alphabet`() {
+        val bytes = byteArrayOf(0xfb.toByte(), 0xff.toByte(), 0xbf.toByte())
+
+        assertEquals("-_-_", RNSentryBase64.encode(bytes, true))
+        assertEquals("+/+/", RNSentryBase64.encode(bytes, false))
+    }
+
+    @Test
+    fun `encodes direct buffers across blocks`() {
+        val bytes = Random(0).nextBytes(RNSentryBase64.BLOCK_SIZE * 2 + 2)
+        val buffer = ByteBuffer.allocateDirect(bytes.size)
+        buffer.put(bytes).flip()
+
+        assertEquals(Base64.getUrlEncoder().encodeToString(bytes), RNSentryBase64.encode(buffer, true))
+        assertEquals(0, buffer.position())
+    }
+
+    @Test
+    fun `encodes only the remaining bytes of a buffer`() {
+        val buffer = ByteBuffer.wrap(byteArrayOf(1, 2, 3, 4, 5))
+        buffer.position(2)
+
+        assertEquals(Base64.getEncoder().encodeToString(byteArrayOf(3, 4, 5)), RNSentryBase64.encode(buffer.slice(), false))
+        assertEquals(Base64.getEncoder().encodeToString(byteArrayOf(3, 4, 5)), RNSentryBase64.encode(buffer, false))
+    }
+}
@@ -0,0 +1,146 @@
+package io.sentry.react
+
+import com.facebook.react.bridge.JavaOnlyMap
+import io.sentry.Breadcrumb
+import io.sentry.DateUtils
+import io.sentry.Hint
+import io.sentry.ILogger
+import io.sentry.SentryEvent
+import io.sentry.SentryLevel
+import io.sentry.SentryOptions
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import org.mockito.Mockito.mock
+
+@RunWith(JUnit4::class)
+class RNSentryBreadcrumbRingTest {
+    private lateinit var logger: ILogger
+    private lateinit var options: SentryOptions
+    private lateinit var ring: RNSentryBreadcrumbRing
+
+    @Before
+    fun setUp() {
+        logger = mock(ILogger::class.java)
+        options = SentryOptions()
+        ring = RNSentryBreadcrumbRing()
+        ring.configure(3)
+    }
+
+    @Test
+    fun `disabled ring does not take breadcrumbs`() {
+        ring.configure(0)
+
+        assertFalse(ring.add(JavaOnlyMap.of("message", "test"), logger))
+        assertEquals(0, ring.size())
+    }
+
+    @Test
+    fun `breadcrumbs of other origins are not taken`() {
+        assertFalse(ring.add(JavaOnlyMap.of("message", "test", "origin", "javascript"), logger))
+        assertTrue(ring.add(JavaOnlyMap.of("message", "test", "origin", "react-native"), logger))
+        assertTrue(ring.add(JavaOnlyMap.of("message", "test"), logger))
+
+        assertEquals(2, ring.size())
+    }
+
+    @Test
+    fun `inflates the stored fields`() {
+        ring.add(
+            JavaOnlyMap.of(
+                "message",
+                "test",
+                "category",
+                "navigation",
+                "type",
+                "default",
+                "level",
+                "error",
+                "timestamp",
+                1_700_000_000.5,
+                "data",
+                JavaOnlyMap.of("to", "Home", "from", null),
+                "unknownKey",
+                "dropped",
+            ),
+            logger,
+        )
+
+        val breadcrumb = ring.inflate(options).single()
+        assertEquals("test", breadcrumb.message)
+        assertEquals("navigation", breadcrumb.category)
+        assertEquals("default", breadcrumb.type)
+        assertEquals("react-native", breadcrumb.origin)
+        assertEquals(SentryLevel.ERROR, breadcrumb.level)
+        assertEquals(1_700_000_000_500L, breadcrumb.timestamp.time)
+        assertEquals(mapOf("to" to "Home"), breadcrumb.data)
+        assertNull(breadcrumb.getData("unknownKey"))
+    }
+
+    @Test
+    fun `missing level defaults to info`() {
+        ring.add(JavaOnlyMap.of("message", "test"), logger)
+
+        assertEquals(SentryLevel.INFO, ring.inflate(options).single().level)
+    }
+
+    @Test
+    fun `oldest breadcrumbs are overwritten when full`() {
+        (1..5).forEach { ring.add(JavaOnlyMap.of("message", "$it"), logger) }
+
+        assertEquals(3, ring.size())
+        assertEquals(listOf("3", "4", "5"), ring.inflate(options).map { it.message })
+    }
+
+    @Test
+    fun `clear removes all breadcrumbs`() {
+        ring.add(JavaOnlyMap.of("message", "first"), logger)
+        ring.clear()
+        ring.add(JavaOnlyMap.of("message", "second"), logger)
+
+        assertEquals(listOf("second"), ring.inflate(options).map { it.message })
+    }
+
+    @Test
+    fun `beforeBreadcrumb runs on inflation`() {
+        options.beforeBreadcrumb =
+            SentryOptions.BeforeBreadcrumbCallback { breadcrumb, _ ->
+                if (breadcrumb.message == "drop") null else breadcrumb.apply { message = "changed" }
+            }
+        ring.add(JavaOnlyMap.of("message", "drop"), logger)
+        ring.add(JavaOnlyMap.of("message", "keep"), logger)
+
+        assertEquals(listOf("changed"), ring.inflate(options).map { it.message })
+    }
+
+    @Test
+    fun `event processor merges breadcrumbs by timestamp`() {
+        options.maxBreadcrumbs = 3
+        ring.add(JavaOnlyMap.of("message", "rn-1", "timestamp", 1.0), logger)
+        ring.add(JavaOnlyMap.of("message", "rn-3", "timestamp", 3.0), logger)
+        val event = SentryEvent()
+        event.breadcrumbs =
+            mutableListOf(
+                Breadcrumb(DateUtils.getDateTime(2_000L)).apply { message = "native-2" },
+                Breadcrumb(DateUtils.getDateTime(4_000L)).apply { message = "native-4" },
+            )
+
+        RNSentryBreadcrumbRing.BreadcrumbsEventProcessor(ring, options).process(event, Hint())
+
+        assertEquals(listOf("native-2", "rn-3", "native-4"), event.breadcrumbs!!.map { it.message })
+    }
+
+    @Test
+    fun `event processor keeps events without ring breadcrumbs as they are`() {
+        val event = SentryEvent()
+
+        RNSentryBreadcrumbRing.BreadcrumbsEventProcessor(ring, options).process(event, Hint())
+
+        assertNull(event.breadcrumbs)
+    }
+}
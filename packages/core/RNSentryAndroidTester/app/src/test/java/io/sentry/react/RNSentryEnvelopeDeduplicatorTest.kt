@@ -0,0 +1,154 @@
+package io.sentry.react
+
+import io.sentry.ILogger
+import io.sentry.vendor.Base64
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import org.mockito.Mockito.mock
+import java.io.File
+
+@RunWith(JUnit4::class)
+class RNSentryEnvelopeDeduplicatorTest {
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    private lateinit var logger: ILogger
+    private lateinit var deduplicator: RNSentryEnvelopeDeduplicator
+
+    @Before
+    fun setUp() {
+        logger = mock(ILogger::class.java)
+        deduplicator = RNSentryEnvelopeDeduplicator()
+        deduplicator.configure(true, 10, null)
+    }
+
+    @Test
+    fun `deduplication is disabled by default`() {
+        val disabled = RNSentryEnvelopeDeduplicator()
+
+        assertNull(disabled.keyOf(event(EVENT_ID, "{}"), logger))
+    }
+
+    @Test
+    fun `events are keyed by their event id`() {
+        assertEquals("event:$EVENT_ID", deduplicator.keyOf(event(EVENT_ID, "{}"), logger))
+    }
+
+    @Test
+    fun `the same event serialized differently is a duplicate`() {
+        capture(event(EVENT_ID, "{\"a\":1}"))
+
+        assertTrue(isDuplicate(event(EVENT_ID, "{\"a\":2}")))
+    }
+
+    @Test
+    fun `checking an envelope does not remember it`() {
+        assertFalse(isDuplicate(event(EVENT_ID, "{}")))
+        assertFalse(isDuplicate(event(EVENT_ID, "{}")))
+    }
+
+    @Test
+    fun `envelopes without an event item are keyed by their content`() {
+        val first = replay("2024-01-01T00:00:00.000Z", "{\"segment_id\":0}")
+        val second = replay("2024-01-01T00:00:01.000Z", "{\"segment_id\":1}")
+
+        capture(first)
+
+        assertTrue(isDuplicate(first.copyOf()))
+        assertFalse(isDuplicate(second))
+    }
+
+    @Test
+    fun `envelopes with the same headers but different payloads are not duplicates`() {
+        capture(replay("2024-01-01T00:00:00.000Z", "{\"segment_id\":0}"))
+
+        assertFalse(isDuplicate(replay("2024-01-01T00:00:00.000Z", "{\"segment_id\":1}")))
+    }
+
+    @Test
+    fun `log batches without a timestamp are not duplicates of each other`() {
+        capture(logs("{\"items\":[{\"body\":\"first\"}]}"))
+
+        assertFalse(isDuplicate(logs("{\"items\":[{\"body\":\"other\"}]}")))
+        assertTrue(isDuplicate(logs("{\"items\":[{\"body\":\"first\"}]}")))
+    }
+
+    @Test
+    fun `base64 envelopes get the same key`() {
+        val envelope = replay("2024-01-01T00:00:00.000Z", "{\"segment_id\":0}")
+
+        assertEquals(
+            deduplicator.keyOf(envelope, logger),
+            deduplicator.keyOfBase64(Base64.encodeToString(envelope, Base64.NO_WRAP), logger),
+        )
+    }
+
+    @Test
+    fun `oldest entries are evicted`() {
+        deduplicator.configure(true, 1, null)
+
+        capture(event(EVENT_ID, "{}"))
+        capture(event(OTHER_EVENT_ID, "{}"))
+
+        assertFalse(isDuplicate(event(EVENT_ID, "{}")))
+    }
+
+    @Test
+    fun `disabled deduplicator never drops envelopes`() {
+        deduplicator.configure(false, 10, null)
+
+        capture(event(EVENT_ID, "{}"))
+
+        assertFalse(isDuplicate(event(EVENT_ID, "{}")))
+    }
+
+    @Test
+    fun `persisted keys are recognized by a new instance`() {
+        val file = File(tmp.root, "react/${RNSentryEnvelopeDeduplicator.FILE_NAME}")
+        val before = RNSentryEnvelopeDeduplicator()
+        before.configure(true, 10, file)
+        before.remember(before.keyOf(event(EVENT_ID, "{}"), logger), logger)
+
+        val after = RNSentryEnvelopeDeduplicator()
+        after.configure(true, 10, file)
+
+        assertTrue(after.isKnown(after.keyOf(event(EVENT_ID, "{}"), logger), logger))
+        assertFalse(after.isKnown(after.keyOf(event(OTHER_EVENT_ID, "{}"), logger), logger))
+    }
+
+    private fun capture(envelope: ByteArray) = deduplicator.remember(deduplicator.keyOf(envelope, logger), logger)
+
+    private fun isDuplicate(envelope: ByteArray) = deduplicator.isKnown(deduplicator.keyOf(envelope, logger), logger)
+
+    private fun event(
+        eventId: String,
+        payload: String,
+    ): ByteArray =
+        "{\"event_id\":\"$eventId\"}\n{\"type\":\"event\",\"length\":${payload.length}}\n$payload\n"
+            .toByteArray()
+
+    private fun replay(
+        sentAt: String,
+        payload: String,
+    ): ByteArray =
+        (
+            "{\"event_id\":\"$EVENT_ID\",\"sent_at\":\"$sentAt\"}\n" +
+                "{\"type\":\"replay_event\",\"length\":${payload.length}}\n$payload\n"
+        ).toByteArray()
+
+    private fun logs(payload: String): ByteArray =
+        "{}\n{\"type\":\"log\",\"length\":${payload.length}}\n$payload\n".toByteArray()
+
+    companion object {
+        private const val EVENT_ID = "9ec79c33ec9942ab8353589fcb2e04dc"
+        private const val OTHER_EVENT_ID = "0ec79c33ec9942ab8353589fcb2e04dc"
+    }
+}
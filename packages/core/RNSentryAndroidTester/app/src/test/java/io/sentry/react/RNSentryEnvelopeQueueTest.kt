@@ -0,0 +1,138 @@
+package io.sentry.react
+
+import io.sentry.ILogger
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import org.mockito.Mockito.mock
+
+@RunWith(JUnit4::class)
+class RNSentryEnvelopeQueueTest {
+    private lateinit var logger: ILogger
+
+    @Before
+    fun setUp() {
+        logger = mock(ILogger::class.java)
+    }
+
+    @Test
+    fun `drop oldest accepts new envelopes and evicts the oldest`() {
+        val queue = RNSentryEnvelopeQueue(false)
+        queue.configure(2, Long.MAX_VALUE, RNSentryEnvelopeQueue.OverflowPolicy.DROP_OLDEST)
+
+        assertTrue(queue.enqueue(ByteArray(1), null, logger))
+        assertTrue(queue.enqueue(ByteArray(1), null, logger))
+        assertTrue(queue.enqueue(ByteArray(1), null, logger))
+
+        assertEquals(2, queue.size())
+    }
+
+    @Test
+    fun `drop newest rejects envelopes when full`() {
+        val queue = RNSentryEnvelopeQueue(false)
+        queue.configure(2, Long.MAX_VALUE, RNSentryEnvelopeQueue.OverflowPolicy.DROP_NEWEST)
+
+        assertTrue(queue.enqueue(ByteArray(1), null, logger))
+        assertTrue(queue.enqueue(ByteArray(1), null, logger))
+        assertFalse(queue.enqueue(ByteArray(1), null, logger))
+
+        assertEquals(2, queue.size())
+    }
+
+    @Test
+    fun `block rejects envelopes after the timeout when nothing is drained`() {
+        val queue = RNSentryEnvelopeQueue(false)
+        queue.configure(1, Long.MAX_VALUE, RNSentryEnvelopeQueue.OverflowPolicy.BLOCK)
+
+        assertTrue(queue.enqueue(ByteArray(1), null, logger))
+        assertFalse(queue.enqueue(ByteArray(1), null, logger))
+
+        assertEquals(1, queue.size())
+    }
+
+    @Test
+    fun `block rejects envelopes at once when the caller may not wait`() {
+        val queue = RNSentryEnvelopeQueue(false)
+        queue.configure(1, Long.MAX_VALUE, RNSentryEnvelopeQueue.OverflowPolicy.BLOCK)
+
+        assertTrue(queue.enqueue(ByteArray(1), null, false, logger))
+        assertFalse(queue.enqueue(ByteArray(1), null, false, logger))
+
+        assertEquals(1, queue.size())
+    }
+
+    @Test
+    fun `memory budget is enforced`() {
+        val queue = RNSentryEnvelopeQueue(false)
+        queue.configure(100, 10, RNSentryEnvelopeQueue.OverflowPolicy.DROP_NEWEST)
+
+        assertTrue(queue.enqueue(ByteArray(6), null, logger))
+        assertFalse(queue.enqueue(ByteArray(6), null, logger))
+        assertTrue(queue.enqueue(ByteArray(4), null, logger))
+
+        assertEquals(2, queue.size())
+    }
+
+    @Test
+    fun `an envelope bigger than the budget is accepted by an empty queue`() {
+        val queue = RNSentryEnvelopeQueue(false)
+        queue.configure(100, 10, RNSentryEnvelopeQueue.OverflowPolicy.DROP_NEWEST)
+
+        assertTrue(queue.enqueue(ByteArray(64), null, logger))
+
+        assertEquals(1, queue.size())
+    }
+
+    @Test
+    fun `base64 envelopes are accounted by their decoded size`() {
+        val queue = RNSentryEnvelopeQueue(false)
+        queue.configure(100, 6, RNSentryEnvelopeQueue.OverflowPolicy.DROP_NEWEST)
+
+        assertTrue(queue.enqueueBase64("AAAA", null, logger))
+        assertTrue(queue.enqueueBase64("AAAA", null, logger))
+        assertFalse(queue.enqueueBase64("AAAA", null, logger))
+    }
+
+    @Test
+    fun `drain empties the queue`() {
+        val queue = RNSentryEnvelopeQueue(false)
+        queue.enqueue(ByteArray(1), null, logger)
+        queue.enqueueBase64("AAAA", null, logger)
+
+        queue.drain()
+
+        assertEquals(0, queue.size())
+    }
+
+    @Test
+    fun `close captures what is still queued`() {
+        val queue = RNSentryEnvelopeQueue(true)
+        queue.configure(1, Long.MAX_VALUE, RNSentryEnvelopeQueue.OverflowPolicy.DROP_NEWEST)
+        queue.enqueue(ByteArray(1), null, logger)
+
+        queue.close()
+
+        assertEquals(0, queue.size())
+    }
+
+    @Test
+    fun `overflow policy is parsed from the JS option value`() {
+        assertEquals(
+            RNSentryEnvelopeQueue.OverflowPolicy.DROP_OLDEST,
+            RNSentryEnvelopeQueue.OverflowPolicy.fromString("dropOldest"),
+        )
+        assertEquals(
+            RNSentryEnvelopeQueue.OverflowPolicy.DROP_NEWEST,
+            RNSentryEnvelopeQueue.OverflowPolicy.fromString("dropNewest"),
+        )
+        assertEquals(
+            RNSentryEnvelopeQueue.OverflowPolicy.BLOCK,
+            RNSentryEnvelopeQueue.OverflowPolicy.fromString("block"),
+        )
+        assertEquals(null, RNSentryEnvelopeQueue.OverflowPolicy.fromString("unknown"))
+    }
+}
@@ -0,0 +1,110 @@
+package io.sentry.react
+
+import io.sentry.ILogger
+import io.sentry.transport.ICurrentDateProvider
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import org.mockito.Mockito.mock
+
+@RunWith(JUnit4::class)
+class RNSentryEnvelopeRateLimiterTest {
+    private lateinit var logger: ILogger
+    private var now = 0L
+    private lateinit var limiter: RNSentryEnvelopeRateLimiter
+
+    @Before
+    fun setUp() {
+        logger = mock(ILogger::class.java)
+        now = 1_000_000L
+        limiter = RNSentryEnvelopeRateLimiter(ICurrentDateProvider { now })
+    }
+
+    @Test
+    fun `without budgets nothing is limited`() {
+        assertEquals(0, limit(event())!!.size)
+    }
+
+    @Test
+    fun `envelopes whose first item is over the item budget are dropped`() {
+        limiter.configure(mapOf("event" to 2), 0)
+
+        assertEquals(0, limit(event())!!.size)
+        assertEquals(0, limit(event())!!.size)
+        assertNull(limit(event()))
+    }
+
+    @Test
+    fun `item budget refills over time`() {
+        limiter.configure(mapOf("event" to 60), 0)
+        repeat(60) { limit(event()) }
+        assertNull(limit(event()))
+
+        now += 1_000
+
+        assertEquals(0, limit(event())!!.size)
+        assertNull(limit(event()))
+    }
+
+    @Test
+    fun `only items of limited types are limited`() {
+        limiter.configure(mapOf("attachment" to 0), 0)
+        val envelope = scan(item("event", "{}"), item("attachment", "abc"))
+
+        val limited = limiter.limit(envelope, emptyList(), logger)!!
+
+        assertEquals(1, limited.size)
+        assertEquals("attachment", limited[0].type)
+    }
+
+    @Test
+    fun `envelopes over the byte budget are dropped`() {
+        val size = event().length.toLong()
+        limiter.configure(emptyMap(), size * 2)
+
+        assertEquals(0, limit(event())!!.size)
+        assertEquals(0, limit(event())!!.size)
+        assertNull(limit(event()))
+    }
+
+    @Test
+    fun `envelopes dropped for their first item take no tokens for the others`() {
+        limiter.configure(mapOf("event" to 0, "attachment" to 1), 0)
+
+        assertNull(limit(scan(item("event", "{}"), item("attachment", "abc"))))
+        assertEquals(0, limit(scan(item("attachment", "abc")))!!.size)
+    }
+
+    @Test
+    fun `envelopes over the byte budget give their item tokens back`() {
+        val small = event()
+        limiter.configure(mapOf("event" to 1), small.length.toLong())
+
+        assertNull(limit(scan(item("event", "{\"message\":\"too big\"}"))))
+        assertEquals(0, limit(small)!!.size)
+    }
+
+    @Test
+    fun `excluded items take no tokens`() {
+        limiter.configure(mapOf("event" to 1), 0)
+        val envelope = event()
+
+        assertEquals(0, limiter.limit(envelope, envelope.items, logger)!!.size)
+        assertEquals(0, limit(event())!!.size)
+    }
+
+    private fun limit(envelope: RNSentryEnvelopeScanner.Envelope) = limiter.limit(envelope, emptyList(), logger)
+
+    private fun event() = scan(item("event", "{}"))
+
+    private fun scan(vararg items: String): RNSentryEnvelopeScanner.Envelope =
+        RNSentryEnvelopeScanner.scan(("{}\n" + items.joinToString("")).toByteArray(), logger)!!
+
+    private fun item(
+        type: String,
+        payload: String,
+    ): String = "{\"type\":\"$type\",\"length\":${payload.length}}\n$payload\n"
+}
@@ -0,0 +1,107 @@
+package io.sentry.react
+
+import android.os.PowerManager
+import io.sentry.ILogger
+import io.sentry.vendor.Base64
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import org.mockito.Mockito.mock
+import org.mockito.kotlin.whenever
+
+@RunWith(JUnit4::class)
+class RNSentryEnvelopeScannerTest {
+    private lateinit var logger: ILogger
+
+    @Before
+    fun setUp() {
+        logger = mock(ILogger::class.java)
+    }
+
+    @Test
+    fun `reads item types and sizes`() {
+        val envelope = RNSentryEnvelopeScanner.scan(ENVELOPE, logger)!!
+
+        assertEquals(3, envelope.items.size)
+        assertEquals(listOf("event", "attachment", "profile"), envelope.items.map { it.type })
+        assertEquals(listOf(2, 5, 2), envelope.items.map { it.payloadLength })
+        assertEquals(ENVELOPE.size, envelope.length)
+        assertEquals(ITEM_ATTACHMENT.length.toLong(), envelope.getSize("attachment"))
+    }
+
+    @Test
+    fun `base64 envelopes are scanned like raw ones`() {
+        val encoded = Base64.encodeToString(ENVELOPE, Base64.NO_WRAP)
+
+        val envelope = RNSentryEnvelopeScanner.scanBase64(encoded, logger)!!
+
+        assertEquals(listOf("event", "attachment", "profile"), envelope.items.map { it.type })
+        assertEquals(ENVELOPE.size, envelope.length)
+    }
+
+    @Test
+    fun `base64 envelopes bigger than the decode window are scanned`() {
+        val payload = "x".repeat(4096)
+        val large = "{}\n{\"type\":\"attachment\",\"length\":4096}\n$payload\n$ITEM_EVENT".toByteArray()
+
+        val envelope = RNSentryEnvelopeScanner.scanBase64(Base64.encodeToString(large, Base64.NO_WRAP), logger)!!
+
+        assertEquals(listOf("attachment", "event"), envelope.items.map { it.type })
+    }
+
+    @Test
+    fun `items without length end at the next newline`() {
+        val envelope = RNSentryEnvelopeScanner.scan("{}\n{\"type\":\"event\"}\n{}\n".toByteArray(), logger)!!
+
+        assertEquals(2, envelope.items[0].payloadLength)
+    }
+
+    @Test
+    fun `unreadable headers are reported as null`() {
+        assertNull(RNSentryEnvelopeScanner.scan("{}\nnot json\n{}".toByteArray(), logger))
+    }
+
+    @Test
+    fun `items are cut out of the envelope`() {
+        val envelope = RNSentryEnvelopeScanner.scan(ENVELOPE, logger)!!
+
+        val cut = envelope.without(ENVELOPE, listOf(envelope.items[1]))
+
+        assertArrayEquals("{}\n$ITEM_EVENT$ITEM_PROFILE".toByteArray(), cut)
+    }
+
+    @Test
+    fun `drop rules drop big attachments`() {
+        val rules = RNSentryEnvelopeDropRules()
+        rules.configure(4, false)
+        val envelope = RNSentryEnvelopeScanner.scan(ENVELOPE, logger)!!
+
+        assertEquals(listOf("attachment"), rules.apply(envelope).map { it.type })
+    }
+
+    @Test
+    fun `drop rules drop profiles in power save mode`() {
+        val powerManager = mock(PowerManager::class.java)
+        whenever(powerManager.isPowerSaveMode).thenReturn(true)
+        val rules = RNSentryEnvelopeDropRules()
+        rules.configure(0, true)
+        rules.setPowerManager(powerManager)
+        val envelope = RNSentryEnvelopeScanner.scan(ENVELOPE, logger)!!
+
+        assertEquals(listOf("profile"), rules.apply(envelope).map { it.type })
+
+        whenever(powerManager.isPowerSaveMode).thenReturn(false)
+        assertEquals(0, rules.apply(envelope).size)
+    }
+
+    companion object {
+        private const val ITEM_EVENT = "{\"type\":\"event\",\"length\":2}\n{}\n"
+        private const val ITEM_ATTACHMENT = "{\"type\":\"attachment\",\"length\":5}\nhello\n"
+        private const val ITEM_PROFILE = "{\"type\":\"profile\",\"length\":2}\n{}\n"
+        private val ENVELOPE = "{}\n$ITEM_EVENT$ITEM_ATTACHMENT$ITEM_PROFILE".toByteArray()
+    }
+}
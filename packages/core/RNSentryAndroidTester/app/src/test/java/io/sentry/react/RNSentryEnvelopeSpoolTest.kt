@@ -0,0 +1,94 @@
+package io.sentry.react
+
+import io.sentry.ILogger
+import io.sentry.vendor.Base64
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import org.mockito.Mockito.mock
+import java.io.File
+
+@RunWith(JUnit4::class)
+class RNSentryEnvelopeSpoolTest {
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    private lateinit var logger: ILogger
+    private lateinit var spoolDir: File
+    private lateinit var spool: RNSentryEnvelopeSpool
+
+    @Before
+    fun setUp() {
+        logger = mock(ILogger::class.java)
+        spoolDir = File(tmp.root, RNSentryEnvelopeSpool.DIR_NAME)
+        spool = RNSentryEnvelopeSpool()
+        spool.configure(spoolDir)
+    }
+
+    @Test
+    fun `disabled spool does not write anything`() {
+        spool.configure(null)
+
+        assertFalse(spool.spool(ENVELOPE, logger))
+        assertFalse(spoolDir.exists())
+    }
+
+    @Test
+    fun `raw envelopes are spooled as they are`() {
+        assertTrue(spool.spool(ENVELOPE, logger))
+
+        assertArrayEquals(ENVELOPE, spooledFile().readBytes())
+    }
+
+    @Test
+    fun `base64 envelopes are decoded into the spool file`() {
+        val encoded = Base64.encodeToString(ENVELOPE, Base64.NO_WRAP)
+
+        assertTrue(spool.spoolBase64(encoded, logger))
+
+        assertArrayEquals(ENVELOPE, spooledFile().readBytes())
+    }
+
+    @Test
+    fun `base64 envelopes spanning multiple chunks are decoded`() {
+        val large = ByteArray(RNSentryEnvelopeSpool.CHUNK_CHARS + 17) { (it % 251).toByte() }
+        val encoded = Base64.encodeToString(large, Base64.NO_WRAP)
+
+        assertTrue(spool.spoolBase64(encoded, logger))
+
+        assertArrayEquals(large, spooledFile().readBytes())
+    }
+
+    @Test
+    fun `spooled envelopes are moved to the outbox`() {
+        spool.spool(ENVELOPE, logger)
+        File(spoolDir, "partial.tmp").writeText("partial")
+        val outbox = File(tmp.root, "outbox")
+
+        assertEquals(1, spool.moveToOutbox(outbox.absolutePath, logger))
+
+        assertEquals(1, outbox.listFiles()!!.size)
+        assertArrayEquals(ENVELOPE, outbox.listFiles()!![0].readBytes())
+        assertEquals(0, spoolDir.listFiles()!!.size)
+    }
+
+    private fun spooledFile(): File {
+        val files = spoolDir.listFiles()!!
+        assertEquals(1, files.size)
+        assertTrue(files[0].name.endsWith(RNSentryEnvelopeSpool.ENVELOPE_SUFFIX))
+        return files[0]
+    }
+
+    companion object {
+        private val ENVELOPE =
+            "{\"event_id\":\"9ec79c33ec9942ab8353589fcb2e04dc\"}\n{\"type\":\"event\",\"length\":2}\n{}\n"
+                .toByteArray()
+    }
+}
@@ -0,0 +1,67 @@
+package io.sentry.react
+
+import com.facebook.react.bridge.JavaOnlyMap
+import io.sentry.ILogger
+import io.sentry.JsonSerializer
+import io.sentry.Scope
+import io.sentry.SentryOptions
+import io.sentry.protocol.Contexts
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import org.mockito.Mockito.mock
+import java.io.StringWriter
+
+@RunWith(JUnit4::class)
+class RNSentryLazyContextTest {
+    private val logger = mock(ILogger::class.java)
+
+    @After
+    fun tearDown() {
+        RNSentryLazyContext.setEnabled(false)
+    }
+
+    @Test
+    fun `contexts are converted when set by default`() {
+        val scope = Scope(SentryOptions())
+
+        RNSentryScopeOperations.setContext(scope, "flags", JavaOnlyMap.of("a", true), logger)
+
+        assertFalse(scope.contexts["flags"] is RNSentryLazyContext)
+        assertEquals(mapOf("a" to true), scope.contexts["flags"])
+    }
+
+    @Test
+    fun `lazy contexts are converted when read`() {
+        RNSentryLazyContext.setEnabled(true)
+        val scope = Scope(SentryOptions())
+
+        RNSentryScopeOperations.setContext(scope, "flags", JavaOnlyMap.of("a", true), logger)
+
+        val context = scope.contexts["flags"] as RNSentryLazyContext
+        assertFalse(context.isMaterialized)
+        assertEquals(true, context["a"])
+        assertTrue(context.isMaterialized)
+    }
+
+    @Test
+    fun `lazy contexts are serialized like maps`() {
+        val options = SentryOptions()
+        val contexts = Contexts()
+        contexts["flags"] = RNSentryLazyContext(JavaOnlyMap.of("nested", JavaOnlyMap.of("b", "value")))
+
+        val writer = StringWriter()
+        JsonSerializer(options).serialize(contexts, writer)
+
+        assertEquals("{\"flags\":{\"nested\":{\"b\":\"value\"}}}", writer.toString())
+    }
+
+    @Test(expected = UnsupportedOperationException::class)
+    fun `lazy contexts are read-only`() {
+        RNSentryLazyContext(JavaOnlyMap.of("a", true))["b"] = false
+    }
+}
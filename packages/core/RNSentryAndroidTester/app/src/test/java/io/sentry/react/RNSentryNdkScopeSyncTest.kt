@@ -0,0 +1,136 @@
+package io.sentry.react
+
+import io.sentry.Breadcrumb
+import io.sentry.ILogger
+import io.sentry.IScopeObserver
+import io.sentry.IScopes
+import io.sentry.ScopeObserverAdapter
+import io.sentry.SentryOptions
+import io.sentry.protocol.User
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import org.mockito.Mockito.mock
+
+@RunWith(JUnit4::class)
+class RNSentryNdkScopeSyncTest {
+    private val synced = mutableListOf<String>()
+    private val scheduled = mutableListOf<Pair<Runnable, Long>>()
+    private lateinit var sync: RNSentryNdkScopeSync
+    private lateinit var observer: IScopeObserver
+
+    private val delegate =
+        object : ScopeObserverAdapter() {
+            override fun setUser(user: User?) {
+                synced.add("user:${user?.id}")
+            }
+
+            override fun addBreadcrumb(crumb: Breadcrumb) {
+                synced.add("breadcrumb:${crumb.message}")
+            }
+
+            override fun setTag(
+                key: String,
+                value: String,
+            ) {
+                synced.add("tag:$key=$value")
+            }
+
+            override fun removeTag(key: String) {
+                synced.add("removeTag:$key")
+            }
+        }
+
+    @Before
+    fun setUp() {
+        synced.clear()
+        scheduled.clear()
+        sync = RNSentryNdkScopeSync { flush, delayMillis -> scheduled.add(flush to delayMillis) }
+        sync.configure(200, 2, mock(ILogger::class.java))
+        observer = sync.wrap(delegate)
+    }
+
+    @Test
+    fun `changes are synced when the scheduled flush runs`() {
+        observer.setTag("first", "1")
+        observer.setUser(User().apply { id = "123" })
+
+        assertTrue(synced.isEmpty())
+        assertEquals(1, scheduled.size)
+        assertEquals(200L, scheduled.single().second)
+
+        scheduled.single().first.run()
+
+        assertEquals(listOf("tag:first=1", "user:123"), synced)
+    }
+
+    @Test
+    fun `only the last change of a field is synced`() {
+        observer.setTag("key", "first")
+        observer.setTag("other", "value")
+        observer.removeTag("key")
+
+        sync.flush()
+
+        assertEquals(listOf("tag:other=value", "removeTag:key"), synced)
+    }
+
+    @Test
+    fun `breadcrumbs beyond maxBreadcrumbs are not synced`() {
+        observer.addBreadcrumb(Breadcrumb("1"))
+        observer.setTag("key", "value")
+        observer.addBreadcrumb(Breadcrumb("2"))
+        observer.addBreadcrumb(Breadcrumb("3"))
+
+        assertEquals(3, sync.pendingCount)
+        sync.flush()
+
+        assertEquals(listOf("tag:key=value", "breadcrumb:2", "breadcrumb:3"), synced)
+    }
+
+    @Test
+    fun `a new flush is scheduled after a flush`() {
+        observer.setTag("first", "1")
+        sync.flush()
+
+        observer.setTag("second", "2")
+
+        assertEquals(2, scheduled.size)
+    }
+
+    @Test
+    fun `configuring drops pending changes`() {
+        observer.setTag("key", "value")
+
+        sync.configure(200, 2, mock(ILogger::class.java))
+        sync.flush()
+
+        assertTrue(synced.isEmpty())
+    }
+
+    @Test
+    fun `integration wraps only the NDK scope observer`() {
+        val options = SentryOptions()
+        options.addScopeObserver(delegate)
+        val integration = RNSentryNdkScopeSync.DeltaSyncIntegration(sync, RNSentryScopeWriter.getInstance())
+
+        integration.register(mock(IScopes::class.java), options)
+        integration.close()
+
+        assertSame(delegate, options.scopeObservers.single())
+    }
+
+    @Test
+    fun `uncaught exceptions sync pending changes`() {
+        val integration = RNSentryNdkScopeSync.DeltaSyncIntegration(sync, RNSentryScopeWriter.getInstance())
+        observer.setTag("key", "value")
+
+        integration.uncaughtException(Thread.currentThread(), RuntimeException())
+
+        assertEquals(listOf("tag:key=value"), synced)
+    }
+}
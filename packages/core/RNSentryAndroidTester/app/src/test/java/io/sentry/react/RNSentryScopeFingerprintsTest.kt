@@ -0,0 +1,115 @@
+package io.sentry.react
+
+import com.facebook.react.bridge.JavaOnlyArray
+import com.facebook.react.bridge.JavaOnlyMap
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+
+@RunWith(JUnit4::class)
+class RNSentryScopeFingerprintsTest {
+    private lateinit var fingerprints: RNSentryScopeFingerprints
+
+    @Before
+    fun setUp() {
+        fingerprints = RNSentryScopeFingerprints()
+        fingerprints.configure(true)
+    }
+
+    @Test
+    fun `disabled fingerprints never skip writes`() {
+        fingerprints.configure(false)
+
+        assertFalse(fingerprints.isTagUnchanged("key", "value"))
+        assertFalse(fingerprints.isTagUnchanged("key", "value"))
+        assertEquals(0, fingerprints.elidedCount)
+    }
+
+    @Test
+    fun `repeated tags are skipped`() {
+        assertFalse(fingerprints.isTagUnchanged("key", "value"))
+        assertTrue(fingerprints.isTagUnchanged("key", "value"))
+        assertFalse(fingerprints.isTagUnchanged("other", "value"))
+        assertFalse(fingerprints.isTagUnchanged("key", "changed"))
+        assertFalse(fingerprints.isTagUnchanged("key", "value"))
+
+        assertEquals(1, fingerprints.elidedCount)
+    }
+
+    @Test
+    fun `removing a tag is not the same as setting null as a string`() {
+        assertFalse(fingerprints.isTagUnchanged("key", null))
+        assertTrue(fingerprints.isTagUnchanged("key", null))
+        assertFalse(fingerprints.isTagUnchanged("key", "null"))
+    }
+
+    @Test
+    fun `repeated users are skipped`() {
+        assertFalse(fingerprints.isUserUnchanged(JavaOnlyMap.of("id", "123"), JavaOnlyMap.of("plan", "free")))
+        assertTrue(fingerprints.isUserUnchanged(JavaOnlyMap.of("id", "123"), JavaOnlyMap.of("plan", "free")))
+        assertFalse(fingerprints.isUserUnchanged(JavaOnlyMap.of("id", "123"), JavaOnlyMap.of("plan", "paid")))
+        assertFalse(fingerprints.isUserUnchanged(null, null))
+        assertTrue(fingerprints.isUserUnchanged(null, null))
+    }
+
+    @Test
+    fun `contexts are compared by structure`() {
+        assertFalse(
+            fingerprints.isContextUnchanged(
+                "flags",
+                JavaOnlyMap.of("a", true, "b", JavaOnlyArray.of(1, "two", JavaOnlyMap.of("c", null))),
+            ),
+        )
+        assertTrue(
+            fingerprints.isContextUnchanged(
+                "flags",
+                JavaOnlyMap.of("b", JavaOnlyArray.of(1, "two", JavaOnlyMap.of("c", null)), "a", true),
+            ),
+        )
+        assertFalse(
+            fingerprints.isContextUnchanged(
+                "flags",
+                JavaOnlyMap.of("a", true, "b", JavaOnlyArray.of("two", 1, JavaOnlyMap.of("c", null))),
+            ),
+        )
+    }
+
+    @Test
+    fun `structural hashes tell value types apart`() {
+        assertNotEquals(
+            RNSentryScopeFingerprints.hash(JavaOnlyMap.of("a", "1")),
+            RNSentryScopeFingerprints.hash(JavaOnlyMap.of("a", 1)),
+        )
+        assertNotEquals(
+            RNSentryScopeFingerprints.hash(JavaOnlyMap.of("a", true)),
+            RNSentryScopeFingerprints.hash(JavaOnlyMap.of("a", "true")),
+        )
+        assertNotEquals(
+            RNSentryScopeFingerprints.hash(JavaOnlyMap.of("a", "b")),
+            RNSentryScopeFingerprints.hash(JavaOnlyMap.of("b", "a")),
+        )
+    }
+
+    @Test
+    fun `batched operations are forgotten`() {
+        fingerprints.isTagUnchanged("key", "value")
+
+        fingerprints.forget(JavaOnlyArray.of(JavaOnlyMap.of("op", "setTag", "key", "key", "value", "other")))
+
+        assertFalse(fingerprints.isTagUnchanged("key", "value"))
+    }
+
+    @Test
+    fun `configuring forgets all fields`() {
+        fingerprints.isTagUnchanged("key", "value")
+
+        fingerprints.configure(true)
+
+        assertFalse(fingerprints.isTagUnchanged("key", "value"))
+    }
+}
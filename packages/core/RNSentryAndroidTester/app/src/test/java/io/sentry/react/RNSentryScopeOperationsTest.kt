@@ -0,0 +1,161 @@
+package io.sentry.react
+
+import com.facebook.react.bridge.JavaOnlyArray
+import com.facebook.react.bridge.JavaOnlyMap
+import io.sentry.Breadcrumb
+import io.sentry.ILogger
+import io.sentry.IScope
+import io.sentry.Scope
+import io.sentry.SentryOptions
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+
+@RunWith(JUnit4::class)
+class RNSentryScopeOperationsTest {
+    private lateinit var logger: ILogger
+    private lateinit var scope: Scope
+
+    @Before
+    fun setUp() {
+        logger = mock(ILogger::class.java)
+        scope = Scope(SentryOptions())
+    }
+
+    @Test
+    fun `applies all operations in order`() {
+        RNSentryScopeOperations.applyAll(
+            scope,
+            JavaOnlyArray.of(
+                JavaOnlyMap.of("op", "setTag", "key", "tag", "value", "first"),
+                JavaOnlyMap.of("op", "setExtra", "key", "extra", "value", "value"),
+                JavaOnlyMap.of("op", "setContext", "key", "context", "value", JavaOnlyMap.of("foo", "bar")),
+                JavaOnlyMap.of("op", "setUser", "user", JavaOnlyMap.of("id", "123"), "otherUserKeys", null),
+                JavaOnlyMap.of("op", "setTag", "key", "tag", "value", "second"),
+            ),
+            logger,
+        )
+
+        assertEquals("second", scope.tags["tag"])
+        assertEquals("value", scope.extras["extra"])
+        assertEquals(mapOf("foo" to "bar"), scope.contexts["context"])
+        assertEquals("123", scope.user?.id)
+    }
+
+    @Test
+    fun `null context value removes the context`() {
+        scope.setContexts("context", mapOf("foo" to "bar"))
+
+        RNSentryScopeOperations.applyAll(
+            scope,
+            JavaOnlyArray.of(JavaOnlyMap.of("op", "setContext", "key", "context", "value", null)),
+            logger,
+        )
+
+        assertFalse(scope.contexts.containsKey("context"))
+    }
+
+    @Test
+    fun `breadcrumbs update the current screen`() {
+        RNSentryScopeOperations.applyAll(
+            scope,
+            JavaOnlyArray.of(
+                JavaOnlyMap.of("op", "addBreadcrumb", "value", JavaOnlyMap.of("message", "first")),
+                JavaOnlyMap.of(
+                    "op",
+                    "addBreadcrumb",
+                    "value",
+                    JavaOnlyMap.of("category", "navigation", "data", JavaOnlyMap.of("to", "Home")),
+                ),
+            ),
+            logger,
+        )
+
+        assertEquals(2, scope.breadcrumbs.size)
+        assertEquals("Home", scope.screen)
+    }
+
+    @Test
+    fun `breadcrumb batches set the screen of the last navigation breadcrumb`() {
+        val scope = mock(IScope::class.java)
+
+        RNSentryScopeOperations.addBreadcrumbs(
+            scope,
+            JavaOnlyArray.of(
+                JavaOnlyMap.of("category", "navigation", "data", JavaOnlyMap.of("to", "First")),
+                JavaOnlyMap.of("category", "navigation", "data", JavaOnlyMap.of("to", "Second")),
+                JavaOnlyMap.of("message", "tap"),
+                "not a breadcrumb",
+            ),
+            logger,
+        )
+
+        verify(scope, times(3)).addBreadcrumb(any(Breadcrumb::class.java))
+        verify(scope, times(1)).setScreen(any())
+        verify(scope).setScreen("Second")
+    }
+
+    @Test
+    fun `breadcrumb categories are shared`() {
+        RNSentryScopeOperations.applyAll(
+            scope,
+            JavaOnlyArray.of(
+                JavaOnlyMap.of(
+                    "op",
+                    "addBreadcrumbs",
+                    "value",
+                    JavaOnlyArray.of(
+                        JavaOnlyMap.of("category", String(charArrayOf('t', 'o', 'u', 'c', 'h'))),
+                        JavaOnlyMap.of("category", String(charArrayOf('t', 'o', 'u', 'c', 'h'))),
+                    ),
+                ),
+            ),
+            logger,
+        )
+
+        val breadcrumbs = scope.breadcrumbs.toList()
+        assertEquals(2, breadcrumbs.size)
+        assertSame(breadcrumbs[0].category, breadcrumbs[1].category)
+    }
+
+    @Test
+    fun `clearBreadcrumbs removes earlier breadcrumbs of the batch`() {
+        RNSentryScopeOperations.applyAll(
+            scope,
+            JavaOnlyArray.of(
+                JavaOnlyMap.of("op", "addBreadcrumb", "value", JavaOnlyMap.of("message", "first")),
+                JavaOnlyMap.of("op", "clearBreadcrumbs"),
+            ),
+            logger,
+        )
+
+        assertEquals(0, scope.breadcrumbs.size)
+    }
+
+    @Test
+    fun `malformed and unknown operations are skipped`() {
+        RNSentryScopeOperations.applyAll(
+            scope,
+            JavaOnlyArray.of(
+                "setTag",
+                JavaOnlyMap.of("key", "tag", "value", "value"),
+                JavaOnlyMap.of("op", "unknown"),
+                JavaOnlyMap.of("op", "setExtra", "key", "extra"),
+                JavaOnlyMap.of("op", "setTag", "key", "tag", "value", "value"),
+            ),
+            logger,
+        )
+
+        assertEquals("value", scope.tags["tag"])
+        assertNull(scope.extras["extra"])
+    }
+}
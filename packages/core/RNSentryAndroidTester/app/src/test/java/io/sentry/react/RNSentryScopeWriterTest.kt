@@ -0,0 +1,199 @@
+package io.sentry.react
+
+import com.facebook.react.bridge.JavaOnlyArray
+import com.facebook.react.bridge.JavaOnlyMap
+import io.sentry.Breadcrumb
+import io.sentry.ILogger
+import io.sentry.IScopes
+import io.sentry.Scope
+import io.sentry.SentryOptions
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import org.mockito.Mockito.mock
+
+@RunWith(JUnit4::class)
+class RNSentryScopeWriterTest {
+    private lateinit var logger: ILogger
+    private lateinit var scope: Scope
+    private var configureCount = 0
+    private val scheduled = mutableListOf<Runnable>()
+    private lateinit var writer: RNSentryScopeWriter
+
+    @Before
+    fun setUp() {
+        logger = mock(ILogger::class.java)
+        scope = Scope(SentryOptions())
+        configureCount = 0
+        scheduled.clear()
+        writer =
+            RNSentryScopeWriter(
+                { callback ->
+                    configureCount++
+                    callback.run(scope)
+                },
+                { flush -> scheduled.add(flush) },
+            )
+        writer.configure(true, 4, logger)
+    }
+
+    @Test
+    fun `disabled writer applies writes in place`() {
+        writer.configure(false, 4, logger)
+
+        setTag("key", "value")
+
+        assertEquals("value", scope.tags["key"])
+        assertTrue(scheduled.isEmpty())
+    }
+
+    @Test
+    fun `writes are applied in one pass when the scheduled flush runs`() {
+        setTag("first", "1")
+        setTag("second", "2")
+
+        assertTrue(scope.tags.isEmpty())
+        assertEquals(1, scheduled.size)
+
+        scheduled.single().run()
+
+        assertEquals(mapOf("first" to "1", "second" to "2"), scope.tags)
+        assertEquals(1, configureCount)
+    }
+
+    @Test
+    fun `only the last write of a field survives`() {
+        setTag("key", "first")
+        setTag("key", "second")
+
+        assertEquals(1, writer.pendingCount)
+        writer.flush()
+
+        assertEquals("second", scope.tags["key"])
+    }
+
+    @Test
+    fun `a collapsed write is applied after the writes it overrides`() {
+        setTag("key", "first")
+        writer.write(null) { it.setTag("key", "unkeyed") }
+        setTag("key", "last")
+
+        writer.flush()
+
+        assertEquals("last", scope.tags["key"])
+    }
+
+    @Test
+    fun `breadcrumbs are kept in order`() {
+        addBreadcrumb("first")
+        addBreadcrumb("second")
+
+        writer.flush()
+
+        assertEquals(listOf("first", "second"), scope.breadcrumbs.map { it.message })
+    }
+
+    @Test
+    fun `clearBreadcrumbs keeps queued breadcrumbs in order`() {
+        scope.addBreadcrumb(Breadcrumb("applied"))
+        addBreadcrumb("queued")
+
+        writer.write(null) { it.clearBreadcrumbs() }
+        addBreadcrumb("after")
+        assertEquals(3, writer.pendingCount)
+
+        writer.flush()
+
+        assertEquals(listOf("after"), scope.breadcrumbs.map { it.message })
+    }
+
+    @Test
+    fun `reaching the limit flushes in place`() {
+        setTag("1", "1")
+        setTag("2", "2")
+        setTag("3", "3")
+        assertTrue(scope.tags.isEmpty())
+
+        setTag("4", "4")
+
+        assertEquals(4, scope.tags.size)
+        assertEquals(0, writer.pendingCount)
+    }
+
+    @Test
+    fun `a new flush is scheduled after a flush`() {
+        setTag("first", "1")
+        writer.flush()
+
+        setTag("second", "2")
+
+        assertEquals(2, scheduled.size)
+    }
+
+    @Test
+    fun `batches are queued per operation`() {
+        writer.writeAll(
+            JavaOnlyArray.of(
+                JavaOnlyMap.of("op", "setTag", "key", "key", "value", "first"),
+                JavaOnlyMap.of("op", "setExtra", "key", "extra", "value", "value"),
+                JavaOnlyMap.of("op", "setTag", "key", "key", "value", "second"),
+            ),
+        )
+
+        assertEquals(2, writer.pendingCount)
+        writer.flush()
+
+        assertEquals("second", scope.tags["key"])
+        assertEquals("value", scope.extras["extra"])
+    }
+
+    @Test
+    fun `disabling the writer flushes queued writes`() {
+        setTag("key", "value")
+
+        writer.configure(false, 4, logger)
+
+        assertEquals("value", scope.tags["key"])
+    }
+
+    @Test
+    fun `a failing write does not drop the rest of the batch`() {
+        writer.write(null) { throw IllegalStateException("test") }
+        setTag("key", "value")
+
+        writer.flush()
+
+        assertEquals("value", scope.tags["key"])
+    }
+
+    @Test
+    fun `uncaught exceptions flush before the previous handler runs`() {
+        val previous = Thread.getDefaultUncaughtExceptionHandler()
+        var tagWhenCaptured: String? = null
+        Thread.setDefaultUncaughtExceptionHandler { _, _ -> tagWhenCaptured = scope.tags["key"] }
+        val integration = RNSentryScopeWriter.FlushOnCrashIntegration(writer)
+        try {
+            integration.register(mock(IScopes::class.java), SentryOptions())
+            setTag("key", "value")
+
+            Thread.getDefaultUncaughtExceptionHandler()!!.uncaughtException(Thread.currentThread(), RuntimeException())
+
+            assertEquals("value", tagWhenCaptured)
+        } finally {
+            integration.close()
+            assertFalse(Thread.getDefaultUncaughtExceptionHandler() === integration)
+            Thread.setDefaultUncaughtExceptionHandler(previous)
+        }
+    }
+
+    private fun setTag(
+        key: String,
+        value: String,
+    ) = writer.write(RNSentryScopeOperations.fieldOf("setTag", key)) { it.setTag(key, value) }
+
+    private fun addBreadcrumb(message: String) = writer.write(null) { it.addBreadcrumb(Breadcrumb(message)) }
+}
@@ -0,0 +1,120 @@
+package io.sentry.react
+
+import android.app.Activity
+import android.graphics.Bitmap
+import io.sentry.ILogger
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mockito.mock
+import org.robolectric.Robolectric
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.shadows.ShadowSystemClock
+import java.time.Duration
+
+@RunWith(RobolectricTestRunner::class)
+class RNSentryScreenshotCaptureTest {
+    private val logger = mock(ILogger::class.java)
+
+    @Test
+    fun `format is parsed from the JS option value`() {
+        assertEquals(RNSentryScreenshotCapture.Format.PNG, RNSentryScreenshotCapture.Format.fromString("png"))
+        assertEquals(RNSentryScreenshotCapture.Format.JPEG, RNSentryScreenshotCapture.Format.fromString("jpeg"))
+        assertEquals(RNSentryScreenshotCapture.Format.WEBP, RNSentryScreenshotCapture.Format.fromString("WEBP"))
+        assertNull(RNSentryScreenshotCapture.Format.fromString("gif"))
+    }
+
+    @Test
+    fun `format describes the attachment`() {
+        assertEquals("image/webp", RNSentryScreenshotCapture.Format.WEBP.contentType)
+        assertEquals("screenshot.webp", RNSentryScreenshotCapture.Format.WEBP.filename)
+        assertEquals("screenshot.jpg", RNSentryScreenshotCapture.Format.JPEG.filename)
+    }
+
+    @Test
+    fun `encode downscales and recycles the bitmap`() {
+        val bitmap = Bitmap.createBitmap(1080, 1920, Bitmap.Config.ARGB_8888)
+
+        val image = RNSentryScreenshotCapture.encode(bitmap, 480, RNSentryScreenshotCapture.Format.JPEG, 80, logger)
+
+        assertNotNull(image)
+        assertTrue(image!!.isNotEmpty())
+        assertTrue(bitmap.isRecycled)
+    }
+
+    @Test
+    fun `encode keeps small bitmaps at their size`() {
+        val bitmap = Bitmap.createBitmap(100, 200, Bitmap.Config.ARGB_8888)
+
+        val image = RNSentryScreenshotCapture.encode(bitmap, 480, RNSentryScreenshotCapture.Format.PNG, 100, logger)
+
+        assertNotNull(image)
+        assertTrue(bitmap.isRecycled)
+    }
+
+    @Test
+    fun `screenshot is reused while nothing is drawn`() {
+        val activity = Robolectric.buildActivity(Activity::class.java).setup().get()
+        val capture = RNSentryScreenshotCapture()
+        val image = byteArrayOf(1, 2, 3)
+
+        complete(capture, activity, image)
+
+        assertSame(image, capture.getReusable(activity)!!.image)
+
+        activity.window.decorView.viewTreeObserver.dispatchOnDraw()
+
+        assertNull(capture.getReusable(activity))
+    }
+
+    @Test
+    fun `screenshot is not reused after the window`() {
+        val activity = Robolectric.buildActivity(Activity::class.java).setup().get()
+        val capture = RNSentryScreenshotCapture()
+        capture.configure(0, RNSentryScreenshotCapture.Format.PNG, 80, 500)
+
+        complete(capture, activity, byteArrayOf(1))
+        ShadowSystemClock.advanceBy(Duration.ofMillis(501))
+
+        assertNull(capture.getReusable(activity))
+    }
+
+    @Test
+    fun `screenshot is not reused when reuse is disabled`() {
+        val activity = Robolectric.buildActivity(Activity::class.java).setup().get()
+        val capture = RNSentryScreenshotCapture()
+        capture.configure(0, RNSentryScreenshotCapture.Format.PNG, 80, 0)
+
+        complete(capture, activity, byteArrayOf(1))
+
+        assertNull(capture.getReusable(activity))
+    }
+
+    @Test
+    fun `all waiting callbacks receive the screenshot`() {
+        val activity = Robolectric.buildActivity(Activity::class.java).setup().get()
+        val capture = RNSentryScreenshotCapture()
+        val received = mutableListOf<ByteArray?>()
+        val pending = RNSentryScreenshotCapture.PendingCapture(activity) { image, _ -> received.add(image) }
+        pending.callbacks.add { image, _ -> received.add(image) }
+        val image = byteArrayOf(1)
+
+        capture.complete(pending, image, RNSentryScreenshotCapture.Format.PNG)
+
+        assertEquals(listOf(image, image), received)
+    }
+
+    private fun complete(
+        capture: RNSentryScreenshotCapture,
+        activity: Activity,
+        image: ByteArray,
+    ) {
+        val pending = RNSentryScreenshotCapture.PendingCapture(activity) { _, _ -> }
+        pending.drawCount = capture.observeDraws(activity)
+        capture.complete(pending, image, RNSentryScreenshotCapture.Format.PNG)
+    }
+}
@@ -0,0 +1,57 @@
+package io.sentry.react
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+
+@RunWith(JUnit4::class)
+class RNSentryUriReaderTest {
+    @get:Rule
+    val tmpDir = TemporaryFolder()
+
+    private val content = ByteArray(200_000) { it.toByte() }
+
+    @Test
+    fun `reads the whole file`() {
+        val file = tmpDir.newFile().apply { writeBytes(content) }
+
+        assertArrayEquals(content, RNSentryUriReader.readFile(file, 0, RNSentryUriReader.TO_END))
+    }
+
+    @Test
+    fun `reads a range of the file`() {
+        val file = tmpDir.newFile().apply { writeBytes(content) }
+
+        val bytes = RNSentryUriReader.readFile(file, 70_000, 100)
+
+        assertArrayEquals(content.copyOfRange(70_000, 70_100), bytes)
+    }
+
+    @Test
+    fun `range is clamped to the end of the file`() {
+        val file = tmpDir.newFile().apply { writeBytes(content) }
+
+        val bytes = RNSentryUriReader.readFile(file, 199_990, 100)
+
+        assertEquals(10, bytes.size)
+        assertArrayEquals(content.copyOfRange(199_990, 200_000), bytes)
+    }
+
+    @Test
+    fun `offset at the end of the file reads nothing`() {
+        val file = tmpDir.newFile().apply { writeBytes(content) }
+
+        assertEquals(0, RNSentryUriReader.readFile(file, 200_000, RNSentryUriReader.TO_END).size)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `offset past the end of the file is rejected`() {
+        val file = tmpDir.newFile().apply { writeBytes(content) }
+
+        RNSentryUriReader.readFile(file, 200_001, RNSentryUriReader.TO_END)
+    }
+}
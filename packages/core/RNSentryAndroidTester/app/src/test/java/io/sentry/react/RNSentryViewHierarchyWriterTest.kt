@@ -0,0 +1,156 @@
+package io.sentry.react
+
+import android.content.Context
+import android.view.View
+import android.widget.FrameLayout
+import androidx.test.core.app.ApplicationProvider
+import org.json.JSONObject
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class RNSentryViewHierarchyWriterTest {
+    private val context = ApplicationProvider.getApplicationContext<Context>()
+
+    @Test
+    fun `writes the android view hierarchy format`() {
+        val root = FrameLayout(context)
+        val child = View(context)
+        child.visibility = View.GONE
+        root.addView(child)
+
+        val json = write(RNSentryViewHierarchyWriter(), root)
+
+        assertEquals("android_view", json.getString("rendering_system"))
+        val window = json.getJSONArray("windows").getJSONObject(0)
+        assertEquals(FrameLayout::class.java.name, window.getString("type"))
+        val node = window.getJSONArray("children").getJSONObject(0)
+        assertEquals(View::class.java.name, node.getString("type"))
+        assertEquals("gone", node.getString("visibility"))
+        assertFalse(node.has("children"))
+    }
+
+    @Test
+    fun `views below the max depth are left out`() {
+        val writer = RNSentryViewHierarchyWriter()
+        writer.configure(1, Int.MAX_VALUE, Int.MAX_VALUE, false)
+
+        val json = write(writer, nest(5))
+
+        val child = json.getJSONArray("windows").getJSONObject(0).getJSONArray("children").getJSONObject(0)
+        assertFalse(child.has("children"))
+    }
+
+    @Test
+    fun `views over the max node count are left out`() {
+        val writer = RNSentryViewHierarchyWriter()
+        writer.configure(100, 3, Int.MAX_VALUE, false)
+        val root = FrameLayout(context)
+        repeat(10) { root.addView(View(context)) }
+
+        val json = write(writer, root)
+
+        assertEquals(2, json.getJSONArray("windows").getJSONObject(0).getJSONArray("children").length())
+    }
+
+    @Test
+    fun `views over the max size are left out`() {
+        val writer = RNSentryViewHierarchyWriter()
+        writer.configure(100, Int.MAX_VALUE, 1024, false)
+        val root = FrameLayout(context)
+        repeat(1000) { root.addView(View(context)) }
+
+        val bytes = writer.write(root)!!
+
+        assertTrue(bytes.size < 2048)
+        JSONObject(String(bytes))
+    }
+
+    @Test
+    fun `the writer is reusable`() {
+        val writer = RNSentryViewHierarchyWriter()
+        val root = FrameLayout(context)
+
+        val first = writer.write(root)!!
+        val second = writer.write(root)!!
+
+        assertTrue(first.contentEquals(second))
+    }
+
+    @Test
+    fun `incremental mode writes the same json as a full walk`() {
+        val root = FrameLayout(context)
+        repeat(3) { root.addView(FrameLayout(context).apply { addView(View(context)) }) }
+        val incremental = RNSentryViewHierarchyWriter()
+        incremental.configure(100, Int.MAX_VALUE, Int.MAX_VALUE, true)
+
+        val expected = RNSentryViewHierarchyWriter().write(root)!!
+
+        assertArrayEquals(expected, incremental.write(root)!!)
+        assertArrayEquals(expected, incremental.write(root)!!)
+    }
+
+    @Test
+    fun `incremental mode picks up changed views`() {
+        val root = FrameLayout(context)
+        val child = View(context)
+        root.addView(child)
+        val writer = RNSentryViewHierarchyWriter()
+        writer.configure(100, Int.MAX_VALUE, Int.MAX_VALUE, true)
+        writer.write(root)
+
+        child.visibility = View.INVISIBLE
+        root.viewTreeObserver.dispatchOnDraw()
+        val node = write(writer, root).getJSONArray("windows").getJSONObject(0).getJSONArray("children").getJSONObject(0)
+
+        assertEquals("invisible", node.getString("visibility"))
+    }
+
+    @Test
+    fun `incremental mode picks up added views`() {
+        val root = FrameLayout(context)
+        val writer = RNSentryViewHierarchyWriter()
+        writer.configure(100, Int.MAX_VALUE, Int.MAX_VALUE, true)
+        writer.write(root)
+
+        root.addView(View(context))
+        root.viewTreeObserver.dispatchOnDraw()
+
+        assertArrayEquals(RNSentryViewHierarchyWriter().write(root)!!, writer.write(root)!!)
+    }
+
+    @Test
+    fun `incremental mode reuses the last result until something is drawn`() {
+        val root = FrameLayout(context)
+        val writer = RNSentryViewHierarchyWriter()
+        writer.configure(100, Int.MAX_VALUE, Int.MAX_VALUE, true)
+
+        val first = writer.write(root)!!
+
+        assertSame(first, writer.write(root))
+        root.viewTreeObserver.dispatchOnDraw()
+        assertNotSame(first, writer.write(root))
+    }
+
+    private fun write(
+        writer: RNSentryViewHierarchyWriter,
+        root: View,
+    ): JSONObject = JSONObject(String(writer.write(root)!!))
+
+    private fun nest(depth: Int): View {
+        var view: View = View(context)
+        repeat(depth) {
+            val parent = FrameLayout(context)
+            parent.addView(view)
+            view = parent
+        }
+        return view
+    }
+}
@@ -83,6 +83,47 @@ class RNSentryBreadcrumbTest {
         assertEquals(1_700_000_000_500L, actual.timestamp.time)
     }
 
+    @Test
+    fun parsesIsoTimestamp() {
+        val map = JavaOnlyMap.of("timestamp", "2023-11-14T22:13:20.500Z")
+        val actual = RNSentryBreadcrumb.fromMap(map, logger)
+        assertEquals(1_700_000_000_500L, actual.timestamp.time)
+    }
+
+    @Test
+    fun copiesNestedData() {
+        val map =
+            JavaOnlyMap.of(
+                "data",
+                JavaOnlyMap.of("nested", JavaOnlyMap.of("key", "value"), "missing", null),
+            )
+        val actual = RNSentryBreadcrumb.fromMap(map, logger)
+        assertEquals(mapOf("nested" to mapOf("key" to "value")), actual.data)
+    }
+
+    @Test
+    fun keepsUnknownKeys() {
+        val map = JavaOnlyMap.of("message", "testMessage", "event_id", "123")
+        val actual = RNSentryBreadcrumb.fromMap(map, logger)
+        assertEquals(mapOf("event_id" to "123"), actual.unknown)
+    }
+
+    @Test
+    fun defaultsToInfoLevelForUnknownLevel() {
+        val map = JavaOnlyMap.of("message", "testMessage", "level", "verbose")
+        val actual = RNSentryBreadcrumb.fromMap(map, logger)
+        assertEquals("testMessage", actual.message)
+        assertEquals(SentryLevel.INFO, actual.level)
+    }
+
+    @Test
+    fun ignoresNonStringMessage() {
+        val map = JavaOnlyMap.of("message", 123, "category", "testCategory")
+        val actual = RNSentryBreadcrumb.fromMap(map, logger)
+        assertEquals(null, actual.message)
+        assertEquals("testCategory", actual.category)
+    }
+
     @Test
     fun reactNativeForMissingOrigin() {
         val map =
@@ -0,0 +1,350 @@
+package io.sentry.react;
+
+import io.sentry.ILogger;
+import io.sentry.JsonObjectWriter;
+import io.sentry.SentryEnvelopeItemHeader;
+import io.sentry.SentryLevel;
+import io.sentry.clientreport.DiscardReason;
+import io.sentry.transport.CurrentDateProvider;
+import io.sentry.transport.ICurrentDateProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Keeps attachment bytes produced on the native side (screenshots, view hierarchies, file
+ * contents) on disk, so that only an opaque handle has to travel to JS and back.
+ *
+ * <p>JS references a stored attachment by adding an envelope item with the {@link
+ * #HANDLE_CONTENT_TYPE} content type and the handle as its payload. When the envelope reaches
+ * {@link RNSentryEnvelopeCapture} the handle items are {@link #splice spliced}, i.e. replaced with
+ * the stored bytes and their real content type, before the envelope is filtered and queued. Each
+ * handle can be spliced once.
+ *
+ * <p>Handles that are never sent, for example because the event was dropped in JS, expire after
+ * the configured time to live. When the store exceeds its quota the least recently used
+ * attachments are evicted first.
+ */
+final class RNSentryAttachmentStore {
+
+  static final String DIR_NAME = "attachments";
+
+  /** Content type of envelope items whose payload is a handle of this store. */
+  static final String HANDLE_CONTENT_TYPE = "application/vnd.sentry.react-native.attachment-handle";
+
+  static final long DEFAULT_MAX_BYTES = 20 * 1024 * 1024;
+  static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8"); // NOPMD - Allow using UTF-8
+
+  private static final int MAX_HEADER_DEPTH = 10;
+
+  private static final @NotNull RNSentryAttachmentStore instance =
+      new RNSentryAttachmentStore(CurrentDateProvider.getInstance());
+
+  private final @NotNull ICurrentDateProvider dateProvider;
+
+  /** Stored attachments in access order, the eldest is evicted first. */
+  private final @NotNull LinkedHashMap<String, Entry> entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  private @Nullable File directory;
+  private long maxBytes = DEFAULT_MAX_BYTES;
+  private long ttlMillis = DEFAULT_TTL_MILLIS;
+  private long totalBytes;
+
+  static @NotNull RNSentryAttachmentStore getInstance() {
+    return instance;
+  }
+
+  @TestOnly
+  RNSentryAttachmentStore(final @NotNull ICurrentDateProvider dateProvider) {
+    this.dateProvider = dateProvider;
+  }
+
+  /** A stored attachment. */
+  static final class Entry {
+    private final @NotNull String handle;
+    private final @NotNull File file;
+    private final @NotNull String contentType;
+    private final @NotNull String filename;
+    private final long length;
+    private final long createdAt;
+
+    Entry(
+        final @NotNull String handle,
+        final @NotNull File file,
+        final @NotNull String contentType,
+        final @NotNull String filename,
+        final long length,
+        final long createdAt) {
+      this.handle = handle;
+      this.file = file;
+      this.contentType = contentType;
+      this.filename = filename;
+      this.length = length;
+      this.createdAt = createdAt;
+    }
+
+    @NotNull
+    String getHandle() {
+      return handle;
+    }
+
+    @NotNull
+    String getContentType() {
+      return contentType;
+    }
+
+    @NotNull
+    String getFilename() {
+      return filename;
+    }
+
+    long getLength() {
+      return length;
+    }
+  }
+
+  /**
+   * Attachments stored by a previous run can't be referenced anymore and are deleted.
+   *
+   * @param directory where attachments are stored, or {@code null} to disable the store
+   * @param maxBytes quota of all stored attachments
+   * @param ttlMillis how long an attachment is kept when it is never spliced
+   */
+  synchronized void configure(
+      final @Nullable File directory, final long maxBytes, final long ttlMillis) {
+    clear();
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+    this.ttlMillis = ttlMillis;
+    if (directory != null) {
+      deleteFiles(directory);
+    }
+  }
+
+  synchronized boolean isEnabled() {
+    return directory != null;
+  }
+
+  synchronized boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  /**
+   * Writes the attachment to disk.
+   *
+   * @return the stored attachment, or {@code null} when the store is disabled, the attachment is
+   *     larger than the quota or could not be written
+   */
+  @Nullable
+  Entry put(
+      final @NotNull byte[] data,
+      final @NotNull String contentType,
+      final @NotNull String filename,
+      final @NotNull ILogger logger) {
+    final @Nullable File dir;
+    synchronized (this) {
+      dir = directory;
+      if (dir == null || data.length > maxBytes) {
+        return null;
+      }
+    }
+
+    final String handle = UUID.randomUUID().toString().replace("-", "");
+    final File file = new File(dir, handle);
+    if (!dir.exists() && !dir.mkdirs()) {
+      logger.log(SentryLevel.WARNING, "Could not create the attachment store directory.");
+      return null;
+    }
+    try (FileOutputStream out = new FileOutputStream(file)) {
+      out.write(data);
+    } catch (IOException e) {
+      logger.log(SentryLevel.ERROR, "Failed to store attachment.", e);
+      delete(file);
+      return null;
+    }
+
+    final Entry entry =
+        new Entry(
+            handle, file, contentType, filename, data.length, dateProvider.getCurrentTimeMillis());
+    synchronized (this) {
+      if (directory != dir) {
+        // Reconfigured while writing.
+        delete(file);
+        return null;
+      }
+      evict(data.length);
+      entries.put(handle, entry);
+      totalBytes += entry.length;
+    }
+    return entry;
+  }
+
+  /**
+   * Removes the attachment from the store.
+   *
+   * @return the attachment, or {@code null} if the handle is unknown, expired or was evicted
+   */
+  synchronized @Nullable Entry remove(final @NotNull String handle) {
+    evictExpired();
+    final @Nullable Entry entry = entries.remove(handle);
+    if (entry != null) {
+      totalBytes -= entry.length;
+    }
+    return entry;
+  }
+
+  /** Reads the bytes of a {@link #remove removed} attachment and deletes its file. */
+  static @Nullable byte[] read(final @NotNull Entry entry, final @NotNull ILogger logger) {
+    try {
+      return RNSentryUriReader.readFile(entry.file, 0, RNSentryUriReader.TO_END);
+    } catch (IOException | IllegalArgumentException e) {
+      logger.log(SentryLevel.ERROR, "Failed to read stored attachment.", e);
+      return null;
+    } finally {
+      delete(entry.file);
+    }
+  }
+
+  /** Whether the envelope has items referencing stored attachments. */
+  static boolean hasHandles(final @NotNull RNSentryEnvelopeScanner.Envelope envelope) {
+    for (final @NotNull RNSentryEnvelopeScanner.Item item : envelope.getItems()) {
+      if (isHandle(item)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Replaces items referencing stored attachments with the stored bytes. Items whose attachment is
+   * gone are left out and recorded as lost.
+   *
+   * @return the new envelope bytes
+   */
+  @NotNull
+  byte[] splice(
+      final @NotNull byte[] envelope,
+      final @NotNull RNSentryEnvelopeScanner.Envelope scanned,
+      final @NotNull ILogger logger) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(envelope.length);
+    final List<RNSentryEnvelopeScanner.Item> lost = new ArrayList<>();
+    out.write(envelope, 0, scanned.getHeaderSize());
+    for (final @NotNull RNSentryEnvelopeScanner.Item item : scanned.getItems()) {
+      if (!isHandle(item)) {
+        out.write(envelope, item.getStart(), item.getEnd() - item.getStart());
+        continue;
+      }
+
+      final String handle =
+          new String(envelope, item.getPayloadStart(), item.getPayloadLength(), UTF_8).trim();
+      final @Nullable Entry entry = remove(handle);
+      final @Nullable byte[] data = entry != null ? read(entry, logger) : null;
+      if (entry == null || data == null) {
+        logger.log(SentryLevel.WARNING, "Stored attachment " + handle + " is gone, dropping it.");
+        lost.add(item);
+        continue;
+      }
+      try {
+        writeHeader(out, item.getHeader(), entry.contentType, data.length);
+      } catch (IOException e) {
+        logger.log(SentryLevel.ERROR, "Failed to write the header of a stored attachment.", e);
+        lost.add(item);
+        continue;
+      }
+      out.write(data, 0, data.length);
+      out.write('\n');
+    }
+    RNSentryEnvelopeFilter.recordLost(DiscardReason.CACHE_OVERFLOW, lost, logger);
+    return out.toByteArray();
+  }
+
+  private static boolean isHandle(final @NotNull RNSentryEnvelopeScanner.Item item) {
+    return HANDLE_CONTENT_TYPE.equals(item.getHeader().getContentType());
+  }
+
+  private static void writeHeader(
+      final @NotNull ByteArrayOutputStream out,
+      final @NotNull SentryEnvelopeItemHeader header,
+      final @NotNull String contentType,
+      final int length)
+      throws IOException {
+    final Writer writer = new OutputStreamWriter(out, UTF_8);
+    final JsonObjectWriter json = new JsonObjectWriter(writer, MAX_HEADER_DEPTH);
+    json.beginObject();
+    json.name("type").value(header.getType().getItemType());
+    json.name("length").value(length);
+    json.name("content_type").value(contentType);
+    if (header.getFileName() != null) {
+      json.name("filename").value(header.getFileName());
+    }
+    if (header.getAttachmentType() != null) {
+      json.name("attachment_type").value(header.getAttachmentType());
+    }
+    json.endObject();
+    writer.flush();
+    out.write('\n');
+  }
+
+  /** Evicts expired attachments, then the least recently used until {@code incoming} fits. */
+  private void evict(final long incoming) {
+    evictExpired();
+    final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+    while (totalBytes + incoming > maxBytes && iterator.hasNext()) {
+      final Entry eldest = iterator.next().getValue();
+      iterator.remove();
+      totalBytes -= eldest.length;
+      delete(eldest.file);
+    }
+  }
+
+  private void evictExpired() {
+    final long now = dateProvider.getCurrentTimeMillis();
+    final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Entry entry = iterator.next().getValue();
+      if (now - entry.createdAt > ttlMillis) {
+        iterator.remove();
+        totalBytes -= entry.length;
+        delete(entry.file);
+      }
+    }
+  }
+
+  private void clear() {
+    for (final @NotNull Entry entry : entries.values()) {
+      delete(entry.file);
+    }
+    entries.clear();
+    totalBytes = 0;
+  }
+
+  private static void deleteFiles(final @NotNull File dir) {
+    final @Nullable File[] files = dir.listFiles();
+    if (files != null) {
+      for (final @NotNull File file : files) {
+        delete(file);
+      }
+    }
+  }
+
+  @SuppressWarnings("ResultOfMethodCallIgnored")
+  private static void delete(final @NotNull File file) {
+    file.delete();
+  }
+}
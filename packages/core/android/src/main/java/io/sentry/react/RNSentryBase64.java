@@ -0,0 +1,93 @@
+package io.sentry.react;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Base64 encoder for large binary payloads coming from JS.
+ *
+ * <p>The input is read in blocks straight from a heap or direct {@link ByteBuffer} and encoded with
+ * a table lookup per 3 byte group into a single, exactly sized output array, which is turned into
+ * the result string once. Output is never wrapped; the URL-safe alphabet replaces {@code +} and
+ * {@code /} with {@code -} and {@code _} and keeps the padding.
+ */
+final class RNSentryBase64 {
+
+  private static final Charset US_ASCII = Charset.forName("US-ASCII"); // NOPMD - Allow US-ASCII
+
+  /** Input bytes read from a direct buffer at once, a multiple of 3 so groups never split. */
+  static final int BLOCK_SIZE = 48 * 1024;
+
+  private static final byte[] STANDARD =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(US_ASCII);
+  private static final byte[] URL_SAFE =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(US_ASCII);
+
+  private RNSentryBase64() {
+    throw new AssertionError("Utility class should not be instantiated");
+  }
+
+  /** Encodes the remaining bytes of the buffer without changing its position. */
+  static @NotNull String encode(final @NotNull ByteBuffer buffer, final boolean urlSafe) {
+    final byte[] alphabet = urlSafe ? URL_SAFE : STANDARD;
+    final ByteBuffer input = buffer.duplicate();
+    final int length = input.remaining();
+    final byte[] out = new byte[(length + 2) / 3 * 4];
+
+    if (input.hasArray()) {
+      encode(input.array(), input.arrayOffset() + input.position(), length, out, 0, alphabet);
+      return new String(out, US_ASCII);
+    }
+
+    final byte[] block = new byte[Math.min(BLOCK_SIZE, length)];
+    int written = 0;
+    while (input.hasRemaining()) {
+      final int count = Math.min(block.length, input.remaining());
+      input.get(block, 0, count);
+      written = encode(block, 0, count, out, written, alphabet);
+    }
+    return new String(out, US_ASCII);
+  }
+
+  static @NotNull String encode(final @NotNull byte[] bytes, final boolean urlSafe) {
+    return encode(ByteBuffer.wrap(bytes), urlSafe);
+  }
+
+  /**
+   * Encodes {@code length} bytes, padding the last group if it is incomplete.
+   *
+   * @return the offset in {@code out} after the written characters
+   */
+  private static int encode(
+      final @NotNull byte[] in,
+      final int offset,
+      final int length,
+      final @NotNull byte[] out,
+      final int outOffset,
+      final @NotNull byte[] alphabet) {
+    int i = offset;
+    int o = outOffset;
+    final int fullGroupsEnd = offset + length - length % 3;
+    while (i < fullGroupsEnd) {
+      final int group = (in[i] & 0xff) << 16 | (in[i + 1] & 0xff) << 8 | (in[i + 2] & 0xff);
+      out[o] = alphabet[group >>> 18];
+      out[o + 1] = alphabet[(group >>> 12) & 0x3f];
+      out[o + 2] = alphabet[(group >>> 6) & 0x3f];
+      out[o + 3] = alphabet[group & 0x3f];
+      i += 3;
+      o += 4;
+    }
+
+    final int remaining = offset + length - i;
+    if (remaining > 0) {
+      final int group = (in[i] & 0xff) << 16 | (remaining == 2 ? (in[i + 1] & 0xff) << 8 : 0);
+      out[o] = alphabet[group >>> 18];
+      out[o + 1] = alphabet[(group >>> 12) & 0x3f];
+      out[o + 2] = remaining == 2 ? alphabet[(group >>> 6) & 0x3f] : (byte) '=';
+      out[o + 3] = '=';
+      o += 4;
+    }
+    return o;
+  }
+}
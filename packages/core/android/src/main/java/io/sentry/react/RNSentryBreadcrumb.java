@@ -1,5 +1,6 @@
 package io.sentry.react;
 
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.facebook.react.bridge.ReadableType;
@@ -7,8 +8,8 @@ import io.sentry.Breadcrumb;
 import io.sentry.DateUtils;
 import io.sentry.ILogger;
 import io.sentry.SentryLevel;
-import io.sentry.util.MapObjectReader;
-import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -41,23 +42,62 @@ public final class RNSentryBreadcrumb {
     }
   }
 
+  /**
+   * Builds the breadcrumb straight from the known keys of the map. Only {@code data} and unknown
+   * keys are copied into Java maps. The category, type and origin are shared through the {@link
+   * RNSentryStringPool}.
+   */
   @NotNull
   public static Breadcrumb fromMap(ReadableMap from, @NotNull ILogger logger) {
+    final @NotNull RNSentryStringPool pool = RNSentryStringPool.getInstance();
     try {
-      final @NotNull Map<String, Object> map = toDeepHashMap(from);
-
-      // The JS SDK stamps `timestamp` as a number (epoch seconds), which arrives over the bridge as
-      // a Double. The native Breadcrumb deserializer expects an ISO-8601 string, so normalize it
-      // before deserializing to avoid a ClassCastException.
-      final @Nullable Object timestamp = map.get("timestamp");
-      if (timestamp instanceof Number) {
-        final long millis = (long) (((Number) timestamp).doubleValue() * 1000);
-        map.put("timestamp", DateUtils.getTimestamp(new Date(millis)));
-      }
-
-      final @NotNull MapObjectReader reader = new MapObjectReader(map);
       final @NotNull Breadcrumb breadcrumb =
-          new Breadcrumb.Deserializer().deserialize(reader, logger);
+          new Breadcrumb(DateUtils.getDateTime(timestampMillisFrom(from, logger)));
+      @Nullable Map<String, Object> unknown = null;
+
+      final ReadableMapKeySetIterator iterator = from.keySetIterator();
+      while (iterator.hasNextKey()) {
+        final String key = iterator.nextKey();
+        switch (key) {
+          case "timestamp":
+            break;
+          case "message":
+            breadcrumb.setMessage(stringFrom(from, key));
+            break;
+          case "type":
+            breadcrumb.setType(pool.intern(stringFrom(from, key)));
+            break;
+          case "category":
+            breadcrumb.setCategory(pool.intern(stringFrom(from, key)));
+            break;
+          case "origin":
+            breadcrumb.setOrigin(pool.intern(stringFrom(from, key)));
+            break;
+          case "level":
+            breadcrumb.setLevel(levelFrom(stringFrom(from, key), logger));
+            break;
+          case "data":
+            if (from.getType(key) == ReadableType.Map) {
+              final @Nullable ReadableMap data = from.getMap(key);
+              if (data != null) {
+                putData(breadcrumb, toDeepHashMap(data));
+              }
+            }
+            break;
+          default:
+            if (unknown == null) {
+              unknown = new HashMap<>();
+            }
+            final @Nullable Object value = valueFrom(from, key);
+            if (value != null) {
+              unknown.put(key, value);
+            }
+            break;
+        }
+      }
+      if (unknown != null) {
+        breadcrumb.setUnknown(unknown);
+      }
 
       if (breadcrumb.getLevel() == null) {
         breadcrumb.setLevel(SentryLevel.INFO);
@@ -75,6 +115,77 @@ public final class RNSentryBreadcrumb {
     }
   }
 
+  /**
+   * The JS SDK stamps {@code timestamp} as a number (epoch seconds), which arrives over the bridge
+   * as a Double, and is converted to epoch milliseconds directly. ISO-8601 strings are parsed.
+   */
+  static long timestampMillisFrom(final @NotNull ReadableMap from, final @NotNull ILogger logger) {
+    if (from.hasKey("timestamp")) {
+      final @NotNull ReadableType type = from.getType("timestamp");
+      if (type == ReadableType.Number) {
+        return (long) (from.getDouble("timestamp") * 1000);
+      }
+      if (type == ReadableType.String) {
+        final @Nullable String timestamp = from.getString("timestamp");
+        if (timestamp != null) {
+          try {
+            return DateUtils.getDateTime(timestamp).getTime();
+          } catch (Exception e) {
+            logger.log(SentryLevel.WARNING, "Invalid breadcrumb timestamp " + timestamp, e);
+          }
+        }
+      }
+    }
+    return System.currentTimeMillis();
+  }
+
+  static @Nullable String stringFrom(final @NotNull ReadableMap from, final @NotNull String key) {
+    return from.getType(key) == ReadableType.String ? from.getString(key) : null;
+  }
+
+  static @Nullable SentryLevel levelFrom(
+      final @Nullable String level, final @NotNull ILogger logger) {
+    if (level == null) {
+      return null;
+    }
+    try {
+      return SentryLevel.valueOf(level.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      logger.log(SentryLevel.WARNING, "Unknown breadcrumb level " + level);
+      return null;
+    }
+  }
+
+  private static @Nullable Object valueFrom(
+      final @NotNull ReadableMap from, final @NotNull String key) {
+    switch (from.getType(key)) {
+      case Boolean:
+        return from.getBoolean(key);
+      case Number:
+        return from.getDouble(key);
+      case String:
+        return from.getString(key);
+      case Map:
+        final @Nullable ReadableMap map = from.getMap(key);
+        return map != null ? toDeepHashMap(map) : null;
+      case Array:
+        final @Nullable ReadableArray array = from.getArray(key);
+        return array != null ? array.toArrayList() : null;
+      default:
+        return null;
+    }
+  }
+
+  /** Breadcrumb data is backed by a map that can't hold null values. */
+  static void putData(
+      final @NotNull Breadcrumb breadcrumb, final @NotNull Map<String, Object> data) {
+    for (final @NotNull Map.Entry<String, Object> entry : data.entrySet()) {
+      if (entry.getValue() != null) {
+        breadcrumb.setData(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
   @NotNull
   static Map<String, Object> toDeepHashMap(@NotNull ReadableMap from) {
     final Map<String, Object> map = from.toHashMap();
@@ -0,0 +1,258 @@
+package io.sentry.react;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.ReadableType;
+import io.sentry.Breadcrumb;
+import io.sentry.DateUtils;
+import io.sentry.EventProcessor;
+import io.sentry.Hint;
+import io.sentry.ILogger;
+import io.sentry.SentryEvent;
+import io.sentry.SentryLevel;
+import io.sentry.SentryOptions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Compact storage for breadcrumbs of the {@code react-native} origin, an alternative to keeping
+ * them as {@link Breadcrumb} objects in the native scope.
+ *
+ * <p>The ring is preallocated with one slot per breadcrumb. Timestamps and levels are kept in
+ * primitive arrays, the category, type and origin are shared through the {@link
+ * RNSentryStringPool}, and the {@code data} map is kept as received from the bridge until it is
+ * needed. Breadcrumbs are only inflated when a native event is processed, see {@link
+ * BreadcrumbsEventProcessor}, which merges them with the scope's breadcrumbs by timestamp and runs
+ * the {@code beforeBreadcrumb} callback on them. Unknown keys of stored breadcrumbs are dropped.
+ *
+ * <p>Breadcrumbs in the ring are not part of the scope, so they are not persisted with it, not
+ * synced to the NDK and not added to session replays.
+ */
+final class RNSentryBreadcrumbRing {
+
+  private static final @NotNull SentryLevel[] LEVELS = SentryLevel.values();
+  private static final byte NO_LEVEL = -1;
+
+  private static final @NotNull RNSentryBreadcrumbRing instance = new RNSentryBreadcrumbRing();
+
+  private int capacity;
+  private long[] timestamps = new long[0];
+  private byte[] levels = new byte[0];
+  private @Nullable String[] messages = new String[0];
+  private @Nullable String[] categories = new String[0];
+  private @Nullable String[] types = new String[0];
+  private @Nullable String[] origins = new String[0];
+  private @Nullable ReadableMap[] data = new ReadableMap[0];
+
+  /** Index of the oldest breadcrumb. */
+  private int head;
+
+  private int size;
+
+  static @NotNull RNSentryBreadcrumbRing getInstance() {
+    return instance;
+  }
+
+  @TestOnly
+  RNSentryBreadcrumbRing() {}
+
+  /**
+   * Allocates the ring, dropping stored breadcrumbs.
+   *
+   * @param capacity number of breadcrumbs kept, {@code 0} disables the ring
+   */
+  synchronized void configure(final int capacity) {
+    this.capacity = Math.max(0, capacity);
+    timestamps = new long[this.capacity];
+    levels = new byte[this.capacity];
+    messages = new String[this.capacity];
+    categories = new String[this.capacity];
+    types = new String[this.capacity];
+    origins = new String[this.capacity];
+    data = new ReadableMap[this.capacity];
+    head = 0;
+    size = 0;
+  }
+
+  synchronized boolean isEnabled() {
+    return capacity > 0;
+  }
+
+  synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Stores the breadcrumb if it has the {@code react-native} origin, which breadcrumbs without an
+   * origin get, see {@link RNSentryBreadcrumb#fromMap}. The oldest breadcrumb is overwritten when
+   * the ring is full.
+   *
+   * @return {@code false} if the breadcrumb has to be added to the scope instead
+   */
+  boolean add(final @NotNull ReadableMap from, final @NotNull ILogger logger) {
+    if (!isEnabled()) {
+      return false;
+    }
+    final @Nullable String origin =
+        from.hasKey("origin") ? RNSentryBreadcrumb.stringFrom(from, "origin") : null;
+    if (origin != null && !"react-native".equals(origin)) {
+      return false;
+    }
+
+    final @NotNull RNSentryStringPool pool = RNSentryStringPool.getInstance();
+    final long timestamp = RNSentryBreadcrumb.timestampMillisFrom(from, logger);
+    byte level = NO_LEVEL;
+    @Nullable String message = null;
+    @Nullable String category = null;
+    @Nullable String type = null;
+    @Nullable ReadableMap breadcrumbData = null;
+
+    final ReadableMapKeySetIterator iterator = from.keySetIterator();
+    while (iterator.hasNextKey()) {
+      final String key = iterator.nextKey();
+      switch (key) {
+        case "message":
+          message = RNSentryBreadcrumb.stringFrom(from, key);
+          break;
+        case "category":
+          category = pool.intern(RNSentryBreadcrumb.stringFrom(from, key));
+          break;
+        case "type":
+          type = pool.intern(RNSentryBreadcrumb.stringFrom(from, key));
+          break;
+        case "level":
+          final @Nullable SentryLevel sentryLevel =
+              RNSentryBreadcrumb.levelFrom(RNSentryBreadcrumb.stringFrom(from, key), logger);
+          level = sentryLevel != null ? (byte) sentryLevel.ordinal() : NO_LEVEL;
+          break;
+        case "data":
+          breadcrumbData = from.getType(key) == ReadableType.Map ? from.getMap(key) : null;
+          break;
+        default:
+          break;
+      }
+    }
+
+    synchronized (this) {
+      if (capacity == 0) {
+        return false;
+      }
+      final int index = (head + size) % capacity;
+      timestamps[index] = timestamp;
+      levels[index] = level;
+      messages[index] = message;
+      categories[index] = category;
+      types[index] = type;
+      origins[index] = pool.intern(origin);
+      data[index] = breadcrumbData;
+      if (size < capacity) {
+        size++;
+      } else {
+        head = (head + 1) % capacity;
+      }
+    }
+    return true;
+  }
+
+  synchronized void clear() {
+    for (int i = 0; i < capacity; i++) {
+      messages[i] = null;
+      categories[i] = null;
+      types[i] = null;
+      origins[i] = null;
+      data[i] = null;
+    }
+    head = 0;
+    size = 0;
+  }
+
+  /**
+   * Inflates the stored breadcrumbs, oldest first, and runs the {@code beforeBreadcrumb} callback
+   * of the options on them.
+   */
+  @NotNull
+  List<Breadcrumb> inflate(final @NotNull SentryOptions options) {
+    final @NotNull List<Breadcrumb> breadcrumbs;
+    synchronized (this) {
+      breadcrumbs = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        breadcrumbs.add(inflate((head + i) % capacity));
+      }
+    }
+
+    final @Nullable SentryOptions.BeforeBreadcrumbCallback beforeBreadcrumb =
+        options.getBeforeBreadcrumb();
+    if (beforeBreadcrumb == null) {
+      return breadcrumbs;
+    }
+    final @NotNull List<Breadcrumb> filtered = new ArrayList<>(breadcrumbs.size());
+    for (final @NotNull Breadcrumb breadcrumb : breadcrumbs) {
+      try {
+        final @Nullable Breadcrumb result = beforeBreadcrumb.execute(breadcrumb, new Hint());
+        if (result != null) {
+          filtered.add(result);
+        }
+      } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+        options.getLogger().log(SentryLevel.ERROR, "The beforeBreadcrumb callback threw.", e);
+        filtered.add(breadcrumb);
+      }
+    }
+    return filtered;
+  }
+
+  private @NotNull Breadcrumb inflate(final int index) {
+    final @NotNull Breadcrumb breadcrumb =
+        new Breadcrumb(DateUtils.getDateTime(timestamps[index]));
+    breadcrumb.setMessage(messages[index]);
+    breadcrumb.setCategory(categories[index]);
+    breadcrumb.setType(types[index]);
+    breadcrumb.setOrigin(origins[index] != null ? origins[index] : "react-native");
+    breadcrumb.setLevel(levels[index] != NO_LEVEL ? LEVELS[levels[index]] : SentryLevel.INFO);
+    final @Nullable ReadableMap breadcrumbData = data[index];
+    if (breadcrumbData != null) {
+      RNSentryBreadcrumb.putData(breadcrumb, RNSentryBreadcrumb.toDeepHashMap(breadcrumbData));
+    }
+    return breadcrumb;
+  }
+
+  /** Adds the breadcrumbs of the ring to native events. */
+  static final class BreadcrumbsEventProcessor implements EventProcessor {
+    private final @NotNull RNSentryBreadcrumbRing ring;
+    private final @NotNull SentryOptions options;
+
+    BreadcrumbsEventProcessor(
+        final @NotNull RNSentryBreadcrumbRing ring, final @NotNull SentryOptions options) {
+      this.ring = ring;
+      this.options = options;
+    }
+
+    @Override
+    public @Nullable SentryEvent process(
+        final @NotNull SentryEvent event, final @NotNull Hint hint) {
+      if (ring.size() == 0) {
+        return event;
+      }
+      try {
+        final @NotNull List<Breadcrumb> merged = new ArrayList<>(ring.inflate(options));
+        final @Nullable List<Breadcrumb> scoped = event.getBreadcrumbs();
+        if (scoped != null) {
+          merged.addAll(scoped);
+        }
+        // Stable, so breadcrumbs with the same timestamp keep the ring first.
+        Collections.sort(merged, (a, b) -> a.getTimestamp().compareTo(b.getTimestamp()));
+        final int max = options.getMaxBreadcrumbs();
+        event.setBreadcrumbs(
+            merged.size() > max
+                ? new ArrayList<>(merged.subList(merged.size() - max, merged.size()))
+                : merged);
+      } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+        options.getLogger().log(SentryLevel.ERROR, "Failed to add React Native breadcrumbs.", e);
+      }
+      return event;
+    }
+  }
+}
@@ -0,0 +1,252 @@
+package io.sentry.react;
+
+import io.sentry.ILogger;
+import io.sentry.IScopes;
+import io.sentry.ScopesAdapter;
+import io.sentry.SentryEnvelope;
+import io.sentry.SentryLevel;
+import io.sentry.SentryOptions;
+import io.sentry.Session;
+import io.sentry.android.core.InternalSentrySdk;
+import io.sentry.vendor.Base64;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Single entry point for envelopes coming from the JS layer. Both the Base64 bridge method ({@code
+ * RNSentry.captureEnvelope}) and the binary JSI path ({@link RNSentryJsiEnvelopeBinding}) end up
+ * here, so anything that has to happen before an envelope reaches the Android SDK is applied
+ * exactly once regardless of how the bytes crossed the bridge.
+ *
+ * <p>Regular envelopes are {@link #submit submitted} to the {@link RNSentryEnvelopeQueue} and
+ * captured in the background. Hard crash envelopes skip the queue and are captured on the calling
+ * thread, followed by everything still queued, because the process may not survive long enough
+ * for the worker to pick them up. When {@link RNSentryEnvelopeSpool spooling} is enabled they are
+ * written straight to disk instead and only sent on the next launch, and the session is ended as
+ * crashed right away.
+ *
+ * <p>Before anything is queued, the envelope's headers are {@link RNSentryEnvelopeScanner scanned}
+ * and the {@link RNSentryEnvelopeFilter} drops items by rule or rate limit, without decoding the
+ * payloads. Items referencing attachments of the {@link RNSentryAttachmentStore} are spliced in
+ * first, so the filter and queue see their real size.
+ *
+ * <p>Scope writes still queued by the {@link RNSentryScopeWriter} are applied before an envelope is
+ * handed to the Android SDK or spooled. Before a hard crash, they are also synced to the NDK, see
+ * {@link RNSentryNdkScopeSync}.
+ */
+final class RNSentryEnvelopeCapture {
+
+  private RNSentryEnvelopeCapture() {
+    throw new AssertionError("Utility class should not be instantiated");
+  }
+
+  /**
+   * Submits raw envelope bytes for capture.
+   *
+   * @param envelope the serialized envelope, owned by the pipeline afterwards
+   * @param mayBlock whether a full queue may make the calling thread wait, {@code false} on the JS
+   *     thread
+   * @return {@code false} when the envelope was dropped or could not be captured
+   */
+  static boolean submit(
+      final @NotNull byte[] envelope,
+      final boolean hardCrashed,
+      final boolean mayBlock,
+      final @NotNull ILogger logger) {
+    final @NotNull byte[] spliced = spliceStored(envelope, logger);
+    if (hardCrashed) {
+      RNSentryScopeWriter.getInstance().flush();
+      RNSentryNdkScopeSync.getInstance().flush();
+      final boolean captured = submitHardCrash(spliced, logger);
+      RNSentryEnvelopeQueue.getInstance().drain();
+      return captured;
+    }
+
+    final @Nullable RNSentryEnvelopeScanner.Envelope scanned =
+        RNSentryEnvelopeScanner.scan(spliced, logger);
+    if (scanned == null) {
+      // Let the Android SDK deal with envelopes we can't read.
+      return RNSentryEnvelopeQueue.getInstance().enqueue(spliced, null, mayBlock, logger);
+    }
+    final @Nullable List<RNSentryEnvelopeScanner.Item> dropped =
+        RNSentryEnvelopeFilter.filter(scanned, logger);
+    if (dropped == null) {
+      return false;
+    }
+    if (dropped.isEmpty()) {
+      return RNSentryEnvelopeQueue.getInstance().enqueue(spliced, scanned, mayBlock, logger);
+    }
+    return enqueueWithout(spliced, scanned, dropped, mayBlock, logger);
+  }
+
+  /**
+   * Splices attachments of the {@link RNSentryAttachmentStore} into the envelope. Envelopes are
+   * only scanned for handles while the store holds attachments.
+   *
+   * @return the spliced envelope, or the given one if it references no stored attachments
+   */
+  private static @NotNull byte[] spliceStored(
+      final @NotNull byte[] envelope, final @NotNull ILogger logger) {
+    final @NotNull RNSentryAttachmentStore store = RNSentryAttachmentStore.getInstance();
+    if (store.isEmpty()) {
+      return envelope;
+    }
+    final @Nullable RNSentryEnvelopeScanner.Envelope scanned =
+        RNSentryEnvelopeScanner.scan(envelope, logger);
+    if (scanned == null || !RNSentryAttachmentStore.hasHandles(scanned)) {
+      return envelope;
+    }
+    return store.splice(envelope, scanned, logger);
+  }
+
+  private static boolean submitHardCrash(
+      final @NotNull byte[] envelope, final @NotNull ILogger logger) {
+    final @NotNull RNSentryEnvelopeSpool spool = RNSentryEnvelopeSpool.getInstance();
+    if (spool.isEnabled()) {
+      final @NotNull RNSentryEnvelopeDeduplicator deduplicator =
+          RNSentryEnvelopeDeduplicator.getInstance();
+      final @Nullable String key = deduplicator.keyOf(envelope, logger);
+      if (deduplicator.isKnown(key, logger)) {
+        return true;
+      }
+      if (spool.spool(envelope, logger)) {
+        onSpooled(key, logger);
+        return true;
+      }
+    }
+    return capture(envelope, true, logger);
+  }
+
+  private static boolean submitHardCrashBase64(
+      final @NotNull String envelope, final @NotNull ILogger logger) {
+    final @NotNull RNSentryEnvelopeSpool spool = RNSentryEnvelopeSpool.getInstance();
+    if (spool.isEnabled()) {
+      final @NotNull RNSentryEnvelopeDeduplicator deduplicator =
+          RNSentryEnvelopeDeduplicator.getInstance();
+      final @Nullable String key = deduplicator.keyOfBase64(envelope, logger);
+      if (deduplicator.isKnown(key, logger)) {
+        return true;
+      }
+      // Decoded chunk by chunk into the spool file, without a full size byte[] on the heap.
+      if (spool.spoolBase64(envelope, logger)) {
+        onSpooled(key, logger);
+        return true;
+      }
+    }
+    return capture(Base64.decode(envelope, Base64.DEFAULT), true, logger);
+  }
+
+  /**
+   * Spooled envelopes don't pass through {@link InternalSentrySdk#captureEnvelope}, which ends the
+   * session of the native scope as crashed. Do the same here, so that crash free rates stay right.
+   * The crashed session is captured as an envelope of its own.
+   */
+  private static void onSpooled(final @Nullable String key, final @NotNull ILogger logger) {
+    RNSentryEnvelopeDeduplicator.getInstance().remember(key, logger);
+    try {
+      final @NotNull IScopes scopes = ScopesAdapter.getInstance();
+      final @NotNull AtomicReference<Session> crashed = new AtomicReference<>();
+      scopes.configureScope(
+          scope -> {
+            final @Nullable Session session = scope.getSession();
+            if (session != null && session.update(Session.State.Crashed, null, true)) {
+              session.end();
+              scope.clearSession();
+              crashed.set(session);
+            }
+          });
+      final @Nullable Session session = crashed.get();
+      if (session != null) {
+        final @NotNull SentryOptions options = scopes.getOptions();
+        scopes.captureEnvelope(
+            SentryEnvelope.from(options.getSerializer(), session, options.getSdkVersion()));
+      }
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.ERROR, "Failed to end the session of a spooled crash.", e);
+    }
+  }
+
+  private static boolean enqueueWithout(
+      final @NotNull byte[] envelope,
+      final @NotNull RNSentryEnvelopeScanner.Envelope scanned,
+      final @NotNull List<RNSentryEnvelopeScanner.Item> dropped,
+      final boolean mayBlock,
+      final @NotNull ILogger logger) {
+    final @NotNull byte[] remaining = scanned.without(envelope, dropped);
+    return RNSentryEnvelopeQueue.getInstance()
+        .enqueue(remaining, RNSentryEnvelopeScanner.scan(remaining, logger), mayBlock, logger);
+  }
+
+  /**
+   * Submits a Base64 encoded envelope for capture. Unless it is a hard crash or items have to be
+   * cut out of it, it is only decoded once the ingestion worker picks it up.
+   *
+   * @return {@code false} when the envelope was dropped or could not be captured
+   */
+  static boolean submitBase64(
+      final @NotNull String envelope, final boolean hardCrashed, final @NotNull ILogger logger) {
+    if (!RNSentryAttachmentStore.getInstance().isEmpty()) {
+      final @Nullable RNSentryEnvelopeScanner.Envelope scanned =
+          RNSentryEnvelopeScanner.scanBase64(envelope, logger);
+      if (scanned != null && RNSentryAttachmentStore.hasHandles(scanned)) {
+        return submit(Base64.decode(envelope, Base64.DEFAULT), hardCrashed, true, logger);
+      }
+    }
+    if (hardCrashed) {
+      RNSentryScopeWriter.getInstance().flush();
+      RNSentryNdkScopeSync.getInstance().flush();
+      final boolean captured = submitHardCrashBase64(envelope, logger);
+      RNSentryEnvelopeQueue.getInstance().drain();
+      return captured;
+    }
+
+    final @Nullable RNSentryEnvelopeScanner.Envelope scanned =
+        RNSentryEnvelopeScanner.scanBase64(envelope, logger);
+    final @Nullable List<RNSentryEnvelopeScanner.Item> dropped =
+        scanned != null ? RNSentryEnvelopeFilter.filter(scanned, logger) : new ArrayList<>();
+    if (dropped == null) {
+      return false;
+    }
+    if (scanned == null || dropped.isEmpty()) {
+      return RNSentryEnvelopeQueue.getInstance().enqueueBase64(envelope, scanned, logger);
+    }
+    // Items have to be cut out, which needs the decoded bytes.
+    return enqueueWithout(
+        Base64.decode(envelope, Base64.DEFAULT), scanned, dropped, true, logger);
+  }
+
+  /**
+   * Hands the raw envelope bytes to the Android SDK on the calling thread.
+   *
+   * @param envelope the serialized envelope, owned by the caller and not copied
+   * @param hardCrashed whether JS is about to crash, in which case no new session is started
+   * @return {@code true} when the envelope was accepted by the Android SDK or had already been
+   *     captured before
+   */
+  static boolean capture(
+      final @NotNull byte[] envelope, final boolean hardCrashed, final @NotNull ILogger logger) {
+    try {
+      // The SDK updates the session of the native scope from the envelope.
+      RNSentryScopeWriter.getInstance().flush();
+      final @NotNull RNSentryEnvelopeDeduplicator deduplicator =
+          RNSentryEnvelopeDeduplicator.getInstance();
+      final @Nullable String key = deduplicator.keyOf(envelope, logger);
+      if (deduplicator.isKnown(key, logger)) {
+        logger.log(SentryLevel.DEBUG, "Dropping an envelope that was already captured.");
+        return true;
+      }
+      if (InternalSentrySdk.captureEnvelope(envelope, !hardCrashed) == null) {
+        return false;
+      }
+      // Only remembered once captured, so that a failed envelope can be submitted again.
+      deduplicator.remember(key, logger);
+      return true;
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.ERROR, "Error while capturing envelope", e);
+      return false;
+    }
+  }
+}
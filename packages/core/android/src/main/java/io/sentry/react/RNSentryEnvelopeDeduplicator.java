@@ -0,0 +1,269 @@
+package io.sentry.react;
+
+import io.sentry.ILogger;
+import io.sentry.JsonObjectReader;
+import io.sentry.SentryEnvelopeHeader;
+import io.sentry.SentryItemType;
+import io.sentry.SentryLevel;
+import io.sentry.protocol.SentryId;
+import io.sentry.vendor.Base64;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Bounded cache of envelopes from JS already handed to the Android SDK, used to drop resubmissions
+ * before they are written to the outbox. Envelopes captured by the Android SDK itself don't pass
+ * through here and are not deduplicated.
+ *
+ * <p>Envelopes carrying an event or a transaction are keyed by their {@code event_id}, so the same
+ * event is recognized even if it was serialized twice. Everything else, e.g. replay segments, which
+ * share the replay id as {@code event_id}, or log and client report batches, which have no id at
+ * all, is keyed by the SHA-256 digest of the whole envelope, payloads included.
+ *
+ * <p>Envelopes are {@link #isKnown checked} before they are captured and only {@link #remember
+ * remembered} once they were captured, so an envelope that failed can be submitted again. The
+ * cache lives for the process lifetime and can be persisted to an append-only file, so envelopes
+ * captured right before a crash are still recognized after the restart.
+ *
+ * <p>Deduplication is opt-in, see {@code androidEnvelopeDeduplication}.
+ */
+final class RNSentryEnvelopeDeduplicator {
+
+  static final int DEFAULT_MAX_ENTRIES = 256;
+  static final String FILE_NAME = "envelope-dedup.txt";
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8"); // NOPMD - Allow using UTF-8
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+  private static final int CHUNK_CHARS = 64 * 1024;
+
+  private static final @NotNull RNSentryEnvelopeDeduplicator instance =
+      new RNSentryEnvelopeDeduplicator();
+
+  private boolean enabled;
+  private int maxEntries = DEFAULT_MAX_ENTRIES;
+  private @Nullable File file;
+  private boolean fileLoaded;
+  private int fileLines;
+
+  private final @NotNull LinkedHashMap<String, Boolean> seen =
+      new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest) {
+          return size() > maxEntries;
+        }
+      };
+
+  static @NotNull RNSentryEnvelopeDeduplicator getInstance() {
+    return instance;
+  }
+
+  @TestOnly
+  RNSentryEnvelopeDeduplicator() {}
+
+  /**
+   * @param file where seen keys are persisted, or {@code null} to only keep them in memory
+   */
+  synchronized void configure(
+      final boolean enabled, final int maxEntries, final @Nullable File file) {
+    this.enabled = enabled;
+    this.maxEntries = Math.max(1, maxEntries);
+    this.file = file;
+    this.fileLoaded = false;
+    this.fileLines = 0;
+  }
+
+  synchronized boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return the deduplication key of the envelope, or {@code null} when deduplication is disabled
+   *     or the headers can't be read
+   */
+  @Nullable
+  String keyOf(final @NotNull byte[] envelope, final @NotNull ILogger logger) {
+    if (!isEnabled()) {
+      return null;
+    }
+    final @Nullable RNSentryEnvelopeScanner.Envelope scanned =
+        RNSentryEnvelopeScanner.scan(envelope, logger);
+    if (scanned == null) {
+      return null;
+    }
+    final @Nullable String eventKey = eventKeyOf(scanned, logger);
+    return eventKey != null ? eventKey : digestOf(sha256 -> sha256.update(envelope), logger);
+  }
+
+  /**
+   * Like {@link #keyOf(byte[], ILogger)}. Envelopes without an event are decoded chunk by chunk
+   * into the digest, without a full size {@code byte[]} on the heap.
+   */
+  @Nullable
+  String keyOfBase64(final @NotNull String envelope, final @NotNull ILogger logger) {
+    if (!isEnabled()) {
+      return null;
+    }
+    final @Nullable RNSentryEnvelopeScanner.Envelope scanned =
+        RNSentryEnvelopeScanner.scanBase64(envelope, logger);
+    if (scanned == null) {
+      return null;
+    }
+    final @Nullable String eventKey = eventKeyOf(scanned, logger);
+    if (eventKey != null) {
+      return eventKey;
+    }
+    final int length = envelope.length();
+    final byte[] chars = new byte[Math.min(CHUNK_CHARS, length)];
+    return digestOf(
+        sha256 -> {
+          for (int start = 0; start < length; start += CHUNK_CHARS) {
+            final int count = Math.min(CHUNK_CHARS, length - start);
+            for (int i = 0; i < count; i++) {
+              chars[i] = (byte) envelope.charAt(start + i);
+            }
+            sha256.update(Base64.decode(chars, 0, count, Base64.DEFAULT));
+          }
+        },
+        logger);
+  }
+
+  /**
+   * Checks whether an envelope with the key was already captured, without remembering it.
+   *
+   * @return {@code true} when the envelope is a duplicate and should be dropped
+   */
+  synchronized boolean isKnown(final @Nullable String key, final @NotNull ILogger logger) {
+    if (!enabled || key == null) {
+      return false;
+    }
+    loadFile(logger);
+    return seen.get(key) != null;
+  }
+
+  /** Remembers the key of an envelope that was captured. */
+  synchronized void remember(final @Nullable String key, final @NotNull ILogger logger) {
+    if (!enabled || key == null) {
+      return;
+    }
+    loadFile(logger);
+    if (seen.put(key, Boolean.TRUE) == null) {
+      persist(key, logger);
+    }
+  }
+
+  /** Returns {@code event:<event_id>} for event and transaction envelopes, {@code null} else. */
+  private static @Nullable String eventKeyOf(
+      final @NotNull RNSentryEnvelopeScanner.Envelope envelope, final @NotNull ILogger logger) {
+    final @NotNull List<RNSentryEnvelopeScanner.Item> items = envelope.getItems();
+    if (items.isEmpty()) {
+      return null;
+    }
+    try {
+      final @NotNull SentryEnvelopeHeader header =
+          new SentryEnvelopeHeader.Deserializer()
+              .deserialize(
+                  new JsonObjectReader(new StringReader(envelope.getHeaderLine())), logger);
+      final @Nullable SentryId eventId = header.getEventId();
+      final @NotNull SentryItemType type = items.get(0).getHeader().getType();
+      if (eventId != null
+          && !SentryId.EMPTY_ID.equals(eventId)
+          && (type == SentryItemType.Event || type == SentryItemType.Transaction)) {
+        return "event:" + eventId;
+      }
+    } catch (Throwable e) { // NOPMD - Fall back to the envelope digest
+      logger.log(SentryLevel.DEBUG, "Could not read envelope headers for deduplication.", e);
+    }
+    return null;
+  }
+
+  private interface DigestWriter {
+    void write(@NotNull MessageDigest sha256);
+  }
+
+  private static @Nullable String digestOf(
+      final @NotNull DigestWriter writer, final @NotNull ILogger logger) {
+    try {
+      final @NotNull MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      writer.write(sha256);
+      final byte[] digest = sha256.digest();
+      final char[] hex = new char[digest.length * 2];
+      for (int i = 0; i < digest.length; i++) {
+        hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+        hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+      }
+      return "sha256:" + new String(hex);
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.WARNING, "Could not compute the envelope digest.", e);
+      return null;
+    }
+  }
+
+  private void loadFile(final @NotNull ILogger logger) {
+    if (fileLoaded || file == null) {
+      return;
+    }
+    fileLoaded = true;
+    if (!file.exists()) {
+      return;
+    }
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty()) {
+          seen.put(line, Boolean.TRUE);
+          fileLines++;
+        }
+      }
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.WARNING, "Failed to read the envelope deduplication file.", e);
+    }
+  }
+
+  private void persist(final @NotNull String key, final @NotNull ILogger logger) {
+    if (file == null) {
+      return;
+    }
+    // Append while the file is small, rewrite it with only the live keys once it outgrows them.
+    final boolean compact = fileLines >= maxEntries * 2;
+    try {
+      final @Nullable File parent = file.getParentFile();
+      if (parent != null && !parent.exists() && !parent.mkdirs()) {
+        return;
+      }
+      try (Writer writer =
+          new BufferedWriter(
+              new OutputStreamWriter(new FileOutputStream(file, !compact), UTF_8))) {
+        if (compact) {
+          fileLines = 0;
+          for (final @NotNull String seenKey : seen.keySet()) {
+            writer.write(seenKey);
+            writer.write('\n');
+            fileLines++;
+          }
+        } else {
+          writer.write(key);
+          writer.write('\n');
+          fileLines++;
+        }
+      }
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.WARNING, "Failed to persist the envelope deduplication file.", e);
+    }
+  }
+}
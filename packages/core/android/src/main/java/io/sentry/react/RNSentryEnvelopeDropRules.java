@@ -0,0 +1,83 @@
+package io.sentry.react;
+
+import android.os.PowerManager;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Static rules dropping envelope items that are not worth their cost on this device, decided from
+ * the item headers only.
+ *
+ * <ul>
+ *   <li>Attachments with a payload bigger than {@code maxAttachmentBytes}.
+ *   <li>Profiles while the device is in battery saver mode.
+ * </ul>
+ */
+final class RNSentryEnvelopeDropRules {
+
+  private static final @NotNull RNSentryEnvelopeDropRules instance =
+      new RNSentryEnvelopeDropRules();
+
+  private long maxAttachmentBytes;
+  private boolean dropProfilesInPowerSaveMode;
+  private @Nullable PowerManager powerManager;
+
+  static @NotNull RNSentryEnvelopeDropRules getInstance() {
+    return instance;
+  }
+
+  @TestOnly
+  RNSentryEnvelopeDropRules() {}
+
+  /**
+   * @param maxAttachmentBytes {@code 0} or less to keep attachments of any size
+   */
+  synchronized void configure(
+      final long maxAttachmentBytes, final boolean dropProfilesInPowerSaveMode) {
+    this.maxAttachmentBytes = maxAttachmentBytes;
+    this.dropProfilesInPowerSaveMode = dropProfilesInPowerSaveMode;
+  }
+
+  synchronized void setPowerManager(final @Nullable PowerManager powerManager) {
+    this.powerManager = powerManager;
+  }
+
+  /** Returns the items of the envelope matched by a rule. */
+  synchronized @NotNull List<RNSentryEnvelopeScanner.Item> apply(
+      final @NotNull RNSentryEnvelopeScanner.Envelope envelope) {
+    final List<RNSentryEnvelopeScanner.Item> dropped = new ArrayList<>();
+    if (maxAttachmentBytes <= 0 && !dropProfilesInPowerSaveMode) {
+      return dropped;
+    }
+
+    @Nullable Boolean powerSaveMode = null;
+    for (final @NotNull RNSentryEnvelopeScanner.Item item : envelope.getItems()) {
+      final @NotNull String type = item.getType();
+      if (maxAttachmentBytes > 0
+          && "attachment".equals(type)
+          && item.getPayloadLength() > maxAttachmentBytes) {
+        dropped.add(item);
+      } else if (dropProfilesInPowerSaveMode
+          && ("profile".equals(type) || "profile_chunk".equals(type))) {
+        if (powerSaveMode == null) {
+          powerSaveMode = isPowerSaveMode();
+        }
+        if (powerSaveMode) {
+          dropped.add(item);
+        }
+      }
+    }
+    return dropped;
+  }
+
+  private boolean isPowerSaveMode() {
+    try {
+      return powerManager != null && powerManager.isPowerSaveMode();
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      return false;
+    }
+  }
+}
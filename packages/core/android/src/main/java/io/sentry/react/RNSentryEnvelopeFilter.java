@@ -0,0 +1,111 @@
+package io.sentry.react;
+
+import io.sentry.DataCategory;
+import io.sentry.ILogger;
+import io.sentry.ScopesAdapter;
+import io.sentry.SentryLevel;
+import io.sentry.clientreport.DiscardReason;
+import io.sentry.clientreport.IClientReportRecorder;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decides which items of a scanned envelope are dropped before it is decoded and queued, combining
+ * the {@link RNSentryEnvelopeDropRules} and the {@link RNSentryEnvelopeRateLimiter}.
+ *
+ * <p>If the envelope's first item is dropped, the whole envelope is dropped, since the remaining
+ * items (e.g. attachments of an event) only make sense together with it. Every dropped item is
+ * recorded as a client report.
+ */
+final class RNSentryEnvelopeFilter {
+
+  private RNSentryEnvelopeFilter() {
+    throw new AssertionError("Utility class should not be instantiated");
+  }
+
+  /**
+   * @return the items to cut out of the envelope, empty to keep it as it is, or {@code null} when
+   *     the whole envelope is dropped
+   */
+  static @Nullable List<RNSentryEnvelopeScanner.Item> filter(
+      final @NotNull RNSentryEnvelopeScanner.Envelope envelope, final @NotNull ILogger logger) {
+    final @NotNull List<RNSentryEnvelopeScanner.Item> items = envelope.getItems();
+    if (items.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    final @NotNull List<RNSentryEnvelopeScanner.Item> ruled =
+        RNSentryEnvelopeDropRules.getInstance().apply(envelope);
+    if (ruled.contains(items.get(0))) {
+      // Dropped before the rate limiter, so the envelope takes none of its tokens.
+      recordLost(DiscardReason.EVENT_PROCESSOR, items, logger);
+      return null;
+    }
+
+    final @Nullable List<RNSentryEnvelopeScanner.Item> limited =
+        RNSentryEnvelopeRateLimiter.getInstance().limit(envelope, ruled, logger);
+    if (limited == null) {
+      recordLost(DiscardReason.RATELIMIT_BACKOFF, without(items, ruled), logger);
+      recordLost(DiscardReason.EVENT_PROCESSOR, ruled, logger);
+      return null;
+    }
+
+    recordLost(DiscardReason.EVENT_PROCESSOR, ruled, logger);
+    recordLost(DiscardReason.RATELIMIT_BACKOFF, limited, logger);
+    final List<RNSentryEnvelopeScanner.Item> dropped = new ArrayList<>(ruled);
+    dropped.addAll(limited);
+    return dropped;
+  }
+
+  private static @NotNull List<RNSentryEnvelopeScanner.Item> without(
+      final @NotNull List<RNSentryEnvelopeScanner.Item> items,
+      final @NotNull List<RNSentryEnvelopeScanner.Item> excluded) {
+    final List<RNSentryEnvelopeScanner.Item> remaining = new ArrayList<>(items);
+    remaining.removeAll(excluded);
+    return remaining;
+  }
+
+  /** Records the items as lost in client reports. */
+  static void recordLost(
+      final @NotNull DiscardReason reason,
+      final @NotNull List<RNSentryEnvelopeScanner.Item> items,
+      final @NotNull ILogger logger) {
+    if (items.isEmpty()) {
+      return;
+    }
+    logger.log(
+        SentryLevel.DEBUG,
+        String.format("Dropped %d envelope items (%s).", items.size(), reason.getReason()));
+    try {
+      final @NotNull IClientReportRecorder recorder =
+          ScopesAdapter.getInstance().getOptions().getClientReportRecorder();
+      for (final @NotNull RNSentryEnvelopeScanner.Item item : items) {
+        recorder.recordLostEvent(reason, categoryOf(item.getType()));
+      }
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.ERROR, "Failed to record dropped envelope items.", e);
+    }
+  }
+
+  private static @NotNull DataCategory categoryOf(final @NotNull String itemType) {
+    switch (itemType) {
+      case "event":
+        return DataCategory.Error;
+      case "transaction":
+        return DataCategory.Transaction;
+      case "attachment":
+        return DataCategory.Attachment;
+      case "profile":
+      case "profile_chunk":
+        return DataCategory.Profile;
+      case "replay_video":
+        return DataCategory.Replay;
+      case "session":
+        return DataCategory.Session;
+      default:
+        return DataCategory.Default;
+    }
+  }
+}
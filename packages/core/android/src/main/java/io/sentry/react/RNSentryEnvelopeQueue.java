@@ -0,0 +1,373 @@
+package io.sentry.react;
+
+import io.sentry.ILogger;
+import io.sentry.ScopesAdapter;
+import io.sentry.SentryEnvelope;
+import io.sentry.SentryLevel;
+import io.sentry.SentryOptions;
+import io.sentry.clientreport.DiscardReason;
+import io.sentry.vendor.Base64;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Bounded ingestion stage between the JS bridge and {@link RNSentryEnvelopeCapture}.
+ *
+ * <p>Envelopes are accepted on the calling thread (the native modules thread or the JS thread for
+ * the JSI path) and handed to the Android SDK by a single background worker, so a burst of large
+ * envelopes no longer blocks every other {@code RNSentry} call queued behind it. Base64 payloads
+ * are stored as-is and only decoded on the worker.
+ *
+ * <p>The queue is bounded by item count and by an approximate memory budget. When either is
+ * exceeded the configured {@link OverflowPolicy} decides what happens; every envelope dropped
+ * because of it is recorded as a {@link DiscardReason#QUEUE_OVERFLOW} client report. Callers on
+ * the JS thread never wait, for them {@link OverflowPolicy#BLOCK} drops the incoming envelope like
+ * {@link OverflowPolicy#DROP_NEWEST}. A single envelope bigger than the whole budget is still
+ * accepted when the queue is empty so large attachments are not dropped by a misconfigured budget.
+ */
+final class RNSentryEnvelopeQueue {
+
+  enum OverflowPolicy {
+    /** Evicts the oldest queued envelopes until the new one fits. */
+    DROP_OLDEST,
+    /** Rejects the incoming envelope. */
+    DROP_NEWEST,
+    /**
+     * Waits up to {@link #BLOCK_TIMEOUT_MILLIS} for space, then rejects the incoming envelope. The
+     * JS thread never waits and rejects it at once.
+     */
+    BLOCK;
+
+    static @Nullable OverflowPolicy fromString(final @Nullable String value) {
+      if (value == null) {
+        return null;
+      }
+      switch (value.toLowerCase(Locale.ROOT)) {
+        case "dropoldest":
+          return DROP_OLDEST;
+        case "dropnewest":
+          return DROP_NEWEST;
+        case "block":
+          return BLOCK;
+        default:
+          return null;
+      }
+    }
+  }
+
+  static final int DEFAULT_MAX_ITEMS = 100;
+  static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+  static final @NotNull OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.DROP_OLDEST;
+  static final long BLOCK_TIMEOUT_MILLIS = 500;
+
+  private static final String THREAD_NAME = "SentryReactNativeEnvelopeCapture";
+
+  private static final @NotNull RNSentryEnvelopeQueue instance = new RNSentryEnvelopeQueue();
+
+  private final @NotNull ReentrantLock lock = new ReentrantLock();
+  private final @NotNull Condition notEmpty = lock.newCondition();
+  private final @NotNull Condition notFull = lock.newCondition();
+  private final @NotNull ArrayDeque<Item> queue = new ArrayDeque<>();
+
+  private int maxItems = DEFAULT_MAX_ITEMS;
+  private long maxBytes = DEFAULT_MAX_BYTES;
+  private @NotNull OverflowPolicy overflowPolicy = DEFAULT_OVERFLOW_POLICY;
+  private int queuedItems;
+  private long queuedBytes;
+  private @Nullable Thread worker;
+  private final boolean autoStartWorker;
+
+  static @NotNull RNSentryEnvelopeQueue getInstance() {
+    return instance;
+  }
+
+  private RNSentryEnvelopeQueue() {
+    this(true);
+  }
+
+  @TestOnly
+  RNSentryEnvelopeQueue(final boolean autoStartWorker) {
+    this.autoStartWorker = autoStartWorker;
+  }
+
+  /** Updates the bounds. Already queued envelopes are kept even if they exceed the new bounds. */
+  void configure(
+      final int maxItems, final long maxBytes, final @NotNull OverflowPolicy overflowPolicy) {
+    lock.lock();
+    try {
+      this.maxItems = Math.max(1, maxItems);
+      this.maxBytes = Math.max(1, maxBytes);
+      this.overflowPolicy = overflowPolicy;
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Queues raw envelope bytes from a thread that may wait for space. */
+  boolean enqueue(
+      final @NotNull byte[] envelope,
+      final @Nullable RNSentryEnvelopeScanner.Envelope layout,
+      final @NotNull ILogger logger) {
+    return enqueue(envelope, layout, true, logger);
+  }
+
+  /**
+   * Queues raw envelope bytes. The array is owned by the queue afterwards.
+   *
+   * @param layout the scanned envelope, used for drop accounting
+   * @param mayBlock whether the calling thread may wait for space, {@code false} on the JS thread
+   * @return {@code false} when the envelope was dropped by the overflow policy
+   */
+  boolean enqueue(
+      final @NotNull byte[] envelope,
+      final @Nullable RNSentryEnvelopeScanner.Envelope layout,
+      final boolean mayBlock,
+      final @NotNull ILogger logger) {
+    return offer(new Item(envelope, null, envelope.length, layout, logger), mayBlock);
+  }
+
+  /**
+   * Queues a Base64 encoded envelope, decoding it only once it is picked up by the worker.
+   *
+   * @param layout the scanned envelope, used for drop accounting
+   * @return {@code false} when the envelope was dropped by the overflow policy
+   */
+  boolean enqueueBase64(
+      final @NotNull String envelope,
+      final @Nullable RNSentryEnvelopeScanner.Envelope layout,
+      final @NotNull ILogger logger) {
+    // Accounted by its decoded size, which is what ends up being held by the Android SDK.
+    return offer(new Item(null, envelope, envelope.length() / 4L * 3, layout, logger), true);
+  }
+
+  /**
+   * Captures everything still queued on the calling thread, in order. Used when JS is
+   * about to crash, so envelopes sent earlier are not lost with the process.
+   */
+  void drain() {
+    @Nullable Item item;
+    while ((item = poll()) != null) {
+      item.capture();
+    }
+  }
+
+  /**
+   * Stops the worker once it is done with the envelope it is capturing, and captures everything
+   * still queued on the calling thread. Called before the Android SDK is closed, a worker is
+   * started again by the next envelope.
+   */
+  void close() {
+    lock.lock();
+    try {
+      worker = null;
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    drain();
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return queuedItems;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean offer(final @NotNull Item item, final boolean mayBlock) {
+    final List<Item> evicted = new ArrayList<>();
+    boolean accepted = true;
+
+    lock.lock();
+    try {
+      if (overflowPolicy == OverflowPolicy.BLOCK && mayBlock) {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(BLOCK_TIMEOUT_MILLIS);
+        while (!fits(item) && remainingNanos > 0) {
+          remainingNanos = notFull.awaitNanos(remainingNanos);
+        }
+        accepted = fits(item);
+      } else if (overflowPolicy != OverflowPolicy.DROP_OLDEST) {
+        accepted = fits(item);
+      } else {
+        while (!fits(item)) {
+          final @Nullable Item victim = pollLocked();
+          if (victim == null) {
+            break;
+          }
+          evicted.add(victim);
+        }
+      }
+
+      if (accepted) {
+        queue.addLast(item);
+        queuedItems++;
+        queuedBytes += item.size;
+        if (autoStartWorker) {
+          ensureWorkerStarted();
+        }
+        notEmpty.signal();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      accepted = false;
+    } finally {
+      lock.unlock();
+    }
+
+    // Client reports are recorded outside of the lock.
+    for (final @NotNull Item dropped : evicted) {
+      recordDropped(dropped);
+    }
+    if (!accepted) {
+      recordDropped(item);
+    }
+    return accepted;
+  }
+
+  private boolean fits(final @NotNull Item item) {
+    if (queuedItems == 0) {
+      return true;
+    }
+    return queuedItems < maxItems && queuedBytes + item.size <= maxBytes;
+  }
+
+  private @Nullable Item pollLocked() {
+    final @Nullable Item item = queue.pollFirst();
+    if (item != null) {
+      queuedItems--;
+      queuedBytes -= item.size;
+      notFull.signalAll();
+    }
+    return item;
+  }
+
+  private @Nullable Item poll() {
+    lock.lock();
+    try {
+      return pollLocked();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns {@code null} once the queue is empty and the calling worker was stopped. */
+  private @Nullable Item take() throws InterruptedException {
+    lock.lock();
+    try {
+      @Nullable Item item;
+      while ((item = pollLocked()) == null) {
+        if (worker != Thread.currentThread()) {
+          return null;
+        }
+        notEmpty.await();
+      }
+      return item;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void ensureWorkerStarted() {
+    if (worker != null) {
+      return;
+    }
+    final Thread thread = new Thread(this::runWorker, THREAD_NAME);
+    thread.setDaemon(true);
+    thread.start();
+    worker = thread;
+  }
+
+  private void runWorker() {
+    while (true) {
+      final @Nullable Item item;
+      try {
+        item = take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (item == null) {
+        return;
+      }
+      item.capture();
+    }
+  }
+
+  private static void recordDropped(final @NotNull Item item) {
+    final @NotNull ILogger logger = item.logger;
+    logger.log(SentryLevel.WARNING, "Envelope queue is full, dropping an envelope.");
+    if (item.layout != null) {
+      RNSentryEnvelopeFilter.recordLost(
+          DiscardReason.QUEUE_OVERFLOW, item.layout.getItems(), logger);
+      return;
+    }
+    try {
+      final @Nullable byte[] bytes = item.bytes();
+      if (bytes == null) {
+        return;
+      }
+      final @NotNull SentryOptions options = ScopesAdapter.getInstance().getOptions();
+      final @Nullable SentryEnvelope envelope =
+          options.getEnvelopeReader().read(new ByteArrayInputStream(bytes));
+      options
+          .getClientReportRecorder()
+          .recordLostEnvelope(DiscardReason.QUEUE_OVERFLOW, envelope);
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.ERROR, "Failed to record dropped envelope.", e);
+    }
+  }
+
+  private static final class Item {
+    private final @Nullable byte[] raw;
+    private final @Nullable String base64;
+    final long size;
+    final @Nullable RNSentryEnvelopeScanner.Envelope layout;
+    final @NotNull ILogger logger;
+
+    Item(
+        final @Nullable byte[] raw,
+        final @Nullable String base64,
+        final long size,
+        final @Nullable RNSentryEnvelopeScanner.Envelope layout,
+        final @NotNull ILogger logger) {
+      this.raw = raw;
+      this.base64 = base64;
+      this.size = size;
+      this.layout = layout;
+      this.logger = logger;
+    }
+
+    @Nullable
+    byte[] bytes() {
+      if (raw != null) {
+        return raw;
+      }
+      return base64 != null ? Base64.decode(base64, Base64.DEFAULT) : null;
+    }
+
+    void capture() {
+      final @Nullable byte[] envelope;
+      try {
+        envelope = bytes();
+      } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+        logger.log(SentryLevel.ERROR, "Failed to decode queued envelope.", e);
+        return;
+      }
+      if (envelope != null) {
+        RNSentryEnvelopeCapture.capture(envelope, false, logger);
+      }
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package io.sentry.react;
+
+import io.sentry.ILogger;
+import io.sentry.SentryLevel;
+import io.sentry.transport.CurrentDateProvider;
+import io.sentry.transport.ICurrentDateProvider;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Token bucket limiter for envelopes coming from JS, applied before they are decoded, queued and
+ * persisted.
+ *
+ * <p>Every configured item type (e.g. {@code event}, {@code transaction}, {@code replay_video},
+ * {@code profile}, {@code attachment}) has its own budget of items per minute, and all envelopes
+ * share a budget of bytes per minute. Without configured budgets the limiter is a no-op.
+ *
+ * <p>Envelopes that are dropped as a whole take no tokens, so a dropped event doesn't use up the
+ * budget of its attachments. An envelope bigger than the byte budget never fits into it and is
+ * always dropped.
+ */
+final class RNSentryEnvelopeRateLimiter {
+
+  private static final long MILLIS_PER_MINUTE = 60_000;
+
+  private static final @NotNull RNSentryEnvelopeRateLimiter instance =
+      new RNSentryEnvelopeRateLimiter(CurrentDateProvider.getInstance());
+
+  private final @NotNull ICurrentDateProvider dateProvider;
+  private final @NotNull Map<String, Bucket> itemBuckets = new HashMap<>();
+  private @Nullable Bucket bytesBucket;
+
+  static @NotNull RNSentryEnvelopeRateLimiter getInstance() {
+    return instance;
+  }
+
+  @TestOnly
+  RNSentryEnvelopeRateLimiter(final @NotNull ICurrentDateProvider dateProvider) {
+    this.dateProvider = dateProvider;
+  }
+
+  /**
+   * @param itemsPerMinute budget per envelope item type, types without a budget are not limited
+   * @param bytesPerMinute budget shared by all envelopes, {@code 0} or less to not limit bytes
+   */
+  synchronized void configure(
+      final @NotNull Map<String, Integer> itemsPerMinute, final long bytesPerMinute) {
+    final long now = dateProvider.getCurrentTimeMillis();
+    itemBuckets.clear();
+    for (final @NotNull Map.Entry<String, Integer> entry : itemsPerMinute.entrySet()) {
+      if (entry.getValue() != null && entry.getValue() >= 0) {
+        itemBuckets.put(entry.getKey(), new Bucket(entry.getValue(), now));
+      }
+    }
+    bytesBucket = bytesPerMinute > 0 ? new Bucket(bytesPerMinute, now) : null;
+  }
+
+  /**
+   * Takes tokens for the envelope's items.
+   *
+   * @param excluded items already dropped for other reasons, they neither take tokens nor count
+   *     towards the byte budget
+   * @return the items over their type's budget, or {@code null} when the first item is over its
+   *     budget or the envelope is over the byte budget, and it has to be dropped as a whole
+   */
+  synchronized @Nullable List<RNSentryEnvelopeScanner.Item> limit(
+      final @NotNull RNSentryEnvelopeScanner.Envelope envelope,
+      final @NotNull Collection<RNSentryEnvelopeScanner.Item> excluded,
+      final @NotNull ILogger logger) {
+    final List<RNSentryEnvelopeScanner.Item> limited = new ArrayList<>();
+    if (itemBuckets.isEmpty() && bytesBucket == null) {
+      return limited;
+    }
+
+    final long now = dateProvider.getCurrentTimeMillis();
+    final @NotNull List<RNSentryEnvelopeScanner.Item> items = envelope.getItems();
+    final List<Bucket> acquired = new ArrayList<>();
+    long keptBytes = envelope.getHeaderSize();
+    for (int i = 0; i < items.size(); i++) {
+      final @NotNull RNSentryEnvelopeScanner.Item item = items.get(i);
+      if (excluded.contains(item)) {
+        continue;
+      }
+      final @Nullable Bucket bucket = itemBuckets.get(item.getType());
+      if (bucket == null) {
+        keptBytes += item.getSize();
+      } else if (bucket.tryAcquire(1, now)) {
+        acquired.add(bucket);
+        keptBytes += item.getSize();
+      } else if (i == 0) {
+        // Decided before any other item took a token.
+        return null;
+      } else {
+        limited.add(item);
+      }
+    }
+
+    if (bytesBucket != null && !bytesBucket.tryAcquire(keptBytes, now)) {
+      if (keptBytes > bytesBucket.capacity) {
+        logger.log(
+            SentryLevel.WARNING,
+            String.format(
+                "Envelope of %d bytes is bigger than bytesPerMinute and is dropped.", keptBytes));
+      }
+      for (final @NotNull Bucket bucket : acquired) {
+        bucket.release(1);
+      }
+      return null;
+    }
+    return limited;
+  }
+
+  /** Refills continuously at {@code capacity} per minute, starting full. */
+  private static final class Bucket {
+    private final double capacity;
+    private double tokens;
+    private long lastRefillMillis;
+
+    Bucket(final double capacity, final long now) {
+      this.capacity = capacity;
+      this.tokens = capacity;
+      this.lastRefillMillis = now;
+    }
+
+    boolean tryAcquire(final double amount, final long now) {
+      final long elapsed = Math.max(0, now - lastRefillMillis);
+      tokens = Math.min(capacity, tokens + elapsed * capacity / MILLIS_PER_MINUTE);
+      lastRefillMillis = now;
+      if (tokens < amount) {
+        return false;
+      }
+      tokens -= amount;
+      return true;
+    }
+
+    /** Returns tokens taken by {@link #tryAcquire} for an envelope that was dropped after all. */
+    void release(final double amount) {
+      tokens = Math.min(capacity, tokens + amount);
+    }
+  }
+}
@@ -0,0 +1,314 @@
+package io.sentry.react;
+
+import io.sentry.ILogger;
+import io.sentry.JsonObjectReader;
+import io.sentry.SentryEnvelopeItemHeader;
+import io.sentry.SentryLevel;
+import io.sentry.vendor.Base64;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads the layout of an envelope, i.e. the type and byte range of every item, from its headers
+ * only. Item payloads are skipped using the {@code length} of their header and never parsed.
+ *
+ * <p>Base64 encoded envelopes are scanned without decoding them: only the few characters around
+ * each header are decoded, so envelopes can be filtered before paying for the full decode.
+ */
+final class RNSentryEnvelopeScanner {
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8"); // NOPMD - Allow using UTF-8
+
+  /** Base64 quanta decoded at once when reading headers of an encoded envelope. */
+  private static final int BASE64_WINDOW_QUANTA = 128;
+
+  private RNSentryEnvelopeScanner() {
+    throw new AssertionError("Utility class should not be instantiated");
+  }
+
+  /** An envelope item, positions are offsets into the decoded envelope. */
+  static final class Item {
+    private final @NotNull SentryEnvelopeItemHeader header;
+    private final @NotNull String headerLine;
+    private final @NotNull String type;
+    private final int start;
+    private final int payloadStart;
+    private final int end;
+    private final int payloadLength;
+
+    Item(
+        final @NotNull SentryEnvelopeItemHeader header,
+        final @NotNull String headerLine,
+        final int start,
+        final int payloadStart,
+        final int end,
+        final int payloadLength) {
+      this.header = header;
+      this.headerLine = headerLine;
+      this.type = header.getType().getItemType();
+      this.start = start;
+      this.payloadStart = payloadStart;
+      this.end = end;
+      this.payloadLength = payloadLength;
+    }
+
+    @NotNull
+    SentryEnvelopeItemHeader getHeader() {
+      return header;
+    }
+
+    /** The item header as written in the envelope, without its newline. */
+    @NotNull
+    String getHeaderLine() {
+      return headerLine;
+    }
+
+    /** The item type as written in the header, e.g. {@code event} or {@code attachment}. */
+    @NotNull
+    String getType() {
+      return type;
+    }
+
+    /** Offset of the first item byte, i.e. of its header. */
+    int getStart() {
+      return start;
+    }
+
+    /** Offset of the first payload byte. */
+    int getPayloadStart() {
+      return payloadStart;
+    }
+
+    /** Offset after the item, including its trailing newline. */
+    int getEnd() {
+      return end;
+    }
+
+    /** Size of the item including its header and trailing newline. */
+    int getSize() {
+      return end - start;
+    }
+
+    int getPayloadLength() {
+      return payloadLength;
+    }
+  }
+
+  static final class Envelope {
+    private final @NotNull String headerLine;
+    private final int headerEnd;
+    private final int length;
+    private final @NotNull List<Item> items;
+
+    Envelope(
+        final @NotNull String headerLine,
+        final int headerEnd,
+        final int length,
+        final @NotNull List<Item> items) {
+      this.headerLine = headerLine;
+      this.headerEnd = headerEnd;
+      this.length = length;
+      this.items = Collections.unmodifiableList(items);
+    }
+
+    /** The envelope header as written in the envelope, without its newline. */
+    @NotNull
+    String getHeaderLine() {
+      return headerLine;
+    }
+
+    @NotNull
+    List<Item> getItems() {
+      return items;
+    }
+
+    /** Size of the decoded envelope. */
+    int getLength() {
+      return length;
+    }
+
+    /** Size of the envelope header including its newline. */
+    int getHeaderSize() {
+      return headerEnd;
+    }
+
+    /** Total size of all items of the given type. */
+    long getSize(final @NotNull String type) {
+      long size = 0;
+      for (final @NotNull Item item : items) {
+        if (item.type.equals(type)) {
+          size += item.getSize();
+        }
+      }
+      return size;
+    }
+
+    /** Copies the envelope bytes, leaving out the given items. */
+    @NotNull
+    byte[] without(final @NotNull byte[] envelope, final @NotNull Collection<Item> dropped) {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream(envelope.length);
+      out.write(envelope, 0, headerEnd);
+      for (final @NotNull Item item : items) {
+        if (!dropped.contains(item)) {
+          out.write(envelope, item.start, item.end - item.start);
+        }
+      }
+      return out.toByteArray();
+    }
+  }
+
+  /**
+   * @return the envelope layout, or {@code null} if the headers can't be read
+   */
+  static @Nullable Envelope scan(final @NotNull byte[] envelope, final @NotNull ILogger logger) {
+    return scan(new BytesSource(envelope), logger);
+  }
+
+  /**
+   * @return the envelope layout in decoded offsets, or {@code null} if the headers can't be read
+   */
+  static @Nullable Envelope scanBase64(
+      final @NotNull String envelope, final @NotNull ILogger logger) {
+    try {
+      return scan(new Base64Source(envelope), logger);
+    } catch (IllegalArgumentException e) {
+      logger.log(SentryLevel.DEBUG, "Could not decode envelope headers.", e);
+      return null;
+    }
+  }
+
+  private static @Nullable Envelope scan(
+      final @NotNull Source source, final @NotNull ILogger logger) {
+    final int length = source.length();
+    final int headerEnd = source.indexOfNewline(0) + 1;
+    final List<Item> items = new ArrayList<>();
+    if (headerEnd == 0) {
+      return new Envelope(source.string(0, length), length, length, items);
+    }
+
+    int position = headerEnd;
+    try {
+      while (position < length) {
+        final int itemHeaderEnd = source.indexOfNewline(position);
+        if (itemHeaderEnd < 0) {
+          return null;
+        }
+        final @NotNull String headerLine = source.string(position, itemHeaderEnd);
+        final @NotNull SentryEnvelopeItemHeader header =
+            new SentryEnvelopeItemHeader.Deserializer()
+                .deserialize(new JsonObjectReader(new StringReader(headerLine)), logger);
+        final int payloadStart = itemHeaderEnd + 1;
+        int payloadEnd =
+            header.getLength() > 0
+                ? payloadStart + header.getLength()
+                : source.indexOfNewline(payloadStart);
+        if (payloadEnd < 0 || payloadEnd > length) {
+          payloadEnd = length;
+        }
+        // The newline after the payload is optional for the last item.
+        final int end = Math.min(payloadEnd + 1, length);
+        items.add(
+            new Item(header, headerLine, position, payloadStart, end, payloadEnd - payloadStart));
+        position = end;
+      }
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.DEBUG, "Could not read envelope item headers.", e);
+      return null;
+    }
+    return new Envelope(source.string(0, headerEnd - 1), headerEnd, length, items);
+  }
+
+  private abstract static class Source {
+    abstract int length();
+
+    abstract int byteAt(int index);
+
+    int indexOfNewline(final int from) {
+      final int length = length();
+      for (int i = from; i < length; i++) {
+        if (byteAt(i) == '\n') {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @NotNull
+    String string(final int start, final int end) {
+      final byte[] bytes = new byte[end - start];
+      for (int i = start; i < end; i++) {
+        bytes[i - start] = (byte) byteAt(i);
+      }
+      return new String(bytes, UTF_8);
+    }
+  }
+
+  private static final class BytesSource extends Source {
+    private final @NotNull byte[] bytes;
+
+    BytesSource(final @NotNull byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    int length() {
+      return bytes.length;
+    }
+
+    @Override
+    int byteAt(final int index) {
+      return bytes[index];
+    }
+
+    @Override
+    @NotNull
+    String string(final int start, final int end) {
+      return new String(bytes, start, end - start, UTF_8);
+    }
+  }
+
+  /** Decodes the window of quanta around the requested offset, reusing it for nearby reads. */
+  private static final class Base64Source extends Source {
+    private final @NotNull String encoded;
+    private final int length;
+    private final byte[] chars = new byte[BASE64_WINDOW_QUANTA * 4];
+    private byte[] window = new byte[0];
+    private int windowStart = -1;
+
+    Base64Source(final @NotNull String encoded) {
+      this.encoded = encoded;
+      int padding = 0;
+      for (int i = encoded.length() - 1; i >= 0 && encoded.charAt(i) == '='; i--) {
+        padding++;
+      }
+      this.length = encoded.length() / 4 * 3 - padding;
+    }
+
+    @Override
+    int length() {
+      return length;
+    }
+
+    @Override
+    int byteAt(final int index) {
+      if (windowStart < 0 || index < windowStart || index >= windowStart + window.length) {
+        final int quantum = index / 3;
+        final int charStart = quantum * 4;
+        final int charCount = Math.min(chars.length, encoded.length() - charStart);
+        for (int i = 0; i < charCount; i++) {
+          chars[i] = (byte) encoded.charAt(charStart + i);
+        }
+        window = Base64.decode(chars, 0, charCount, Base64.DEFAULT);
+        windowStart = quantum * 3;
+      }
+      return window[index - windowStart];
+    }
+  }
+}
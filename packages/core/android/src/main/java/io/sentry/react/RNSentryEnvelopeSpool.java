@@ -0,0 +1,168 @@
+package io.sentry.react;
+
+import io.sentry.ILogger;
+import io.sentry.SentryLevel;
+import io.sentry.vendor.Base64;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+import org.jetbrains.annotations.VisibleForTesting;
+
+/**
+ * Writes hard crash envelopes straight to disk instead of handing them to the Android SDK.
+ *
+ * <p>When JS reports a fatal error the process is about to die. Instead of decoding the whole
+ * Base64 payload into one {@code byte[]}, parsing it and letting the SDK write it to its cache,
+ * the spool pre-allocates a file sized for the decoded envelope, maps it and decodes the payload
+ * into it chunk by chunk. The file is synced once at the end and atomically renamed, so a
+ * half-written envelope is never picked up.
+ *
+ * <p>On the next launch {@link #moveToOutbox(String, ILogger)} moves the spooled envelopes into the
+ * Android SDK outbox, which sends them like any envelope written by a hybrid SDK.
+ */
+final class RNSentryEnvelopeSpool {
+
+  static final String DIR_NAME = "spool";
+
+  @VisibleForTesting static final String ENVELOPE_SUFFIX = ".envelope";
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  /** Base64 characters decoded per chunk, a multiple of 4 so chunks never split a quantum. */
+  @VisibleForTesting static final int CHUNK_CHARS = 64 * 1024;
+
+  private static final @NotNull RNSentryEnvelopeSpool instance = new RNSentryEnvelopeSpool();
+
+  private @Nullable File directory;
+
+  static @NotNull RNSentryEnvelopeSpool getInstance() {
+    return instance;
+  }
+
+  @TestOnly
+  RNSentryEnvelopeSpool() {}
+
+  /**
+   * @param directory where hard crash envelopes are spooled, or {@code null} to disable spooling
+   */
+  synchronized void configure(final @Nullable File directory) {
+    this.directory = directory;
+  }
+
+  synchronized boolean isEnabled() {
+    return directory != null;
+  }
+
+  /**
+   * Spools a Base64 encoded envelope.
+   *
+   * @return {@code false} when spooling is disabled or failed, the caller should capture the
+   *     envelope through the Android SDK instead
+   */
+  boolean spoolBase64(final @NotNull String envelope, final @NotNull ILogger logger) {
+    final int length = envelope.length();
+    return spool(
+        length / 4L * 3,
+        buffer -> {
+          final byte[] chars = new byte[Math.min(CHUNK_CHARS, length)];
+          for (int start = 0; start < length; start += CHUNK_CHARS) {
+            final int count = Math.min(CHUNK_CHARS, length - start);
+            for (int i = 0; i < count; i++) {
+              chars[i] = (byte) envelope.charAt(start + i);
+            }
+            buffer.put(Base64.decode(chars, 0, count, Base64.DEFAULT));
+          }
+        },
+        logger);
+  }
+
+  /**
+   * Spools raw envelope bytes.
+   *
+   * @return {@code false} when spooling is disabled or failed, the caller should capture the
+   *     envelope through the Android SDK instead
+   */
+  boolean spool(final @NotNull byte[] envelope, final @NotNull ILogger logger) {
+    return spool(envelope.length, buffer -> buffer.put(envelope), logger);
+  }
+
+  /** Moves envelopes spooled by a previous run into the outbox. Returns the number moved. */
+  int moveToOutbox(final @Nullable String outboxPath, final @NotNull ILogger logger) {
+    final @Nullable File spoolDir = getDirectory();
+    if (spoolDir == null || outboxPath == null) {
+      return 0;
+    }
+    final @Nullable File[] files = spoolDir.listFiles();
+    if (files == null || files.length == 0) {
+      return 0;
+    }
+
+    final File outbox = new File(outboxPath);
+    if (!outbox.exists() && !outbox.mkdirs()) {
+      logger.log(SentryLevel.WARNING, "Could not create the outbox for spooled envelopes.");
+      return 0;
+    }
+    int moved = 0;
+    for (final @NotNull File file : files) {
+      if (file.getName().endsWith(ENVELOPE_SUFFIX)) {
+        if (file.renameTo(new File(outbox, file.getName()))) {
+          moved++;
+        } else {
+          logger.log(SentryLevel.WARNING, "Could not move spooled envelope " + file.getName());
+        }
+      } else if (file.getName().endsWith(TEMP_SUFFIX) && !file.delete()) {
+        // Left over by a crash while spooling, never complete.
+        logger.log(SentryLevel.DEBUG, "Could not delete partial spool file " + file.getName());
+      }
+    }
+    return moved;
+  }
+
+  private synchronized @Nullable File getDirectory() {
+    return directory;
+  }
+
+  private interface Content {
+    void write(@NotNull MappedByteBuffer buffer) throws Exception; // NOPMD - Any failure aborts
+  }
+
+  private boolean spool(
+      final long maxLength, final @NotNull Content content, final @NotNull ILogger logger) {
+    final @Nullable File spoolDir = getDirectory();
+    if (spoolDir == null) {
+      return false;
+    }
+    if (!spoolDir.exists() && !spoolDir.mkdirs()) {
+      return false;
+    }
+
+    final String name = UUID.randomUUID().toString();
+    final File temp = new File(spoolDir, name + TEMP_SUFFIX);
+    try {
+      try (RandomAccessFile file = new RandomAccessFile(temp, "rw")) {
+        file.setLength(maxLength);
+        final FileChannel channel = file.getChannel();
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, maxLength);
+        content.write(buffer);
+        // Padding makes the estimate an upper bound, cut the file to what was decoded.
+        channel.truncate(buffer.position());
+        // The mapping shares the page cache, one fsync flushes the data and the new length.
+        channel.force(true);
+      }
+      if (temp.renameTo(new File(spoolDir, name + ENVELOPE_SUFFIX))) {
+        return true;
+      }
+      logger.log(SentryLevel.ERROR, "Could not finalize the spooled envelope.");
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.ERROR, "Failed to spool envelope.", e);
+    }
+    if (!temp.delete()) {
+      logger.log(SentryLevel.DEBUG, "Could not delete partial spool file " + temp.getName());
+    }
+    return false;
+  }
+}
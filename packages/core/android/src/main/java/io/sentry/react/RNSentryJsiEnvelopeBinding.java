@@ -0,0 +1,163 @@
+package io.sentry.react;
+
+import com.facebook.proguard.annotations.DoNotStrip;
+import com.facebook.react.bridge.JavaScriptContextHolder;
+import com.facebook.react.bridge.ReactApplicationContext;
+import io.sentry.ILogger;
+import io.sentry.SentryLevel;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Java side of the binary envelope path installed by {@code SentryEnvelopeJSIBinding.cpp}.
+ *
+ * <p>On the New Architecture the JS transport calls {@code __SENTRY_CAPTURE_ENVELOPE_BYTES__}
+ * with the envelope's {@code ArrayBuffer}. The C++ host function wraps the buffer's memory in a
+ * direct {@link ByteBuffer} and calls {@link #captureEnvelope(ByteBuffer, boolean)}, which copies
+ * it once into the {@code byte[]} the Android SDK consumes. Compared to {@code
+ * RNSentry.captureEnvelope} this skips the Base64 encode on the JS thread, the String transfer and
+ * the {@code Base64.decode} on the native side.
+ *
+ * <p>The host function returns whether the envelope was {@link #CAPTURE_ACCEPTED accepted} or
+ * {@link #CAPTURE_DROPPED dropped} by the pipeline, or whether the bytes could not be taken at all,
+ * {@link #CAPTURE_UNAVAILABLE}. JS only sends the envelope again as Base64 in the last case, so a
+ * dropped envelope isn't filtered twice.
+ *
+ * <p>The same library installs {@code __SENTRY_ENCODE_BASE64__}, which Base64 encodes an {@code
+ * ArrayBuffer} through {@link #encodeToBase64(ByteBuffer, boolean)} in one call instead of passing
+ * every byte as a boxed number through {@code RNSentry.encodeToBase64}.
+ *
+ * <p>The binding lives in {@code libsentry-tm-perf-logger.so}, which is only built for the New
+ * Architecture. When the library is missing {@link #install(ReactApplicationContext, ILogger)}
+ * returns {@code false} and JS keeps using the Base64 path.
+ */
+@DoNotStrip
+public final class RNSentryJsiEnvelopeBinding {
+
+  private static final String LIB_NAME = "sentry-tm-perf-logger";
+
+  /** The bytes were not taken, JS sends the envelope through {@code RNSentry.captureEnvelope}. */
+  static final int CAPTURE_UNAVAILABLE = 0;
+
+  /** The envelope was submitted to the {@link RNSentryEnvelopeCapture} pipeline. */
+  static final int CAPTURE_ACCEPTED = 1;
+
+  /** The pipeline dropped the envelope or failed to capture it, it must not be sent again. */
+  static final int CAPTURE_DROPPED = 2;
+
+  private static final @NotNull AtomicBoolean nativeUnavailable = new AtomicBoolean(false);
+  private static final @NotNull AtomicBoolean libraryLoadAttempted = new AtomicBoolean(false);
+
+  private static @Nullable ILogger logger;
+
+  private RNSentryJsiEnvelopeBinding() {}
+
+  /**
+   * Installs the host function into the current JS runtime. Must be called on the JS thread, which
+   * is where synchronous TurboModule methods run.
+   *
+   * @return {@code true} when {@code __SENTRY_CAPTURE_ENVELOPE_BYTES__} is available to JS
+   */
+  static synchronized boolean install(
+      final @NotNull ReactApplicationContext context, final @NotNull ILogger logger) {
+    RNSentryJsiEnvelopeBinding.logger = logger;
+    if (!ensureNativeLibraryLoaded(logger)) {
+      return false;
+    }
+
+    try {
+      final @Nullable JavaScriptContextHolder holder = context.getJavaScriptContextHolder();
+      if (holder == null) {
+        return false;
+      }
+      synchronized (holder) {
+        final long runtimePointer = holder.get();
+        if (runtimePointer == 0) {
+          return false;
+        }
+        return nativeInstall(runtimePointer);
+      }
+    } catch (UnsatisfiedLinkError e) {
+      nativeUnavailable.set(true);
+      logger.log(SentryLevel.INFO, "Binary envelope capture unavailable: " + e.getMessage());
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.WARNING, "Failed to install binary envelope capture.", e);
+    }
+    return false;
+  }
+
+  /**
+   * Called from C++ on the JS thread. The buffer wraps JS-owned memory and is only valid for the
+   * duration of this call, so it is copied before anything is handed to another thread.
+   */
+  @DoNotStrip
+  static int captureEnvelope(final @NotNull ByteBuffer buffer, final boolean hardCrashed) {
+    final @NotNull ILogger logger = getLogger();
+    final byte[] envelope;
+    try {
+      envelope = new byte[buffer.remaining()];
+      buffer.get(envelope);
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.ERROR, "Failed to copy envelope bytes from JS.", e);
+      return CAPTURE_UNAVAILABLE;
+    }
+
+    try {
+      // Never wait for queue space here, that would freeze the JS thread.
+      return RNSentryEnvelopeCapture.submit(envelope, hardCrashed, false, logger)
+          ? CAPTURE_ACCEPTED
+          : CAPTURE_DROPPED;
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      // The envelope may already be partly through the filters, sending it again counts it twice.
+      logger.log(SentryLevel.ERROR, "Failed to capture envelope bytes from JS.", e);
+      return CAPTURE_DROPPED;
+    }
+  }
+
+  /**
+   * Called from C++ on the JS thread. The buffer wraps JS-owned memory and is only read during this
+   * call.
+   *
+   * @return the encoded bytes, or {@code null} if they could not be encoded
+   */
+  @DoNotStrip
+  static @Nullable String encodeToBase64(final @NotNull ByteBuffer buffer, final boolean urlSafe) {
+    try {
+      return RNSentryBase64.encode(buffer, urlSafe);
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      getLogger().log(SentryLevel.ERROR, "Failed to encode bytes from JS.", e);
+      return null;
+    }
+  }
+
+  private static synchronized @NotNull ILogger getLogger() {
+    if (logger == null) {
+      logger = new RNSentryLogger();
+    }
+    return logger;
+  }
+
+  private static boolean ensureNativeLibraryLoaded(final @NotNull ILogger logger) {
+    if (libraryLoadAttempted.get()) {
+      return !nativeUnavailable.get();
+    }
+    try {
+      System.loadLibrary(LIB_NAME);
+    } catch (UnsatisfiedLinkError e) {
+      // Expected on Old Arch and on hosts that strip Sentry's native libraries.
+      nativeUnavailable.set(true);
+      logger.log(
+          SentryLevel.INFO,
+          "lib" + LIB_NAME + ".so not loaded; binary envelope capture unavailable.");
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      nativeUnavailable.set(true);
+      logger.log(SentryLevel.WARNING, "Failed to load lib" + LIB_NAME + ".so.", e);
+    }
+    libraryLoadAttempted.set(true);
+    return !nativeUnavailable.get();
+  }
+
+  private static native boolean nativeInstall(long jsiRuntimePointer);
+}
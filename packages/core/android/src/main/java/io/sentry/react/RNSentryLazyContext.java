@@ -0,0 +1,83 @@
+package io.sentry.react;
+
+import com.facebook.react.bridge.ReadableMap;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A context set from JS that is converted to a {@link Map} the first time it is read, for example
+ * when an event with the context is serialized, instead of when it is set.
+ *
+ * <p>Contexts that are replaced before an event is captured are never converted. The snapshot is
+ * the map received from the bridge, which JS can't change anymore, and is released once the
+ * context is converted. Lazy contexts are read-only.
+ *
+ * <p>When the scope is persisted, every context change is serialized on the SDK executor, which
+ * converts the context there instead of on the native modules thread.
+ */
+final class RNSentryLazyContext extends AbstractMap<String, Object> {
+
+  private static final @NotNull AtomicBoolean enabled = new AtomicBoolean(false);
+
+  private @Nullable ReadableMap snapshot;
+  private @Nullable Map<String, Object> context;
+
+  /** Lazy contexts are opt-in, see {@code androidLazyContexts}. */
+  static void setEnabled(final boolean enabled) {
+    RNSentryLazyContext.enabled.set(enabled);
+  }
+
+  static boolean isEnabled() {
+    return enabled.get();
+  }
+
+  /** Returns the value to set on the scope for the context, lazy if enabled. */
+  static @NotNull Map<String, Object> of(final @NotNull ReadableMap context) {
+    return enabled.get() ? new RNSentryLazyContext(context) : context.toHashMap();
+  }
+
+  RNSentryLazyContext(final @NotNull ReadableMap snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  synchronized boolean isMaterialized() {
+    return context != null;
+  }
+
+  private synchronized @NotNull Map<String, Object> materialize() {
+    if (context == null) {
+      final @Nullable ReadableMap from = snapshot;
+      context =
+          from != null
+              ? Collections.unmodifiableMap(from.toHashMap())
+              : Collections.<String, Object>emptyMap();
+      snapshot = null;
+    }
+    return context;
+  }
+
+  @Override
+  public @NotNull Set<Entry<String, Object>> entrySet() {
+    return materialize().entrySet();
+  }
+
+  @Override
+  public @Nullable Object get(final @Nullable Object key) {
+    return materialize().get(key);
+  }
+
+  @Override
+  public boolean containsKey(final @Nullable Object key) {
+    return materialize().containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return materialize().size();
+  }
+}
@@ -1,6 +1,5 @@
 package io.sentry.react;
 
-import static io.sentry.android.core.internal.util.ScreenshotUtils.takeScreenshot;
 import static io.sentry.vendor.Base64.NO_PADDING;
 import static io.sentry.vendor.Base64.NO_WRAP;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -22,7 +21,6 @@ import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
-import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.facebook.react.bridge.ReadableType;
 import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.bridge.WritableArray;
@@ -32,10 +30,9 @@ import com.facebook.react.bridge.WritableNativeMap;
 import io.sentry.ILogger;
 import io.sentry.IScope;
 import io.sentry.ISentryExecutorService;
-import io.sentry.ISerializer;
+import io.sentry.ScopeCallback;
 import io.sentry.ScopesAdapter;
 import io.sentry.Sentry;
-import io.sentry.SentryAttributes;
 import io.sentry.SentryDate;
 import io.sentry.SentryDateProvider;
 import io.sentry.SentryExecutorService;
@@ -48,7 +45,6 @@ import io.sentry.android.core.SentryAndroidDateProvider;
 import io.sentry.android.core.SentryAndroidOptions;
 import io.sentry.android.core.SentryFramesDelayResult;
 import io.sentry.android.core.SentryShakeDetector;
-import io.sentry.android.core.ViewHierarchyEventProcessor;
 import io.sentry.android.core.internal.debugmeta.AssetsDebugMetaLoader;
 import io.sentry.android.core.internal.util.SentryFrameMetricsCollector;
 import io.sentry.android.core.performance.AppStartMetrics;
@@ -56,17 +52,12 @@ import io.sentry.profilemeasurements.ProfileMeasurement;
 import io.sentry.profilemeasurements.ProfileMeasurementValue;
 import io.sentry.protocol.SdkVersion;
 import io.sentry.protocol.SentryId;
-import io.sentry.protocol.User;
-import io.sentry.protocol.ViewHierarchy;
 import io.sentry.util.DebugMetaPropertiesApplier;
 import io.sentry.util.FileUtils;
-import io.sentry.util.JsonSerializationUtils;
 import io.sentry.util.LoadClass;
-import io.sentry.util.MapObjectReader;
 import io.sentry.vendor.Base64;
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
@@ -81,7 +72,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
@@ -113,8 +103,6 @@ public class RNSentryModuleImpl {
   // 16ms (slower than 60fps) to constitute slow frames.
   private static final int SLOW_FRAME_THRESHOLD = 16;
 
-  private static final int SCREENSHOT_TIMEOUT_SECONDS = 2;
-
   /**
    * Profiling traces rate. 101 hz means 101 traces in 1 second. Defaults to 101 to avoid possible
    * lockstep sampling. More on
@@ -148,6 +136,9 @@ public class RNSentryModuleImpl {
   private final @NotNull SentryDateProvider dateProvider;
   private final @NotNull LoadClass loadClass;
 
+  private final @NotNull RNSentryScopeFingerprints scopeFingerprints =
+      new RNSentryScopeFingerprints();
+
   public RNSentryModuleImpl(ReactApplicationContext reactApplicationContext) {
     packageInfo = getPackageInfo(reactApplicationContext);
     this.reactApplicationContext = reactApplicationContext;
@@ -239,6 +230,11 @@ public class RNSentryModuleImpl {
           SentryLevel.WARNING, "Failed to toggle TurboModule perf tracking: " + t.getMessage());
     }
 
+    scopeFingerprints.configure(
+        rnOptions.hasKey("androidSkipUnchangedScopeWrites")
+            && rnOptions.getType("androidSkipUnchangedScopeWrites") == ReadableType.Boolean
+            && rnOptions.getBoolean("androidSkipUnchangedScopeWrites"));
+
     promise.resolve(true);
   }
 
@@ -254,6 +250,7 @@ public class RNSentryModuleImpl {
   }
 
   public void crash() {
+    flushScope();
     throw new RuntimeException("TEST - Sentry Client Crash (only works in release mode)");
   }
 
@@ -498,16 +495,55 @@ public class RNSentryModuleImpl {
   }
 
   public void captureEnvelope(String rawBytes, ReadableMap options, Promise promise) {
-    byte[] bytes = Base64.decode(rawBytes, Base64.DEFAULT);
-
+    final boolean hardCrashed = options.hasKey("hardCrashed") && options.getBoolean("hardCrashed");
     try {
-      InternalSentrySdk.captureEnvelope(
-          bytes, !options.hasKey("hardCrashed") || !options.getBoolean("hardCrashed"));
+      promise.resolve(RNSentryEnvelopeCapture.submitBase64(rawBytes, hardCrashed, logger));
     } catch (Throwable e) { // NOPMD - We don't want to crash in any case
-      logger.log(SentryLevel.ERROR, "Error while capturing envelope");
+      logger.log(SentryLevel.ERROR, "Error while capturing envelope", e);
       promise.resolve(false);
     }
-    promise.resolve(true);
+  }
+
+  /**
+   * Captures a batch of Base64 encoded envelopes in one bridge call. Each entry is a map with the
+   * {@code bytes} and {@code hardCrashed} keys of {@link #captureEnvelope(String, ReadableMap,
+   * Promise)}; the promise resolves with one boolean per envelope, in order.
+   */
+  public void captureEnvelopes(ReadableArray envelopes, Promise promise) {
+    final WritableArray results = Arguments.createArray();
+    for (int i = 0; i < envelopes.size(); i++) {
+      results.pushBoolean(captureEnvelopeAt(envelopes, i));
+    }
+    promise.resolve(results);
+  }
+
+  private boolean captureEnvelopeAt(final @NotNull ReadableArray envelopes, final int index) {
+    try {
+      final @Nullable ReadableMap envelope = envelopes.getMap(index);
+      if (envelope == null || !envelope.hasKey("bytes")) {
+        return false;
+      }
+      final @Nullable String rawBytes = envelope.getString("bytes");
+      if (rawBytes == null) {
+        return false;
+      }
+      final boolean hardCrashed =
+          envelope.hasKey("hardCrashed") && envelope.getBoolean("hardCrashed");
+      return RNSentryEnvelopeCapture.submitBase64(rawBytes, hardCrashed, logger);
+    } catch (Throwable e) { // NOPMD - One malformed envelope must not fail the whole batch
+      logger.log(SentryLevel.ERROR, "Error while capturing envelope at index " + index, e);
+      return false;
+    }
+  }
+
+  /**
+   * Installs the JSI host function used by the JS transport to pass envelopes as an {@code
+   * ArrayBuffer}, skipping the Base64 round trip of {@link #captureEnvelope(String, ReadableMap,
+   * Promise)}. Only available on the New Architecture; JS falls back to Base64 when this returns
+   * {@code false}.
+   */
+  public boolean installBinaryEnvelopeCapture() {
+    return RNSentryJsiEnvelopeBinding.install(getReactApplicationContext(), logger);
   }
 
   public void captureScreenshot(Promise promise) {
@@ -519,82 +555,136 @@ public class RNSentryModuleImpl {
       return;
     }
 
-    final byte[] raw = takeScreenshotOnUiThread(activity);
-
-    if (raw == null || raw.length == 0) {
-      logger.log(SentryLevel.WARNING, "Screenshot is null, screen was not captured.");
-      promise.resolve(null);
-      return;
-    }
+    RNSentryScreenshotCapture.getInstance()
+        .capture(
+            activity,
+            logger,
+            buildInfo,
+            (raw, format) -> {
+              if (raw == null || raw.length == 0) {
+                logger.log(SentryLevel.WARNING, "Screenshot is null, screen was not captured.");
+                promise.resolve(null);
+                return;
+              }
 
-    final WritableNativeArray data = new WritableNativeArray();
-    for (final byte b : raw) {
-      data.pushInt(b);
-    }
-    final WritableMap screenshot = new WritableNativeMap();
-    screenshot.putString("contentType", "image/png");
-    screenshot.putArray("data", data);
-    screenshot.putString("filename", "screenshot.png");
+              // One string crosses the bridge instead of a boxed number per byte.
+              final WritableMap screenshot = new WritableNativeMap();
+              screenshot.putString("contentType", format.getContentType());
+              screenshot.putString("data", Base64.encodeToString(raw, NO_WRAP));
+              screenshot.putString("filename", format.getFilename());
 
-    final WritableArray screenshotsArray = new WritableNativeArray();
-    screenshotsArray.pushMap(screenshot);
-    promise.resolve(screenshotsArray);
+              final WritableArray screenshotsArray = new WritableNativeArray();
+              screenshotsArray.pushMap(screenshot);
+              promise.resolve(screenshotsArray);
+            });
   }
 
-  private static byte[] takeScreenshotOnUiThread(Activity activity) {
-    CountDownLatch doneSignal = new CountDownLatch(1);
-    final byte[][] bytesWrapper = {{}}; // wrapper to be able to set the value in the runnable
-    final Runnable runTakeScreenshot =
-        () -> {
-          bytesWrapper[0] = takeScreenshot(activity, logger, buildInfo);
-          doneSignal.countDown();
-        };
-
-    if (UiThreadUtil.isOnUiThread()) {
-      runTakeScreenshot.run();
-    } else {
-      UiThreadUtil.runOnUiThread(runTakeScreenshot);
-    }
-
-    try {
-      doneSignal.await(SCREENSHOT_TIMEOUT_SECONDS, SECONDS);
-    } catch (InterruptedException e) {
-      logger.log(SentryLevel.ERROR, "Screenshot process was interrupted.");
-      return new byte[0];
+  public void fetchViewHierarchy(Promise promise) {
+    final @Nullable Activity activity = getCurrentActivity();
+    if (activity == null) {
+      logger.log(SentryLevel.WARNING, "CurrentActivity is null, can't get ViewHierarchy.");
+      promise.resolve(null);
+      return;
     }
 
-    return bytesWrapper[0];
+    // The views are written straight to JSON on the UI thread, which resolves the promise.
+    UiThreadUtil.runOnUiThread(
+        () -> {
+          final @Nullable String viewHierarchy =
+              RNSentryViewHierarchyWriter.getInstance().writeBase64(activity, logger);
+          if (viewHierarchy == null) {
+            logger.log(SentryLevel.ERROR, "Could not get ViewHierarchy.");
+          }
+          promise.resolve(viewHierarchy);
+        });
   }
 
-  public void fetchViewHierarchy(Promise promise) {
-    final @Nullable Activity activity = getCurrentActivity();
-    final @Nullable ViewHierarchy viewHierarchy =
-        ViewHierarchyEventProcessor.snapshotViewHierarchy(activity, logger);
-    if (viewHierarchy == null) {
-      logger.log(SentryLevel.ERROR, "Could not get ViewHierarchy.");
+  public void storeScreenshot(Promise promise) {
+    final @NotNull RNSentryAttachmentStore store = RNSentryAttachmentStore.getInstance();
+    if (!store.isEnabled()) {
       promise.resolve(null);
       return;
     }
+    final Activity activity = getCurrentActivity();
+    if (activity == null) {
+      logger.log(SentryLevel.WARNING, "CurrentActivity is null, can't capture screenshot.");
+      promise.resolve(new WritableNativeArray());
+      return;
+    }
 
-    ISerializer serializer = ScopesAdapter.getInstance().getOptions().getSerializer();
-    final @Nullable byte[] bytes =
-        JsonSerializationUtils.bytesFrom(serializer, logger, viewHierarchy);
-    if (bytes == null) {
-      logger.log(SentryLevel.ERROR, "Could not serialize ViewHierarchy.");
+    RNSentryScreenshotCapture.getInstance()
+        .capture(
+            activity,
+            logger,
+            buildInfo,
+            (raw, format) ->
+                runInBackground(
+                    () -> {
+                      final WritableArray handles = new WritableNativeArray();
+                      if (raw != null && raw.length > 0) {
+                        final @Nullable RNSentryAttachmentStore.Entry entry =
+                            store.put(raw, format.getContentType(), format.getFilename(), logger);
+                        if (entry != null) {
+                          handles.pushMap(toHandle(entry));
+                        }
+                      } else {
+                        logger.log(
+                            SentryLevel.WARNING, "Screenshot is null, screen was not captured.");
+                      }
+                      promise.resolve(handles);
+                    }));
+  }
+
+  public void storeViewHierarchy(Promise promise) {
+    final @NotNull RNSentryAttachmentStore store = RNSentryAttachmentStore.getInstance();
+    if (!store.isEnabled()) {
       promise.resolve(null);
       return;
     }
-    if (bytes.length < 1) {
-      logger.log(SentryLevel.ERROR, "Got empty bytes array after serializing ViewHierarchy.");
-      promise.resolve(null);
+    final @Nullable Activity activity = getCurrentActivity();
+    if (activity == null) {
+      logger.log(SentryLevel.WARNING, "CurrentActivity is null, can't get ViewHierarchy.");
+      promise.resolve(new WritableNativeArray());
       return;
     }
 
-    final WritableNativeArray data = new WritableNativeArray();
-    for (final byte b : bytes) {
-      data.pushInt(b);
+    UiThreadUtil.runOnUiThread(
+        () -> {
+          final @Nullable byte[] viewHierarchy =
+              RNSentryViewHierarchyWriter.getInstance().writeBytes(activity, logger);
+          runInBackground(
+              () -> {
+                final WritableArray handles = new WritableNativeArray();
+                if (viewHierarchy != null) {
+                  final @Nullable RNSentryAttachmentStore.Entry entry =
+                      store.put(viewHierarchy, "application/json", "view-hierarchy.json", logger);
+                  if (entry != null) {
+                    handles.pushMap(toHandle(entry));
+                  }
+                } else {
+                  logger.log(SentryLevel.ERROR, "Could not get ViewHierarchy.");
+                }
+                promise.resolve(handles);
+              });
+        });
+  }
+
+  private static @NotNull WritableMap toHandle(final @NotNull RNSentryAttachmentStore.Entry entry) {
+    final WritableMap handle = new WritableNativeMap();
+    handle.putString("handle", entry.getHandle());
+    handle.putString("contentType", entry.getContentType());
+    handle.putString("filename", entry.getFilename());
+    return handle;
+  }
+
+  /** Keeps disk writes of the attachment store off the UI thread. */
+  private static void runInBackground(final @NotNull Runnable work) {
+    try {
+      ScopesAdapter.getInstance().getOptions().getExecutorService().submit(work);
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.WARNING, "Could not schedule work, running it in place.", e);
+      work.run();
     }
-    promise.resolve(data);
   }
 
   private static PackageInfo getPackageInfo(Context ctx) {
@@ -607,61 +697,43 @@ public class RNSentryModuleImpl {
   }
 
   public void setUser(final ReadableMap userKeys, final ReadableMap userDataKeys) {
-    Sentry.configureScope(
-        scope -> {
-          if (userKeys == null && userDataKeys == null) {
-            scope.setUser(null);
-          } else {
-            try {
-              final MapObjectReader reader =
-                  new MapObjectReader(
-                      userKeys != null
-                          ? RNSentryBreadcrumb.toDeepHashMap(userKeys)
-                          : new HashMap<>());
-              final User userInstance = new User.Deserializer().deserialize(reader, logger);
-
-              if (userDataKeys != null) {
-                Map<String, String> userDataMap = new HashMap<>();
-                ReadableMapKeySetIterator it = userDataKeys.keySetIterator();
-                while (it.hasNextKey()) {
-                  String key = it.nextKey();
-                  String value = userDataKeys.getString(key);
-
-                  // other is ConcurrentHashMap and can't have null values
-                  if (value != null) {
-                    userDataMap.put(key, value);
-                  }
-                }
-
-                userInstance.setData(userDataMap);
-              }
+    if (scopeFingerprints.isUserUnchanged(userKeys, userDataKeys)) {
+      return;
+    }
 
-              scope.setUser(userInstance);
-            } catch (Exception e) {
-              logger.log(SentryLevel.ERROR, "Failed to deserialize user from map.", e);
-              scope.setUser(null);
-            }
-          }
-        });
+    writeScope(
+        RNSentryScopeOperations.SET_USER,
+        null,
+        scope -> RNSentryScopeOperations.setUser(scope, userKeys, userDataKeys, logger));
   }
 
   public void addBreadcrumb(final ReadableMap breadcrumb) {
-    Sentry.configureScope(
-        scope -> {
-          scope.addBreadcrumb(RNSentryBreadcrumb.fromMap(breadcrumb, logger));
+    writeScope(
+        RNSentryScopeOperations.ADD_BREADCRUMB,
+        null,
+        scope -> RNSentryScopeOperations.addBreadcrumb(scope, breadcrumb, logger));
+  }
 
-          final @Nullable String screen = RNSentryBreadcrumb.getCurrentScreenFrom(breadcrumb);
-          if (screen != null) {
-            scope.setScreen(screen);
-          }
-        });
+  /**
+   * Adds a batch of breadcrumbs in one bridge call. The current screen is set once, from the last
+   * navigation breadcrumb of the batch.
+   */
+  public void addBreadcrumbs(final ReadableArray breadcrumbs) {
+    if (breadcrumbs == null || breadcrumbs.size() == 0) {
+      return;
+    }
+
+    writeScope(
+        RNSentryScopeOperations.ADD_BREADCRUMBS,
+        null,
+        scope -> RNSentryScopeOperations.addBreadcrumbs(scope, breadcrumbs, logger));
   }
 
   public void clearBreadcrumbs() {
-    Sentry.configureScope(
-        scope -> {
-          scope.clearBreadcrumbs();
-        });
+    writeScope(
+        RNSentryScopeOperations.CLEAR_BREADCRUMBS,
+        null,
+        RNSentryScopeOperations::clearBreadcrumbs);
   }
 
   public void popTimeToDisplayFor(String screenId, Promise promise) {
@@ -685,7 +757,9 @@ public class RNSentryModuleImpl {
       return;
     }
 
-    Sentry.configureScope(
+    writeScope(
+        RNSentryScopeOperations.SET_EXTRA,
+        key,
         scope -> {
           scope.setExtra(key, extra);
         });
@@ -697,50 +771,102 @@ public class RNSentryModuleImpl {
           SentryLevel.ERROR, "RNSentry.setContext called with null key, can't change context.");
       return;
     }
+    if (scopeFingerprints.isContextUnchanged(key, context)) {
+      return;
+    }
 
-    Sentry.configureScope(
-        scope -> {
-          if (context == null) {
-            scope.removeContexts(key);
-            return;
-          }
-
-          final Map<String, Object> contextHashMap = context.toHashMap();
-          scope.setContexts(key, contextHashMap);
-        });
+    writeScope(
+        RNSentryScopeOperations.SET_CONTEXT,
+        key,
+        scope -> RNSentryScopeOperations.setContext(scope, key, context, logger));
   }
 
   public void setTag(String key, String value) {
-    Sentry.configureScope(
+    if (scopeFingerprints.isTagUnchanged(key, value)) {
+      return;
+    }
+
+    writeScope(
+        RNSentryScopeOperations.SET_TAG,
+        key,
         scope -> {
           scope.setTag(key, value);
         });
   }
 
   public void setAttribute(String key, String value) {
-    Sentry.configureScope(
+    writeScope(
+        RNSentryScopeOperations.SET_ATTRIBUTE,
+        key,
         scope -> {
           scope.setAttribute(key, value);
         });
   }
 
   public void setAttributes(ReadableMap attributes) {
-    Sentry.configureScope(
-        scope -> {
-          final Map<String, Object> attributesHashMap = attributes.toHashMap();
-          scope.setAttributes(SentryAttributes.fromMap(attributesHashMap));
-        });
+    writeScope(
+        RNSentryScopeOperations.SET_ATTRIBUTES,
+        null,
+        scope -> RNSentryScopeOperations.setAttributes(scope, attributes));
   }
 
   public void removeAttribute(String key) {
-    Sentry.configureScope(
+    writeScope(
+        RNSentryScopeOperations.REMOVE_ATTRIBUTE,
+        key,
         scope -> {
           scope.removeAttribute(key);
         });
   }
 
+  /**
+   * Applies an ordered batch of scope operations in a single {@code configureScope} pass, see
+   * {@link RNSentryScopeOperations} for the supported operations.
+   */
+  public void applyScopeOperations(ReadableArray operations) {
+    if (operations == null || operations.size() == 0) {
+      return;
+    }
+
+    scopeFingerprints.forget(operations);
+    RNSentryScopeWriter.getInstance().writeAll(operations);
+  }
+
+  /**
+   * Number of {@code setUser}, {@code setTag} and {@code setContext} calls that were skipped
+   * because they didn't change the scope, see {@code androidSkipUnchangedScopeWrites}.
+   */
+  public long getElidedScopeWriteCount() {
+    return scopeFingerprints.getElidedCount();
+  }
+
+  /**
+   * Scope writes are queued by {@link RNSentryScopeWriter} when it is enabled and otherwise applied
+   * in place.
+   */
+  private static void writeScope(
+      final @NotNull String op, final @Nullable String key, final @NotNull ScopeCallback callback) {
+    RNSentryScopeWriter.getInstance().write(RNSentryScopeOperations.fieldOf(op, key), callback);
+  }
+
+  /**
+   * Applies queued scope writes and syncs them to the NDK, before the native scope is read or the
+   * SDK is closed.
+   */
+  private static void flushScope() {
+    try {
+      RNSentryScopeWriter.getInstance().flush();
+      RNSentryNdkScopeSync.getInstance().flush();
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.ERROR, "Failed to flush scope writes.", e);
+    }
+  }
+
   public void closeNativeSdk(Promise promise) {
+    flushScope();
+    RNSentryEnvelopeQueue.getInstance().close();
     Sentry.close();
+    scopeFingerprints.configure(false);
 
     disableNativeFramesTracking();
 
@@ -1062,6 +1188,7 @@ public class RNSentryModuleImpl {
   }
 
   public void fetchNativeLogAttributes(Promise promise) {
+    flushScope();
     final @NotNull SentryOptions options = ScopesAdapter.getInstance().getOptions();
     final @Nullable Context context = this.getReactApplicationContext().getApplicationContext();
     final @Nullable IScope currentScope = InternalSentrySdk.getCurrentScope();
@@ -1069,6 +1196,7 @@ public class RNSentryModuleImpl {
   }
 
   public void fetchNativeDeviceContexts(Promise promise) {
+    flushScope();
     final @NotNull SentryOptions options = ScopesAdapter.getInstance().getOptions();
     final @Nullable Context context = this.getReactApplicationContext().getApplicationContext();
     final @Nullable IScope currentScope = InternalSentrySdk.getCurrentScope();
@@ -1169,7 +1297,39 @@ public class RNSentryModuleImpl {
     return packageInfo.packageName;
   }
 
-  public void getDataFromUri(String uri, Promise promise) {
+  public void getDataFromUri(String uri, ReadableMap options, Promise promise) {
+    final @Nullable byte[] bytes = readUri(uri, options, promise);
+    if (bytes != null) {
+      promise.resolve(Base64.encodeToString(bytes, NO_WRAP));
+    }
+  }
+
+  public void storeDataFromUri(String uri, ReadableMap options, Promise promise) {
+    final @NotNull RNSentryAttachmentStore store = RNSentryAttachmentStore.getInstance();
+    if (!store.isEnabled()) {
+      promise.resolve(null);
+      return;
+    }
+    final @Nullable byte[] bytes = readUri(uri, options, promise);
+    if (bytes == null) {
+      return;
+    }
+    final @Nullable String lastSegment = Uri.parse(uri).getLastPathSegment();
+    final @Nullable RNSentryAttachmentStore.Entry entry =
+        store.put(
+            bytes,
+            "application/octet-stream",
+            lastSegment != null ? lastSegment : "attachment",
+            logger);
+    promise.resolve(entry != null ? toHandle(entry) : null);
+  }
+
+  /**
+   * Reads the requested range of an allowed uri.
+   *
+   * @return the bytes, or {@code null} after rejecting the promise
+   */
+  private @Nullable byte[] readUri(String uri, ReadableMap options, Promise promise) {
     final Uri parsedUri;
     try {
       parsedUri = Uri.parse(uri);
@@ -1177,44 +1337,31 @@ public class RNSentryModuleImpl {
       String msg = "Invalid uri: " + uri;
       logger.log(SentryLevel.ERROR, msg);
       promise.reject(new Exception(msg));
-      return;
+      return null;
     }
 
     if (!isAllowedUri(parsedUri, getReactApplicationContext())) {
       String msg = "Unsupported uri scheme or location: " + uri;
       logger.log(SentryLevel.ERROR, msg);
       promise.reject(new Exception(msg));
-      return;
+      return null;
     }
 
-    try {
-      try (InputStream is =
-          getReactApplicationContext().getContentResolver().openInputStream(parsedUri)) {
-        if (is == null) {
-          String msg = "File not found for uri: " + uri;
-          logger.log(SentryLevel.ERROR, msg);
-          promise.reject(new Exception(msg));
-          return;
-        }
+    final long offset =
+        options != null && options.hasKey("offset") ? (long) options.getDouble("offset") : 0;
+    final long length =
+        options != null && options.hasKey("length")
+            ? (long) options.getDouble("length")
+            : RNSentryUriReader.TO_END;
 
-        ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
-        int bufferSize = 1024;
-        byte[] buffer = new byte[bufferSize];
-        int len;
-        while ((len = is.read(buffer)) != -1) {
-          byteBuffer.write(buffer, 0, len);
-        }
-        byte[] byteArray = byteBuffer.toByteArray();
-        WritableArray jsArray = Arguments.createArray();
-        for (byte b : byteArray) {
-          jsArray.pushInt(b & 0xFF);
-        }
-        promise.resolve(jsArray);
-      }
-    } catch (IOException e) {
+    try {
+      return RNSentryUriReader.read(
+          getReactApplicationContext().getContentResolver(), parsedUri, offset, length);
+    } catch (IOException | IllegalArgumentException e) {
       String msg = "Error reading uri: " + uri + ": " + e.getMessage();
       logger.log(SentryLevel.ERROR, msg);
       promise.reject(new Exception(msg));
+      return null;
     }
   }
 
@@ -1290,12 +1437,13 @@ public class RNSentryModuleImpl {
   }
 
   public void encodeToBase64(ReadableArray array, Promise promise) {
-    byte[] bytes = new byte[array.size()];
-    for (int i = 0; i < array.size(); i++) {
+    final int size = array.size();
+    final byte[] bytes = new byte[size];
+    for (int i = 0; i < size; i++) {
       bytes[i] = (byte) array.getInt(i);
     }
-    String base64String = android.util.Base64.encodeToString(bytes, android.util.Base64.DEFAULT);
-    promise.resolve(base64String);
+    // Not wrapped, like on iOS. New Architecture apps encode ArrayBuffers without the bridge.
+    promise.resolve(RNSentryBase64.encode(bytes, false));
   }
 
   public void crashedLastRun(Promise promise) {
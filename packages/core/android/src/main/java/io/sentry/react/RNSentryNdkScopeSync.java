@@ -0,0 +1,277 @@
+package io.sentry.react;
+
+import io.sentry.Breadcrumb;
+import io.sentry.ILogger;
+import io.sentry.IScope;
+import io.sentry.IScopeObserver;
+import io.sentry.IScopes;
+import io.sentry.Integration;
+import io.sentry.NoOpLogger;
+import io.sentry.ScopeObserverAdapter;
+import io.sentry.ScopesAdapter;
+import io.sentry.SentryLevel;
+import io.sentry.SentryOptions;
+import io.sentry.SpanContext;
+import io.sentry.protocol.User;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Batches the scope changes synced to the NDK, so that bursts of changes, for example tags and
+ * breadcrumbs synced from JS, don't cross JNI one by one.
+ *
+ * <p>Changes are handed to the NDK scope observer of the SDK at most once per {@code
+ * intervalMillis}. Until then, changes of the same user, tag, extra or trace collapse into the last
+ * one, and queued breadcrumbs beyond {@code maxBreadcrumbs}, which the NDK would drop anyway, are
+ * never sent. The queue is flushed in order before the native scope is read, before a JS crash is
+ * captured and on uncaught exceptions, see {@link DeltaSyncIntegration}. A native crash that
+ * happens while changes are queued doesn't see them.
+ *
+ * <p>Only the changes the NDK scope observer handles are batched, other scope changes are not
+ * synced to the NDK.
+ */
+final class RNSentryNdkScopeSync {
+
+  static final long DEFAULT_INTERVAL_MILLIS = 250;
+
+  static final String NDK_SCOPE_OBSERVER = "io.sentry.android.ndk.NdkScopeObserver";
+
+  /** Runs the flush {@code intervalMillis} after the first change that is queued. */
+  interface FlushScheduler {
+    void schedule(@NotNull Runnable flush, long delayMillis);
+  }
+
+  private static final @NotNull RNSentryNdkScopeSync instance =
+      new RNSentryNdkScopeSync(new ExecutorFlushScheduler());
+
+  private final @NotNull FlushScheduler scheduler;
+
+  /** Serializes flushes, so that changes reach the NDK in the order they were queued. */
+  private final @NotNull Object flushLock = new Object();
+
+  /** Pending changes in the order of their last change, keyed by field or by a unique key. */
+  private final @NotNull LinkedHashMap<Object, Runnable> pending = new LinkedHashMap<>();
+
+  private final @NotNull ArrayDeque<Object> pendingBreadcrumbs = new ArrayDeque<>();
+
+  private long intervalMillis = DEFAULT_INTERVAL_MILLIS;
+  private int maxBreadcrumbs = Integer.MAX_VALUE;
+  private boolean scheduled;
+  private @NotNull ILogger logger = NoOpLogger.getInstance();
+
+  static @NotNull RNSentryNdkScopeSync getInstance() {
+    return instance;
+  }
+
+  @TestOnly
+  RNSentryNdkScopeSync(final @NotNull FlushScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  /** Drops queued changes, they were meant for the NDK scope observer of a previous SDK. */
+  synchronized void configure(
+      final long intervalMillis, final int maxBreadcrumbs, final @NotNull ILogger logger) {
+    pending.clear();
+    pendingBreadcrumbs.clear();
+    this.intervalMillis = Math.max(0, intervalMillis);
+    this.maxBreadcrumbs = Math.max(0, maxBreadcrumbs);
+    this.logger = logger;
+  }
+
+  synchronized int getPendingCount() {
+    return pending.size();
+  }
+
+  /** Returns an observer that queues the changes synced by {@code delegate}. */
+  @NotNull
+  IScopeObserver wrap(final @NotNull IScopeObserver delegate) {
+    return new DeltaObserver(this, delegate);
+  }
+
+  /** Hands all queued changes to the NDK scope observer before returning. */
+  void flush() {
+    synchronized (flushLock) {
+      final @NotNull List<Runnable> batch;
+      final @NotNull ILogger logger;
+      synchronized (this) {
+        scheduled = false;
+        if (pending.isEmpty()) {
+          return;
+        }
+        batch = new ArrayList<>(pending.values());
+        pending.clear();
+        pendingBreadcrumbs.clear();
+        logger = this.logger;
+      }
+
+      for (final @NotNull Runnable change : batch) {
+        try {
+          change.run();
+        } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+          logger.log(SentryLevel.ERROR, "Failed to sync a scope change to the NDK.", e);
+        }
+      }
+    }
+  }
+
+  private void enqueue(final @NotNull Object key, final @NotNull Runnable change) {
+    enqueue(key, change, false);
+  }
+
+  private void enqueueBreadcrumb(final @NotNull Runnable change) {
+    enqueue(new Object(), change, true);
+  }
+
+  private void enqueue(
+      final @NotNull Object key, final @NotNull Runnable change, final boolean breadcrumb) {
+    final boolean schedule;
+    final long delayMillis;
+    synchronized (this) {
+      if (breadcrumb) {
+        if (maxBreadcrumbs == 0) {
+          return;
+        }
+        pendingBreadcrumbs.addLast(key);
+        if (pendingBreadcrumbs.size() > maxBreadcrumbs) {
+          pending.remove(pendingBreadcrumbs.removeFirst());
+        }
+      }
+      // Re-inserting moves the field to the end, after the changes it overrides.
+      pending.remove(key);
+      pending.put(key, change);
+      schedule = !scheduled;
+      scheduled = true;
+      delayMillis = intervalMillis;
+    }
+    if (schedule) {
+      scheduler.schedule(this::flush, delayMillis);
+    }
+  }
+
+  /** Queues the changes the NDK scope observer syncs, keyed by the field they write. */
+  private static final class DeltaObserver extends ScopeObserverAdapter {
+    private final @NotNull RNSentryNdkScopeSync sync;
+    private final @NotNull IScopeObserver delegate;
+
+    DeltaObserver(
+        final @NotNull RNSentryNdkScopeSync sync, final @NotNull IScopeObserver delegate) {
+      this.sync = sync;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void setUser(final @Nullable User user) {
+      sync.enqueue("user", () -> delegate.setUser(user));
+    }
+
+    @Override
+    public void addBreadcrumb(final @NotNull Breadcrumb crumb) {
+      sync.enqueueBreadcrumb(() -> delegate.addBreadcrumb(crumb));
+    }
+
+    @Override
+    public void setTag(final @NotNull String key, final @NotNull String value) {
+      sync.enqueue("tag:" + key, () -> delegate.setTag(key, value));
+    }
+
+    @Override
+    public void removeTag(final @NotNull String key) {
+      sync.enqueue("tag:" + key, () -> delegate.removeTag(key));
+    }
+
+    @Override
+    public void setExtra(final @NotNull String key, final @NotNull String value) {
+      sync.enqueue("extra:" + key, () -> delegate.setExtra(key, value));
+    }
+
+    @Override
+    public void removeExtra(final @NotNull String key) {
+      sync.enqueue("extra:" + key, () -> delegate.removeExtra(key));
+    }
+
+    @Override
+    public void setTrace(final @Nullable SpanContext spanContext, final @NotNull IScope scope) {
+      sync.enqueue("trace", () -> delegate.setTrace(spanContext, scope));
+    }
+  }
+
+  private static final class ExecutorFlushScheduler implements FlushScheduler {
+    @Override
+    public void schedule(final @NotNull Runnable flush, final long delayMillis) {
+      try {
+        ScopesAdapter.getInstance().getOptions().getExecutorService().schedule(flush, delayMillis);
+      } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+        flush.run();
+      }
+    }
+  }
+
+  /**
+   * Replaces the NDK scope observer of the SDK with one that batches its changes, and flushes them
+   * on uncaught exceptions, after the queued writes of the {@link RNSentryScopeWriter}. Registered
+   * after the SDK integrations, the NDK scope observer is already installed.
+   */
+  static final class DeltaSyncIntegration
+      implements Integration, Thread.UncaughtExceptionHandler, Closeable {
+    private final @NotNull RNSentryNdkScopeSync sync;
+    private final @NotNull RNSentryScopeWriter writer;
+    private @Nullable Thread.UncaughtExceptionHandler previous;
+    private boolean registered;
+
+    DeltaSyncIntegration(
+        final @NotNull RNSentryNdkScopeSync sync, final @NotNull RNSentryScopeWriter writer) {
+      this.sync = sync;
+      this.writer = writer;
+    }
+
+    @Override
+    public void register(final @NotNull IScopes scopes, final @NotNull SentryOptions options) {
+      final @NotNull List<IScopeObserver> observers = options.getScopeObservers();
+      boolean wrapped = false;
+      for (int i = 0; i < observers.size(); i++) {
+        final @NotNull IScopeObserver observer = observers.get(i);
+        if (NDK_SCOPE_OBSERVER.equals(observer.getClass().getName())) {
+          observers.set(i, sync.wrap(observer));
+          wrapped = true;
+        }
+      }
+      if (!wrapped) {
+        options
+            .getLogger()
+            .log(SentryLevel.DEBUG, "NDK scope sync is not enabled, not batching scope changes.");
+        return;
+      }
+
+      previous = Thread.getDefaultUncaughtExceptionHandler();
+      Thread.setDefaultUncaughtExceptionHandler(this);
+      registered = true;
+    }
+
+    @Override
+    public void uncaughtException(final @NotNull Thread thread, final @NotNull Throwable e) {
+      try {
+        writer.flush();
+        sync.flush();
+      } catch (Throwable ignored) { // NOPMD - We don't want to crash in any case
+        // The crash is still captured with the scope as it is.
+      }
+      if (previous != null) {
+        previous.uncaughtException(thread, e);
+      }
+    }
+
+    @Override
+    public void close() {
+      if (registered && Thread.getDefaultUncaughtExceptionHandler() == this) {
+        Thread.setDefaultUncaughtExceptionHandler(previous);
+      }
+      registered = false;
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package io.sentry.react;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.ReadableType;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Remembers the last value JS wrote to a scope field, so that writes that don't change anything
+ * can be skipped before they reach the scope, its observers and the NDK.
+ *
+ * <p>Tags are compared by value. Users and contexts are compared by a 64-bit structural hash of the
+ * map received from the bridge, which doesn't depend on the order of the keys. Fields are
+ * identified like by {@link RNSentryScopeOperations#fieldOf}.
+ *
+ * <p>Only writes from JS are tracked. Native code that changes the same fields makes the
+ * remembered values stale, so this is opt-in, see {@code androidSkipUnchangedScopeWrites}.
+ */
+final class RNSentryScopeFingerprints {
+
+  private static final long NULL_HASH = 0x9e3779b97f4a7c15L;
+  private static final long TRUE_HASH = 0x2545f4914f6cdd1dL;
+  private static final long FALSE_HASH = 0x6a09e667f3bcc909L;
+
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final @NotNull AtomicBoolean enabled = new AtomicBoolean(false);
+  private final @NotNull ConcurrentHashMap<String, Object> fingerprints =
+      new ConcurrentHashMap<>();
+  private final @NotNull AtomicLong elided = new AtomicLong();
+
+  /** Forgets all fields, the scope may have been changed or recreated natively. */
+  void configure(final boolean enabled) {
+    this.enabled.set(enabled);
+    fingerprints.clear();
+  }
+
+  boolean isEnabled() {
+    return enabled.get();
+  }
+
+  /** Number of writes skipped because they didn't change the field. */
+  long getElidedCount() {
+    return elided.get();
+  }
+
+  boolean isUserUnchanged(
+      final @Nullable ReadableMap userKeys, final @Nullable ReadableMap userDataKeys) {
+    if (!enabled.get()) {
+      return false;
+    }
+    final long hash = mix(hash(userKeys) * 31 + hash(userDataKeys));
+    return isUnchanged(
+        RNSentryScopeOperations.fieldOf(RNSentryScopeOperations.SET_USER, null), hash);
+  }
+
+  boolean isTagUnchanged(final @Nullable String key, final @Nullable String value) {
+    if (!enabled.get()) {
+      return false;
+    }
+    return isUnchanged(
+        RNSentryScopeOperations.fieldOf(RNSentryScopeOperations.SET_TAG, key),
+        value != null ? value : NULL_HASH);
+  }
+
+  boolean isContextUnchanged(final @Nullable String key, final @Nullable ReadableMap context) {
+    if (!enabled.get()) {
+      return false;
+    }
+    return isUnchanged(
+        RNSentryScopeOperations.fieldOf(RNSentryScopeOperations.SET_CONTEXT, key), hash(context));
+  }
+
+  /**
+   * Forgets the fields written by the operations, which are applied without being compared, see
+   * {@link RNSentryScopeOperations#applyAll}.
+   */
+  void forget(final @NotNull ReadableArray operations) {
+    if (!enabled.get()) {
+      return;
+    }
+    for (int i = 0; i < operations.size(); i++) {
+      if (operations.getType(i) == ReadableType.Map) {
+        final @Nullable String field = RNSentryScopeOperations.fieldOf(operations.getMap(i));
+        if (field != null) {
+          fingerprints.remove(field);
+        }
+      }
+    }
+  }
+
+  private boolean isUnchanged(final @Nullable String field, final @NotNull Object fingerprint) {
+    if (field == null) {
+      return false;
+    }
+    final @Nullable Object previous = fingerprints.put(field, fingerprint);
+    if (Objects.equals(previous, fingerprint)) {
+      elided.incrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  static long hash(final @Nullable ReadableMap map) {
+    if (map == null) {
+      return NULL_HASH;
+    }
+    long hash = 0;
+    final ReadableMapKeySetIterator iterator = map.keySetIterator();
+    while (iterator.hasNextKey()) {
+      final String key = iterator.nextKey();
+      // Summed, so that the hash doesn't depend on the order of the keys.
+      hash += mix(hash(key) * 31 + valueHash(map, key));
+    }
+    return mix(hash ^ ReadableType.Map.ordinal());
+  }
+
+  private static long hash(final @Nullable ReadableArray array) {
+    if (array == null) {
+      return NULL_HASH;
+    }
+    long hash = ReadableType.Array.ordinal();
+    for (int i = 0; i < array.size(); i++) {
+      hash = hash * 31 + valueHash(array, i);
+    }
+    return mix(hash);
+  }
+
+  private static long valueHash(final @NotNull ReadableMap map, final @NotNull String key) {
+    switch (map.getType(key)) {
+      case Boolean:
+        return map.getBoolean(key) ? TRUE_HASH : FALSE_HASH;
+      case Number:
+        return mix(Double.doubleToLongBits(map.getDouble(key)));
+      case String:
+        return hash(map.getString(key));
+      case Map:
+        return hash(map.getMap(key));
+      case Array:
+        return hash(map.getArray(key));
+      default:
+        return NULL_HASH;
+    }
+  }
+
+  private static long valueHash(final @NotNull ReadableArray array, final int index) {
+    switch (array.getType(index)) {
+      case Boolean:
+        return array.getBoolean(index) ? TRUE_HASH : FALSE_HASH;
+      case Number:
+        return mix(Double.doubleToLongBits(array.getDouble(index)));
+      case String:
+        return hash(array.getString(index));
+      case Map:
+        return hash(array.getMap(index));
+      case Array:
+        return hash(array.getArray(index));
+      default:
+        return NULL_HASH;
+    }
+  }
+
+  /** FNV-1a over the UTF-16 chars of the string. */
+  private static long hash(final @Nullable String value) {
+    if (value == null) {
+      return NULL_HASH;
+    }
+    long hash = FNV_OFFSET;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= FNV_PRIME;
+    }
+    return mix(hash ^ ReadableType.String.ordinal());
+  }
+
+  /** The finalizer of SplitMix64, spreads the bits of the value over the whole hash. */
+  private static long mix(final long value) {
+    long mixed = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+    mixed = (mixed ^ (mixed >>> 27)) * 0x94d049bb133111ebL;
+    return mixed ^ (mixed >>> 31);
+  }
+}
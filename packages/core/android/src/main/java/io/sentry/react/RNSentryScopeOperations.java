@@ -0,0 +1,312 @@
+package io.sentry.react;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.ReadableType;
+import io.sentry.ILogger;
+import io.sentry.IScope;
+import io.sentry.SentryAttributes;
+import io.sentry.SentryLevel;
+import io.sentry.protocol.User;
+import io.sentry.util.MapObjectReader;
+import java.util.HashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Applies scope mutations coming from JS to a scope handed out by {@code Sentry.configureScope}.
+ *
+ * <p>Besides the single mutations used by the module setters, JS can send an ordered batch of
+ * operations, see {@link #applyAll}, so that a burst of scope changes crosses the bridge and
+ * configures the scope once. An operation is a map with the operation name under {@link #OP} and
+ * the same arguments as the matching module method:
+ *
+ * <ul>
+ *   <li>{@code setUser}: {@link #USER}, {@link #OTHER_USER_KEYS}
+ *   <li>{@code setTag}, {@code setExtra}, {@code setAttribute}: {@link #KEY}, {@link #VALUE}
+ *   <li>{@code setContext}: {@link #KEY}, {@link #VALUE} map or null to remove the context
+ *   <li>{@code setAttributes}, {@code addBreadcrumb}: {@link #VALUE} map
+ *   <li>{@code addBreadcrumbs}: {@link #VALUE} array of breadcrumb maps
+ *   <li>{@code removeAttribute}: {@link #KEY}
+ *   <li>{@code clearBreadcrumbs}
+ * </ul>
+ */
+final class RNSentryScopeOperations {
+
+  static final String OP = "op";
+  static final String KEY = "key";
+  static final String VALUE = "value";
+  static final String USER = "user";
+  static final String OTHER_USER_KEYS = "otherUserKeys";
+
+  static final String SET_USER = "setUser";
+  static final String SET_TAG = "setTag";
+  static final String SET_EXTRA = "setExtra";
+  static final String SET_CONTEXT = "setContext";
+  static final String SET_ATTRIBUTE = "setAttribute";
+  static final String SET_ATTRIBUTES = "setAttributes";
+  static final String REMOVE_ATTRIBUTE = "removeAttribute";
+  static final String ADD_BREADCRUMB = "addBreadcrumb";
+  static final String ADD_BREADCRUMBS = "addBreadcrumbs";
+  static final String CLEAR_BREADCRUMBS = "clearBreadcrumbs";
+
+  private RNSentryScopeOperations() {
+    throw new AssertionError("Utility class should not be instantiated");
+  }
+
+  /**
+   * Applies the operations in order. An operation that is malformed or fails is logged and
+   * skipped, the rest of the batch is still applied.
+   */
+  static void applyAll(
+      final @NotNull IScope scope,
+      final @NotNull ReadableArray operations,
+      final @NotNull ILogger logger) {
+    for (int i = 0; i < operations.size(); i++) {
+      if (operations.getType(i) != ReadableType.Map) {
+        logger.log(
+            SentryLevel.WARNING, "Scope operation at index %d is not a map, skipping it.", i);
+        continue;
+      }
+      try {
+        apply(scope, operations.getMap(i), logger);
+      } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+        logger.log(SentryLevel.ERROR, "Failed to apply scope operation at index " + i + ".", e);
+      }
+    }
+  }
+
+  static void apply(
+      final @NotNull IScope scope,
+      final @NotNull ReadableMap operation,
+      final @NotNull ILogger logger) {
+    final @Nullable String op = getString(operation, OP);
+    if (op == null) {
+      logger.log(SentryLevel.WARNING, "Scope operation without a name, skipping it.");
+      return;
+    }
+
+    switch (op) {
+      case SET_USER:
+        setUser(scope, getMap(operation, USER), getMap(operation, OTHER_USER_KEYS), logger);
+        break;
+      case SET_TAG:
+        scope.setTag(getString(operation, KEY), getString(operation, VALUE));
+        break;
+      case SET_EXTRA:
+        setExtra(scope, getString(operation, KEY), getString(operation, VALUE), logger);
+        break;
+      case SET_CONTEXT:
+        setContext(scope, getString(operation, KEY), getMap(operation, VALUE), logger);
+        break;
+      case SET_ATTRIBUTE:
+        scope.setAttribute(getString(operation, KEY), getString(operation, VALUE));
+        break;
+      case SET_ATTRIBUTES:
+        final @Nullable ReadableMap attributes = getMap(operation, VALUE);
+        if (attributes != null) {
+          setAttributes(scope, attributes);
+        }
+        break;
+      case REMOVE_ATTRIBUTE:
+        scope.removeAttribute(getString(operation, KEY));
+        break;
+      case ADD_BREADCRUMB:
+        final @Nullable ReadableMap breadcrumb = getMap(operation, VALUE);
+        if (breadcrumb != null) {
+          addBreadcrumb(scope, breadcrumb, logger);
+        }
+        break;
+      case ADD_BREADCRUMBS:
+        if (operation.hasKey(VALUE) && operation.getType(VALUE) == ReadableType.Array) {
+          addBreadcrumbs(scope, operation.getArray(VALUE), logger);
+        }
+        break;
+      case CLEAR_BREADCRUMBS:
+        clearBreadcrumbs(scope);
+        break;
+      default:
+        logger.log(SentryLevel.WARNING, "Unknown scope operation %s, skipping it.", op);
+        break;
+    }
+  }
+
+  /**
+   * Identifies the scope field written by the operation. A later write of the same field overrides
+   * an earlier one, see {@link RNSentryScopeWriter}.
+   *
+   * @return the field, or {@code null} if the operation doesn't write a single field
+   */
+  static @Nullable String fieldOf(final @NotNull ReadableMap operation) {
+    final @Nullable String op = getString(operation, OP);
+    return op != null ? fieldOf(op, getString(operation, KEY)) : null;
+  }
+
+  static @Nullable String fieldOf(final @NotNull String op, final @Nullable String key) {
+    if (SET_USER.equals(op)) {
+      return "user";
+    }
+    if (key == null) {
+      return null;
+    }
+    switch (op) {
+      case SET_TAG:
+        return "tag:" + key;
+      case SET_EXTRA:
+        return "extra:" + key;
+      case SET_CONTEXT:
+        return "context:" + key;
+      case SET_ATTRIBUTE:
+      case REMOVE_ATTRIBUTE:
+        return "attribute:" + key;
+      default:
+        return null;
+    }
+  }
+
+  static void setUser(
+      final @NotNull IScope scope,
+      final @Nullable ReadableMap userKeys,
+      final @Nullable ReadableMap userDataKeys,
+      final @NotNull ILogger logger) {
+    if (userKeys == null && userDataKeys == null) {
+      scope.setUser(null);
+      return;
+    }
+
+    try {
+      final MapObjectReader reader =
+          new MapObjectReader(
+              userKeys != null ? RNSentryBreadcrumb.toDeepHashMap(userKeys) : new HashMap<>());
+      final User userInstance = new User.Deserializer().deserialize(reader, logger);
+
+      if (userDataKeys != null) {
+        Map<String, String> userDataMap = new HashMap<>();
+        ReadableMapKeySetIterator it = userDataKeys.keySetIterator();
+        while (it.hasNextKey()) {
+          String key = it.nextKey();
+          String value = userDataKeys.getString(key);
+
+          // other is ConcurrentHashMap and can't have null values
+          if (value != null) {
+            userDataMap.put(key, value);
+          }
+        }
+
+        userInstance.setData(userDataMap);
+      }
+
+      scope.setUser(userInstance);
+    } catch (Exception e) {
+      logger.log(SentryLevel.ERROR, "Failed to deserialize user from map.", e);
+      scope.setUser(null);
+    }
+  }
+
+  static void addBreadcrumb(
+      final @NotNull IScope scope,
+      final @NotNull ReadableMap breadcrumb,
+      final @NotNull ILogger logger) {
+    addToScopeOrRing(scope, breadcrumb, logger);
+
+    final @Nullable String screen = RNSentryBreadcrumb.getCurrentScreenFrom(breadcrumb);
+    if (screen != null) {
+      scope.setScreen(screen);
+    }
+  }
+
+  /**
+   * Adds the breadcrumbs in order and sets the current screen once, from the last navigation
+   * breadcrumb of the batch.
+   */
+  static void addBreadcrumbs(
+      final @NotNull IScope scope,
+      final @NotNull ReadableArray breadcrumbs,
+      final @NotNull ILogger logger) {
+    @Nullable String screen = null;
+    for (int i = 0; i < breadcrumbs.size(); i++) {
+      if (breadcrumbs.getType(i) != ReadableType.Map) {
+        continue;
+      }
+      final @NotNull ReadableMap breadcrumb = breadcrumbs.getMap(i);
+      addToScopeOrRing(scope, breadcrumb, logger);
+
+      final @Nullable String breadcrumbScreen = RNSentryBreadcrumb.getCurrentScreenFrom(breadcrumb);
+      if (breadcrumbScreen != null) {
+        screen = breadcrumbScreen;
+      }
+    }
+    if (screen != null) {
+      scope.setScreen(screen);
+    }
+  }
+
+  /** Clears the breadcrumbs of the scope and of the {@link RNSentryBreadcrumbRing}. */
+  static void clearBreadcrumbs(final @NotNull IScope scope) {
+    scope.clearBreadcrumbs();
+    RNSentryBreadcrumbRing.getInstance().clear();
+  }
+
+  /**
+   * React Native breadcrumbs go to the {@link RNSentryBreadcrumbRing} when it is enabled, other
+   * breadcrumbs are added to the scope.
+   */
+  private static void addToScopeOrRing(
+      final @NotNull IScope scope,
+      final @NotNull ReadableMap breadcrumb,
+      final @NotNull ILogger logger) {
+    if (!RNSentryBreadcrumbRing.getInstance().add(breadcrumb, logger)) {
+      scope.addBreadcrumb(RNSentryBreadcrumb.fromMap(breadcrumb, logger));
+    }
+  }
+
+  static void setExtra(
+      final @NotNull IScope scope,
+      final @Nullable String key,
+      final @Nullable String extra,
+      final @NotNull ILogger logger) {
+    if (key == null || extra == null) {
+      logger.log(
+          SentryLevel.ERROR,
+          "RNSentry.setExtra called with null key or value, can't change extra.");
+      return;
+    }
+    scope.setExtra(key, extra);
+  }
+
+  static void setContext(
+      final @NotNull IScope scope,
+      final @Nullable String key,
+      final @Nullable ReadableMap context,
+      final @NotNull ILogger logger) {
+    if (key == null) {
+      logger.log(
+          SentryLevel.ERROR, "RNSentry.setContext called with null key, can't change context.");
+      return;
+    }
+
+    if (context == null) {
+      scope.removeContexts(key);
+      return;
+    }
+
+    scope.setContexts(key, RNSentryLazyContext.of(context));
+  }
+
+  static void setAttributes(final @NotNull IScope scope, final @NotNull ReadableMap attributes) {
+    final Map<String, Object> attributesHashMap = attributes.toHashMap();
+    scope.setAttributes(SentryAttributes.fromMap(attributesHashMap));
+  }
+
+  private static @Nullable String getString(
+      final @NotNull ReadableMap map, final @NotNull String key) {
+    return map.hasKey(key) && !map.isNull(key) ? map.getString(key) : null;
+  }
+
+  private static @Nullable ReadableMap getMap(
+      final @NotNull ReadableMap map, final @NotNull String key) {
+    return map.hasKey(key) && !map.isNull(key) ? map.getMap(key) : null;
+  }
+}
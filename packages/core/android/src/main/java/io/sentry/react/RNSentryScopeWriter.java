@@ -0,0 +1,263 @@
+package io.sentry.react;
+
+import android.view.Choreographer;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.UiThreadUtil;
+import io.sentry.ILogger;
+import io.sentry.IScopes;
+import io.sentry.ISentryExecutorService;
+import io.sentry.Integration;
+import io.sentry.NoOpLogger;
+import io.sentry.ScopeCallback;
+import io.sentry.ScopesAdapter;
+import io.sentry.Sentry;
+import io.sentry.SentryLevel;
+import io.sentry.SentryOptions;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Queues scope writes coming from JS and applies them to the native scope in batches.
+ *
+ * <p>Writes to the same field collapse, so that only the last {@code setTag} of a key survives
+ * until the next flush. Breadcrumbs and other writes without a field are applied in order. Queued
+ * breadcrumbs are not dropped by a later {@code clearBreadcrumbs}, because adding a navigation
+ * breadcrumb also sets the current screen. The queue is flushed in the background after the next
+ * frame, after {@link #FALLBACK_FLUSH_DELAY_MILLIS} when no frame comes, for example while the main
+ * thread is blocked, and in place once {@code maxPending} writes are waiting.
+ *
+ * <p>Callers that read the native scope, or capture something that is enriched with it, have to
+ * {@link #flush} first. Uncaught exceptions flush before the crash is captured, see {@link
+ * FlushOnCrashIntegration}.
+ *
+ * <p>When disabled, every write is applied in place.
+ */
+final class RNSentryScopeWriter {
+
+  static final int DEFAULT_MAX_PENDING = 64;
+
+  /** Flush delay used when no frame is rendered after a write. */
+  static final long FALLBACK_FLUSH_DELAY_MILLIS = 100;
+
+  /** Applies a callback to the native scope. */
+  interface ScopeConfigurator {
+    void configureScope(@NotNull ScopeCallback callback);
+  }
+
+  /** Runs the flush some time after the first write that is queued. */
+  interface FlushScheduler {
+    void schedule(@NotNull Runnable flush);
+  }
+
+  private static final @NotNull RNSentryScopeWriter instance =
+      new RNSentryScopeWriter(Sentry::configureScope, new FrameFlushScheduler());
+
+  private final @NotNull ScopeConfigurator configurator;
+  private final @NotNull FlushScheduler scheduler;
+
+  /** Serializes flushes, so that batches are applied in the order they were queued. */
+  private final @NotNull Object flushLock = new Object();
+
+  /** Pending writes in the order of their last write, keyed by field or by a unique key. */
+  private final @NotNull LinkedHashMap<Object, ScopeCallback> pending = new LinkedHashMap<>();
+
+  private boolean enabled;
+  private int maxPending = DEFAULT_MAX_PENDING;
+  private boolean scheduled;
+  private @NotNull ILogger logger = NoOpLogger.getInstance();
+
+  static @NotNull RNSentryScopeWriter getInstance() {
+    return instance;
+  }
+
+  @TestOnly
+  RNSentryScopeWriter(
+      final @NotNull ScopeConfigurator configurator, final @NotNull FlushScheduler scheduler) {
+    this.configurator = configurator;
+    this.scheduler = scheduler;
+  }
+
+  /** Writes queued while enabled are flushed when the writer is disabled. */
+  void configure(final boolean enabled, final int maxPending, final @NotNull ILogger logger) {
+    synchronized (this) {
+      this.enabled = enabled;
+      this.maxPending = Math.max(1, maxPending);
+      this.logger = logger;
+    }
+    if (!enabled) {
+      flush();
+    }
+  }
+
+  synchronized boolean isEnabled() {
+    return enabled;
+  }
+
+  synchronized int getPendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * Queues a write of a scope field.
+   *
+   * @param field identifies the written field, see {@link RNSentryScopeOperations#fieldOf}; {@code
+   *     null} for writes that must never collapse
+   */
+  void write(final @Nullable String field, final @NotNull ScopeCallback callback) {
+    enqueue(field != null ? field : new Object(), callback);
+  }
+
+  /**
+   * Queues each operation of the batch, see {@link RNSentryScopeOperations#applyAll}. When the
+   * writer is disabled the batch is applied in a single pass.
+   */
+  void writeAll(final @NotNull ReadableArray operations) {
+    final @NotNull ILogger logger;
+    final boolean queue;
+    synchronized (this) {
+      logger = this.logger;
+      queue = enabled;
+    }
+    if (!queue) {
+      configurator.configureScope(
+          scope -> RNSentryScopeOperations.applyAll(scope, operations, logger));
+      return;
+    }
+
+    for (int i = 0; i < operations.size(); i++) {
+      if (operations.getType(i) != ReadableType.Map) {
+        logger.log(
+            SentryLevel.WARNING, "Scope operation at index %d is not a map, skipping it.", i);
+        continue;
+      }
+      final @NotNull ReadableMap operation = operations.getMap(i);
+      final @NotNull ScopeCallback callback =
+          scope -> RNSentryScopeOperations.apply(scope, operation, logger);
+      write(RNSentryScopeOperations.fieldOf(operation), callback);
+    }
+  }
+
+  /** Applies all queued writes to the native scope before returning. */
+  void flush() {
+    synchronized (flushLock) {
+      final @NotNull List<ScopeCallback> batch;
+      final @NotNull ILogger logger;
+      synchronized (this) {
+        scheduled = false;
+        if (pending.isEmpty()) {
+          return;
+        }
+        batch = new ArrayList<>(pending.values());
+        pending.clear();
+        logger = this.logger;
+      }
+
+      configurator.configureScope(
+          scope -> {
+            for (final @NotNull ScopeCallback write : batch) {
+              try {
+                write.run(scope);
+              } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+                logger.log(SentryLevel.ERROR, "Failed to apply a scope write.", e);
+              }
+            }
+          });
+    }
+  }
+
+  private void enqueue(final @NotNull Object key, final @NotNull ScopeCallback write) {
+    final boolean queued;
+    final boolean schedule;
+    final boolean full;
+    synchronized (this) {
+      queued = enabled;
+      if (queued) {
+        // Re-inserting moves the field to the end, after the writes it overrides.
+        pending.remove(key);
+        pending.put(key, write);
+      }
+      schedule = queued && !scheduled;
+      scheduled = scheduled || queued;
+      full = queued && pending.size() >= maxPending;
+    }
+
+    if (!queued) {
+      configurator.configureScope(write);
+    } else if (full) {
+      flush();
+    } else if (schedule) {
+      scheduler.schedule(this::flush);
+    }
+  }
+
+  /**
+   * Flushes after the next frame, or after {@link #FALLBACK_FLUSH_DELAY_MILLIS} when no frame is
+   * rendered. The flush itself runs on the SDK executor.
+   */
+  private static final class FrameFlushScheduler implements FlushScheduler {
+    @Override
+    public void schedule(final @NotNull Runnable flush) {
+      final @NotNull ISentryExecutorService executor =
+          ScopesAdapter.getInstance().getOptions().getExecutorService();
+      try {
+        executor.schedule(flush, FALLBACK_FLUSH_DELAY_MILLIS);
+        UiThreadUtil.runOnUiThread(
+            () ->
+                Choreographer.getInstance()
+                    .postFrameCallback(frameTimeNanos -> executor.submit(flush)));
+      } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+        flush.run();
+      }
+    }
+  }
+
+  /**
+   * Flushes queued scope writes before an uncaught exception is captured, so that the crash event
+   * sees the latest scope. Registered after the SDK integrations, the handler installed here runs
+   * before the one of the SDK.
+   */
+  static final class FlushOnCrashIntegration
+      implements Integration, Thread.UncaughtExceptionHandler, Closeable {
+    private final @NotNull RNSentryScopeWriter writer;
+    private @Nullable Thread.UncaughtExceptionHandler previous;
+    private boolean registered;
+
+    FlushOnCrashIntegration(final @NotNull RNSentryScopeWriter writer) {
+      this.writer = writer;
+    }
+
+    @Override
+    public void register(final @NotNull IScopes scopes, final @NotNull SentryOptions options) {
+      previous = Thread.getDefaultUncaughtExceptionHandler();
+      Thread.setDefaultUncaughtExceptionHandler(this);
+      registered = true;
+    }
+
+    @Override
+    public void uncaughtException(final @NotNull Thread thread, final @NotNull Throwable e) {
+      try {
+        writer.flush();
+      } catch (Throwable ignored) { // NOPMD - We don't want to crash in any case
+        // The crash is still captured with the scope as it is.
+      }
+      if (previous != null) {
+        previous.uncaughtException(thread, e);
+      }
+    }
+
+    @Override
+    public void close() {
+      if (registered && Thread.getDefaultUncaughtExceptionHandler() == this) {
+        Thread.setDefaultUncaughtExceptionHandler(previous);
+      }
+      registered = false;
+    }
+  }
+}
@@ -0,0 +1,400 @@
+package io.sentry.react;
+
+import static io.sentry.android.core.internal.util.ScreenshotUtils.takeScreenshot;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.view.PixelCopy;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.view.Window;
+import androidx.annotation.RequiresApi;
+import com.facebook.react.bridge.UiThreadUtil;
+import io.sentry.ILogger;
+import io.sentry.SentryLevel;
+import io.sentry.android.core.BuildInfoProvider;
+import java.io.ByteArrayOutputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+import org.jetbrains.annotations.VisibleForTesting;
+
+/**
+ * Captures screenshots for JS without blocking the calling thread and without encoding on the UI
+ * thread.
+ *
+ * <p>On Android O and newer the window is copied with {@link PixelCopy}; the UI thread only
+ * allocates the target bitmap and issues the request. Downscaling and encoding run on a background
+ * thread and the callback is invoked once the image is encoded. Older versions fall back to the
+ * Android SDK, which draws and encodes the view on the UI thread.
+ *
+ * <p>A render loop that throws reports dozens of errors per second, all showing the same frame.
+ * The window's draws are counted, and a screenshot is reused for a short time as long as nothing
+ * was drawn since it was taken. Requests arriving while a capture is in flight wait for it instead
+ * of starting their own.
+ */
+final class RNSentryScreenshotCapture {
+
+  enum Format {
+    PNG("png", "image/png"),
+    JPEG("jpg", "image/jpeg"),
+    WEBP("webp", "image/webp");
+
+    private final @NotNull String extension;
+    private final @NotNull String contentType;
+
+    Format(final @NotNull String extension, final @NotNull String contentType) {
+      this.extension = extension;
+      this.contentType = contentType;
+    }
+
+    @NotNull
+    String getFilename() {
+      return "screenshot." + extension;
+    }
+
+    @NotNull
+    String getContentType() {
+      return contentType;
+    }
+
+    @SuppressWarnings("deprecation")
+    @NotNull
+    Bitmap.CompressFormat getCompressFormat() {
+      switch (this) {
+        case JPEG:
+          return Bitmap.CompressFormat.JPEG;
+        case WEBP:
+          return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+              ? Bitmap.CompressFormat.WEBP_LOSSY
+              : Bitmap.CompressFormat.WEBP;
+        default:
+          return Bitmap.CompressFormat.PNG;
+      }
+    }
+
+    /** Parses the JS option value, {@code null} if unknown. */
+    static @Nullable Format fromString(final @NotNull String value) {
+      switch (value.toLowerCase(Locale.ROOT)) {
+        case "png":
+          return PNG;
+        case "jpeg":
+        case "jpg":
+          return JPEG;
+        case "webp":
+          return WEBP;
+        default:
+          return null;
+      }
+    }
+  }
+
+  interface Callback {
+    /**
+     * Invoked exactly once, on a background thread.
+     *
+     * @param image the encoded screenshot, or {@code null} if the screen could not be captured
+     */
+    void onCaptured(@Nullable byte[] image, @NotNull Format format);
+  }
+
+  static final int DEFAULT_QUALITY = 80;
+  static final long DEFAULT_REUSE_WINDOW_MILLIS = 1000;
+
+  private static final String THREAD_NAME = "SentryReactNativeScreenshot";
+  private static final long TIMEOUT_MILLIS = 2000;
+
+  private static final @NotNull RNSentryScreenshotCapture instance =
+      new RNSentryScreenshotCapture();
+
+  private int maxDimension = 0;
+  private @NotNull Format format = Format.PNG;
+  private int quality = DEFAULT_QUALITY;
+  private long reuseWindowMillis = DEFAULT_REUSE_WINDOW_MILLIS;
+  private @Nullable Handler handler;
+
+  /** Bumped on every draw of the observed window, a screenshot is valid until it changes. */
+  private final @NotNull AtomicLong drawCount = new AtomicLong();
+
+  private final @NotNull ViewTreeObserver.OnDrawListener drawListener =
+      drawCount::incrementAndGet;
+
+  private @NotNull WeakReference<View> observedView = new WeakReference<>(null);
+  private @Nullable Screenshot last;
+  private @Nullable PendingCapture pending;
+
+  static @NotNull RNSentryScreenshotCapture getInstance() {
+    return instance;
+  }
+
+  @TestOnly
+  RNSentryScreenshotCapture() {}
+
+  /**
+   * @param maxDimension the longest side of the encoded screenshot in pixels, {@code 0} keeps the
+   *     screen resolution
+   * @param format the image format
+   * @param quality the compression quality for lossy formats, 0-100
+   * @param reuseWindowMillis how long an unchanged screen's screenshot is reused, {@code 0} to
+   *     capture every time
+   */
+  synchronized void configure(
+      final int maxDimension,
+      final @NotNull Format format,
+      final int quality,
+      final long reuseWindowMillis) {
+    this.maxDimension = Math.max(0, maxDimension);
+    this.format = format;
+    this.quality = Math.max(0, Math.min(100, quality));
+    this.reuseWindowMillis = Math.max(0, reuseWindowMillis);
+    this.last = null;
+  }
+
+  /** Captures the activity's window and invokes the callback once the screenshot is encoded. */
+  void capture(
+      final @NotNull Activity activity,
+      final @NotNull ILogger logger,
+      final @NotNull BuildInfoProvider buildInfo,
+      final @NotNull Callback callback) {
+    final int maxDimension;
+    final Format format;
+    final int quality;
+    final PendingCapture capture;
+    final Handler background = getHandler();
+    synchronized (this) {
+      final @Nullable Screenshot reusable = getReusable(activity);
+      if (reusable != null) {
+        background.post(() -> callback.onCaptured(reusable.image, reusable.format));
+        return;
+      }
+      if (pending != null && pending.activity.get() == activity) {
+        pending.callbacks.add(callback);
+        return;
+      }
+      capture = new PendingCapture(activity, callback);
+      pending = capture;
+      maxDimension = this.maxDimension;
+      format = this.format;
+      quality = this.quality;
+    }
+
+    // The callbacks must fire once, whichever of the capture or the timeout comes first.
+    final AtomicBoolean done = new AtomicBoolean(false);
+    final Callback once =
+        (image, imageFormat) -> {
+          if (done.compareAndSet(false, true)) {
+            complete(capture, image, imageFormat);
+          }
+        };
+    background.postDelayed(
+        () -> {
+          if (!done.get()) {
+            logger.log(SentryLevel.WARNING, "Timed out capturing the screenshot.");
+          }
+          once.onCaptured(null, format);
+        },
+        TIMEOUT_MILLIS);
+
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+      UiThreadUtil.runOnUiThread(
+          () -> {
+            capture.drawCount = observeDraws(activity);
+            pixelCopy(activity, background, maxDimension, format, quality, logger, once);
+          });
+    } else {
+      UiThreadUtil.runOnUiThread(
+          () -> {
+            capture.drawCount = observeDraws(activity);
+            final @Nullable byte[] png = takeScreenshot(activity, logger, buildInfo);
+            background.post(() -> once.onCaptured(png, Format.PNG));
+          });
+    }
+  }
+
+  /** Returns the last screenshot if it was taken recently and nothing was drawn since. */
+  @VisibleForTesting
+  synchronized @Nullable Screenshot getReusable(final @NotNull Activity activity) {
+    if (last == null
+        || last.activity.get() != activity
+        || last.drawCount != drawCount.get()
+        || SystemClock.elapsedRealtime() - last.timestamp > reuseWindowMillis) {
+      return null;
+    }
+    return last;
+  }
+
+  @VisibleForTesting
+  void complete(
+      final @NotNull PendingCapture capture,
+      final @Nullable byte[] image,
+      final @NotNull Format format) {
+    synchronized (this) {
+      if (pending == capture) {
+        pending = null;
+      }
+      if (image != null && image.length > 0 && reuseWindowMillis > 0 && capture.drawCount >= 0) {
+        last =
+            new Screenshot(
+                capture.activity, image, format, capture.drawCount, SystemClock.elapsedRealtime());
+      }
+    }
+    // No more callbacks are added once the capture is no longer pending.
+    for (final @NotNull Callback callback : capture.callbacks) {
+      callback.onCaptured(image, format);
+    }
+  }
+
+  /**
+   * Starts counting draws of the activity's window. Must be called on the UI thread.
+   *
+   * @return the current draw count, or {@code -1} if the window has no content
+   */
+  @VisibleForTesting
+  long observeDraws(final @NotNull Activity activity) {
+    final @Nullable Window window = activity.getWindow();
+    final @Nullable View view = window != null ? window.peekDecorView() : null;
+    if (view == null) {
+      return -1;
+    }
+    final @Nullable View observed = observedView.get();
+    if (observed != view) {
+      if (observed != null && observed.getViewTreeObserver().isAlive()) {
+        observed.getViewTreeObserver().removeOnDrawListener(drawListener);
+      }
+      view.getViewTreeObserver().addOnDrawListener(drawListener);
+      observedView = new WeakReference<>(view);
+      // Draws of the new window weren't counted so far.
+      drawCount.incrementAndGet();
+    }
+    return drawCount.get();
+  }
+
+  @RequiresApi(api = Build.VERSION_CODES.O)
+  private static void pixelCopy(
+      final @NotNull Activity activity,
+      final @NotNull Handler background,
+      final int maxDimension,
+      final @NotNull Format format,
+      final int quality,
+      final @NotNull ILogger logger,
+      final @NotNull Callback callback) {
+    final @Nullable Window window = activity.getWindow();
+    final @Nullable View view = window != null ? window.peekDecorView() : null;
+    if (view == null || view.getWidth() <= 0 || view.getHeight() <= 0) {
+      logger.log(SentryLevel.DEBUG, "The window has no content, can't capture screenshot.");
+      background.post(() -> callback.onCaptured(null, format));
+      return;
+    }
+
+    try {
+      final Bitmap bitmap =
+          Bitmap.createBitmap(view.getWidth(), view.getHeight(), Bitmap.Config.ARGB_8888);
+      PixelCopy.request(
+          window,
+          bitmap,
+          result -> {
+            if (result != PixelCopy.SUCCESS) {
+              logger.log(SentryLevel.DEBUG, "PixelCopy failed with result " + result);
+              bitmap.recycle();
+              callback.onCaptured(null, format);
+              return;
+            }
+            callback.onCaptured(encode(bitmap, maxDimension, format, quality, logger), format);
+          },
+          background);
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.ERROR, "Failed to capture screenshot.", e);
+      background.post(() -> callback.onCaptured(null, format));
+    }
+  }
+
+  /** Downscales and encodes the bitmap, recycling it. */
+  @VisibleForTesting
+  static @Nullable byte[] encode(
+      final @NotNull Bitmap bitmap,
+      final int maxDimension,
+      final @NotNull Format format,
+      final int quality,
+      final @NotNull ILogger logger) {
+    Bitmap scaled = bitmap;
+    try {
+      final int longest = Math.max(bitmap.getWidth(), bitmap.getHeight());
+      if (maxDimension > 0 && longest > maxDimension) {
+        final float scale = (float) maxDimension / longest;
+        scaled =
+            Bitmap.createScaledBitmap(
+                bitmap,
+                Math.max(1, Math.round(bitmap.getWidth() * scale)),
+                Math.max(1, Math.round(bitmap.getHeight() * scale)),
+                true);
+      }
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      if (!scaled.compress(format.getCompressFormat(), quality, out)) {
+        logger.log(SentryLevel.DEBUG, "Could not encode the screenshot.");
+        return null;
+      }
+      return out.toByteArray();
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      logger.log(SentryLevel.ERROR, "Failed to encode screenshot.", e);
+      return null;
+    } finally {
+      if (scaled != bitmap) {
+        scaled.recycle();
+      }
+      bitmap.recycle();
+    }
+  }
+
+  private synchronized @NotNull Handler getHandler() {
+    if (handler == null) {
+      final HandlerThread thread = new HandlerThread(THREAD_NAME);
+      thread.start();
+      handler = new Handler(thread.getLooper());
+    }
+    return handler;
+  }
+
+  @VisibleForTesting
+  static final class PendingCapture {
+    final @NotNull WeakReference<Activity> activity;
+    final @NotNull List<Callback> callbacks = new ArrayList<>();
+    volatile long drawCount = -1;
+
+    PendingCapture(final @NotNull Activity activity, final @NotNull Callback callback) {
+      this.activity = new WeakReference<>(activity);
+      this.callbacks.add(callback);
+    }
+  }
+
+  @VisibleForTesting
+  static final class Screenshot {
+    final @NotNull WeakReference<Activity> activity;
+    final @NotNull byte[] image;
+    final @NotNull Format format;
+    final long drawCount;
+    final long timestamp;
+
+    Screenshot(
+        final @NotNull WeakReference<Activity> activity,
+        final @NotNull byte[] image,
+        final @NotNull Format format,
+        final long drawCount,
+        final long timestamp) {
+      this.activity = activity;
+      this.image = image;
+      this.format = format;
+      this.drawCount = drawCount;
+      this.timestamp = timestamp;
+    }
+  }
+}
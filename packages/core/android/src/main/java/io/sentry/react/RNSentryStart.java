@@ -2,8 +2,10 @@ package io.sentry.react;
 
 import android.app.Activity;
 import android.content.Context;
+import android.os.PowerManager;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.facebook.react.bridge.ReadableType;
 import com.facebook.react.common.JavascriptException;
 import io.sentry.ILogger;
@@ -24,10 +26,13 @@ import io.sentry.android.core.SentryAndroidOptions;
 import io.sentry.protocol.SdkVersion;
 import io.sentry.react.replay.RNSentryReplayMask;
 import io.sentry.react.replay.RNSentryReplayUnmask;
+import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -74,6 +79,8 @@ final class RNSentryStart {
     String jsSdkVersion = rnOptions.hasKey("sdkVersion") ? rnOptions.getString("sdkVersion") : null;
     Sentry.OptionsConfiguration<SentryAndroidOptions> defaults =
         options -> updateWithReactDefaults(options, currentActivity, jsSdkVersion);
+    RNSentryEnvelopeDropRules.getInstance()
+        .setPowerManager((PowerManager) context.getSystemService(Context.POWER_SERVICE));
     Sentry.OptionsConfiguration<SentryAndroidOptions> rnConfigurationOptions =
         options -> getSentryAndroidOptions(options, rnOptions, logger);
     RNSentryCompositeOptionsConfiguration compositeConfiguration =
@@ -230,6 +237,20 @@ final class RNSentryStart {
     // Configure Android UI Profiling
     configureAndroidProfiling(options, rnOptions, logger);
 
+    configureEnvelopeQueue(rnOptions, logger);
+    configureEnvelopeDeduplication(options, rnOptions);
+    configureEnvelopeSpool(options, rnOptions, logger);
+    configureEnvelopeRateLimits(rnOptions);
+    configureEnvelopeDropRules(rnOptions);
+    configureScreenshotEncoding(rnOptions, logger);
+    configureViewHierarchy(rnOptions);
+    configureAttachmentStore(options, rnOptions);
+    configureScopeWriter(options, rnOptions, logger);
+    configureBreadcrumbRing(options, rnOptions);
+    configureNdkScopeSync(options, rnOptions, logger);
+    RNSentryLazyContext.setEnabled(
+        rnOptions.hasKey("androidLazyContexts") && rnOptions.getBoolean("androidLazyContexts"));
+
     // Exclude Dev Server and Sentry Dsn request from Breadcrumbs
     String dsn = rnOptions.hasKey("dsn") ? getURLFromDSN(rnOptions.getString("dsn")) : null;
     String devServerUrl =
@@ -328,6 +349,306 @@ final class RNSentryStart {
     }
   }
 
+  private static void configureEnvelopeQueue(
+      @NotNull ReadableMap rnOptions, @NotNull ILogger logger) {
+    int maxItems = RNSentryEnvelopeQueue.DEFAULT_MAX_ITEMS;
+    long maxBytes = RNSentryEnvelopeQueue.DEFAULT_MAX_BYTES;
+    RNSentryEnvelopeQueue.OverflowPolicy overflowPolicy =
+        RNSentryEnvelopeQueue.DEFAULT_OVERFLOW_POLICY;
+
+    @Nullable
+    final ReadableMap queueOptions =
+        rnOptions.hasKey("androidEnvelopeQueue") ? rnOptions.getMap("androidEnvelopeQueue") : null;
+    if (queueOptions != null) {
+      if (queueOptions.hasKey("maxItems")) {
+        maxItems = queueOptions.getInt("maxItems");
+      }
+      if (queueOptions.hasKey("maxBytes")) {
+        maxBytes = (long) queueOptions.getDouble("maxBytes");
+      }
+      if (queueOptions.hasKey("overflowPolicy")) {
+        @Nullable
+        final RNSentryEnvelopeQueue.OverflowPolicy policy =
+            RNSentryEnvelopeQueue.OverflowPolicy.fromString(
+                queueOptions.getString("overflowPolicy"));
+        if (policy != null) {
+          overflowPolicy = policy;
+        } else {
+          logger.log(
+              SentryLevel.WARNING,
+              "Unknown androidEnvelopeQueue.overflowPolicy, using " + overflowPolicy);
+        }
+      }
+    }
+    RNSentryEnvelopeQueue.getInstance().configure(maxItems, maxBytes, overflowPolicy);
+  }
+
+  private static void configureEnvelopeDeduplication(
+      @NotNull SentryAndroidOptions options, @NotNull ReadableMap rnOptions) {
+    boolean enabled = false;
+    int maxEntries = RNSentryEnvelopeDeduplicator.DEFAULT_MAX_ENTRIES;
+    boolean persist = false;
+
+    @Nullable
+    final ReadableMap dedupOptions =
+        rnOptions.hasKey("androidEnvelopeDeduplication")
+            ? rnOptions.getMap("androidEnvelopeDeduplication")
+            : null;
+    if (dedupOptions != null) {
+      enabled = !dedupOptions.hasKey("enabled") || dedupOptions.getBoolean("enabled");
+      if (dedupOptions.hasKey("maxEntries")) {
+        maxEntries = dedupOptions.getInt("maxEntries");
+      }
+      if (dedupOptions.hasKey("persist")) {
+        persist = dedupOptions.getBoolean("persist");
+      }
+    }
+
+    @Nullable final String cacheDirPath = options.getCacheDirPath();
+    @Nullable File file = null;
+    if (persist && cacheDirPath != null) {
+      file = new File(new File(cacheDirPath, "react"), RNSentryEnvelopeDeduplicator.FILE_NAME);
+    }
+    RNSentryEnvelopeDeduplicator.getInstance().configure(enabled, maxEntries, file);
+  }
+
+  private static void configureEnvelopeSpool(
+      @NotNull SentryAndroidOptions options,
+      @NotNull ReadableMap rnOptions,
+      @NotNull ILogger logger) {
+    @Nullable final String cacheDirPath = options.getCacheDirPath();
+    if (cacheDirPath == null) {
+      return;
+    }
+    final RNSentryEnvelopeSpool spool = RNSentryEnvelopeSpool.getInstance();
+    spool.configure(new File(new File(cacheDirPath, "react"), RNSentryEnvelopeSpool.DIR_NAME));
+
+    // Envelopes spooled by the previous run are always delivered, even if spooling was turned off.
+    final int moved = spool.moveToOutbox(options.getOutboxPath(), logger);
+    if (moved > 0) {
+      logger.log(
+          SentryLevel.INFO, String.format("Moved %d spooled envelopes to the outbox", moved));
+    }
+
+    if (!rnOptions.hasKey("androidSpoolHardCrashEnvelopes")
+        || !rnOptions.getBoolean("androidSpoolHardCrashEnvelopes")) {
+      spool.configure(null);
+    }
+  }
+
+  private static void configureEnvelopeRateLimits(@NotNull ReadableMap rnOptions) {
+    final Map<String, Integer> itemsPerMinute = new HashMap<>();
+    long bytesPerMinute = 0;
+
+    @Nullable
+    final ReadableMap limits =
+        rnOptions.hasKey("androidEnvelopeRateLimits")
+            ? rnOptions.getMap("androidEnvelopeRateLimits")
+            : null;
+    if (limits != null) {
+      final ReadableMapKeySetIterator iterator = limits.keySetIterator();
+      while (iterator.hasNextKey()) {
+        final String key = iterator.nextKey();
+        if (limits.getType(key) != ReadableType.Number) {
+          continue;
+        }
+        if ("bytesPerMinute".equals(key)) {
+          bytesPerMinute = (long) limits.getDouble(key);
+        } else {
+          itemsPerMinute.put(key, limits.getInt(key));
+        }
+      }
+    }
+    RNSentryEnvelopeRateLimiter.getInstance().configure(itemsPerMinute, bytesPerMinute);
+  }
+
+  private static void configureEnvelopeDropRules(@NotNull ReadableMap rnOptions) {
+    long maxAttachmentBytes = 0;
+    boolean dropProfilesInPowerSaveMode = false;
+
+    @Nullable
+    final ReadableMap rules =
+        rnOptions.hasKey("androidEnvelopeDropRules")
+            ? rnOptions.getMap("androidEnvelopeDropRules")
+            : null;
+    if (rules != null) {
+      if (rules.hasKey("maxAttachmentBytes")) {
+        maxAttachmentBytes = (long) rules.getDouble("maxAttachmentBytes");
+      }
+      if (rules.hasKey("dropProfilesInPowerSaveMode")) {
+        dropProfilesInPowerSaveMode = rules.getBoolean("dropProfilesInPowerSaveMode");
+      }
+    }
+    RNSentryEnvelopeDropRules.getInstance()
+        .configure(maxAttachmentBytes, dropProfilesInPowerSaveMode);
+  }
+
+  private static void configureScreenshotEncoding(
+      @NotNull ReadableMap rnOptions, @NotNull ILogger logger) {
+    int maxDimension = 0;
+    RNSentryScreenshotCapture.Format format = RNSentryScreenshotCapture.Format.PNG;
+    int quality = RNSentryScreenshotCapture.DEFAULT_QUALITY;
+    long reuseWindowMillis = RNSentryScreenshotCapture.DEFAULT_REUSE_WINDOW_MILLIS;
+
+    @Nullable
+    final ReadableMap screenshotOptions =
+        rnOptions.hasKey("screenshot") ? rnOptions.getMap("screenshot") : null;
+    if (screenshotOptions != null) {
+      if (screenshotOptions.hasKey("maxDimension")) {
+        maxDimension = screenshotOptions.getInt("maxDimension");
+      }
+      if (screenshotOptions.hasKey("format")
+          && screenshotOptions.getType("format") == ReadableType.String) {
+        @Nullable final String value = screenshotOptions.getString("format");
+        @Nullable
+        final RNSentryScreenshotCapture.Format parsed =
+            value != null ? RNSentryScreenshotCapture.Format.fromString(value) : null;
+        if (parsed != null) {
+          format = parsed;
+        } else {
+          logger.log(SentryLevel.WARNING, "Ignoring unknown screenshot format " + value);
+        }
+      }
+      if (screenshotOptions.hasKey("quality")) {
+        quality = screenshotOptions.getInt("quality");
+      }
+      if (screenshotOptions.hasKey("reuseWindowMillis")) {
+        reuseWindowMillis = (long) screenshotOptions.getDouble("reuseWindowMillis");
+      }
+    }
+    RNSentryScreenshotCapture.getInstance()
+        .configure(maxDimension, format, quality, reuseWindowMillis);
+  }
+
+  private static void configureViewHierarchy(@NotNull ReadableMap rnOptions) {
+    int maxDepth = RNSentryViewHierarchyWriter.DEFAULT_MAX_DEPTH;
+    int maxNodes = RNSentryViewHierarchyWriter.DEFAULT_MAX_NODES;
+    int maxBytes = RNSentryViewHierarchyWriter.DEFAULT_MAX_BYTES;
+    boolean incremental = false;
+
+    @Nullable
+    final ReadableMap viewHierarchyOptions =
+        rnOptions.hasKey("viewHierarchy") ? rnOptions.getMap("viewHierarchy") : null;
+    if (viewHierarchyOptions != null) {
+      if (viewHierarchyOptions.hasKey("maxDepth")) {
+        maxDepth = viewHierarchyOptions.getInt("maxDepth");
+      }
+      if (viewHierarchyOptions.hasKey("maxNodes")) {
+        maxNodes = viewHierarchyOptions.getInt("maxNodes");
+      }
+      if (viewHierarchyOptions.hasKey("maxBytes")) {
+        maxBytes = viewHierarchyOptions.getInt("maxBytes");
+      }
+      if (viewHierarchyOptions.hasKey("incremental")) {
+        incremental = viewHierarchyOptions.getBoolean("incremental");
+      }
+    }
+    RNSentryViewHierarchyWriter.getInstance()
+        .configure(maxDepth, maxNodes, maxBytes, incremental);
+  }
+
+  private static void configureAttachmentStore(
+      @NotNull SentryAndroidOptions options, @NotNull ReadableMap rnOptions) {
+    boolean enabled = false;
+    long maxBytes = RNSentryAttachmentStore.DEFAULT_MAX_BYTES;
+    long ttlMillis = RNSentryAttachmentStore.DEFAULT_TTL_MILLIS;
+
+    @Nullable
+    final ReadableMap storeOptions =
+        rnOptions.hasKey("androidAttachmentStore")
+            ? rnOptions.getMap("androidAttachmentStore")
+            : null;
+    if (storeOptions != null) {
+      enabled = !storeOptions.hasKey("enabled") || storeOptions.getBoolean("enabled");
+      if (storeOptions.hasKey("maxBytes")) {
+        maxBytes = (long) storeOptions.getDouble("maxBytes");
+      }
+      if (storeOptions.hasKey("ttlMillis")) {
+        ttlMillis = (long) storeOptions.getDouble("ttlMillis");
+      }
+    }
+
+    final RNSentryAttachmentStore store = RNSentryAttachmentStore.getInstance();
+    @Nullable final String cacheDirPath = options.getCacheDirPath();
+    if (cacheDirPath == null) {
+      store.configure(null, maxBytes, ttlMillis);
+      return;
+    }
+    // Configuring the directory deletes attachments left over by the previous run.
+    store.configure(
+        new File(new File(cacheDirPath, "react"), RNSentryAttachmentStore.DIR_NAME),
+        maxBytes,
+        ttlMillis);
+    if (!enabled) {
+      store.configure(null, maxBytes, ttlMillis);
+    }
+  }
+
+  private static void configureScopeWriter(
+      @NotNull SentryAndroidOptions options,
+      @NotNull ReadableMap rnOptions,
+      @NotNull ILogger logger) {
+    boolean enabled = false;
+    int maxPending = RNSentryScopeWriter.DEFAULT_MAX_PENDING;
+
+    @Nullable
+    final ReadableMap writerOptions =
+        rnOptions.hasKey("androidScopeWriter") ? rnOptions.getMap("androidScopeWriter") : null;
+    if (writerOptions != null) {
+      enabled = !writerOptions.hasKey("enabled") || writerOptions.getBoolean("enabled");
+      if (writerOptions.hasKey("maxPendingWrites")) {
+        maxPending = writerOptions.getInt("maxPendingWrites");
+      }
+    }
+
+    final RNSentryScopeWriter writer = RNSentryScopeWriter.getInstance();
+    writer.configure(enabled, maxPending, logger);
+    if (enabled) {
+      options.addIntegration(new RNSentryScopeWriter.FlushOnCrashIntegration(writer));
+    }
+  }
+
+  private static void configureNdkScopeSync(
+      @NotNull SentryAndroidOptions options,
+      @NotNull ReadableMap rnOptions,
+      @NotNull ILogger logger) {
+    boolean enabled = false;
+    long intervalMillis = RNSentryNdkScopeSync.DEFAULT_INTERVAL_MILLIS;
+
+    @Nullable
+    final ReadableMap syncOptions =
+        rnOptions.hasKey("androidNdkScopeSyncBatching")
+            ? rnOptions.getMap("androidNdkScopeSyncBatching")
+            : null;
+    if (syncOptions != null) {
+      enabled = !syncOptions.hasKey("enabled") || syncOptions.getBoolean("enabled");
+      if (syncOptions.hasKey("intervalMillis")) {
+        intervalMillis = (long) syncOptions.getDouble("intervalMillis");
+      }
+    }
+
+    final RNSentryNdkScopeSync sync = RNSentryNdkScopeSync.getInstance();
+    sync.configure(intervalMillis, options.getMaxBreadcrumbs(), logger);
+    if (enabled) {
+      options.addIntegration(
+          new RNSentryNdkScopeSync.DeltaSyncIntegration(sync, RNSentryScopeWriter.getInstance()));
+    }
+  }
+
+  private static void configureBreadcrumbRing(
+      @NotNull SentryAndroidOptions options, @NotNull ReadableMap rnOptions) {
+    final boolean enabled =
+        rnOptions.hasKey("androidCompactBreadcrumbs")
+            && rnOptions.getBoolean("androidCompactBreadcrumbs");
+
+    final RNSentryBreadcrumbRing ring = RNSentryBreadcrumbRing.getInstance();
+    ring.configure(enabled ? options.getMaxBreadcrumbs() : 0);
+    if (enabled) {
+      options.addEventProcessor(
+          new RNSentryBreadcrumbRing.BreadcrumbsEventProcessor(ring, options));
+    }
+  }
+
   /**
    * This function updates the options with RNSentry defaults. These default can be overwritten by
    * users during manual native initialization.
@@ -0,0 +1,53 @@
+package io.sentry.react;
+
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Shares one instance of strings that repeat across breadcrumbs, like categories, types and
+ * origins, so that breadcrumbs kept by the scope don't each hold a copy decoded from the bridge.
+ *
+ * <p>The pool is bounded; once it is full, strings that are not pooled yet are returned as is.
+ */
+final class RNSentryStringPool {
+
+  static final int DEFAULT_MAX_SIZE = 512;
+
+  /** Longer strings are unlikely to repeat and are not pooled. */
+  static final int MAX_LENGTH = 128;
+
+  private static final @NotNull RNSentryStringPool instance =
+      new RNSentryStringPool(DEFAULT_MAX_SIZE);
+
+  private final @NotNull ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+  private final int maxSize;
+
+  static @NotNull RNSentryStringPool getInstance() {
+    return instance;
+  }
+
+  RNSentryStringPool(final int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  @Nullable
+  String intern(final @Nullable String value) {
+    if (value == null || value.length() > MAX_LENGTH) {
+      return value;
+    }
+    final @Nullable String pooled = pool.get(value);
+    if (pooled != null) {
+      return pooled;
+    }
+    if (pool.size() >= maxSize) {
+      return value;
+    }
+    final @Nullable String previous = pool.putIfAbsent(value, value);
+    return previous != null ? previous : value;
+  }
+
+  int size() {
+    return pool.size();
+  }
+}
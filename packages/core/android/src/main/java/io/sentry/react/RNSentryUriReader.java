@@ -0,0 +1,168 @@
+package io.sentry.react;
+
+import android.content.ContentResolver;
+import android.content.res.AssetFileDescriptor;
+import android.net.Uri;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads the whole or a range of a {@code file:} or {@code content:} URI into a single exactly sized
+ * array.
+ *
+ * <p>Files are read through their {@link FileChannel} at the requested position. Content URIs are
+ * streamed in large blocks; when the provider reports the length, the result is allocated once,
+ * otherwise it grows like a {@code ByteArrayOutputStream} but is only copied when trimmed.
+ *
+ * <p>Callers must check the URI against the allowlist first.
+ */
+final class RNSentryUriReader {
+
+  /** Reads until the end of the URI. */
+  static final long TO_END = -1;
+
+  private static final int BLOCK_SIZE = 64 * 1024;
+
+  private RNSentryUriReader() {
+    throw new AssertionError("Utility class should not be instantiated");
+  }
+
+  /**
+   * @param offset the first byte to read
+   * @param length how many bytes to read at most, or {@link #TO_END}
+   */
+  static @NotNull byte[] read(
+      final @NotNull ContentResolver resolver,
+      final @NotNull Uri uri,
+      final long offset,
+      final long length)
+      throws IOException {
+    final @Nullable String scheme = uri.getScheme();
+    if (scheme != null && "file".equals(scheme.toLowerCase(Locale.ROOT))) {
+      final @Nullable String path = uri.getPath();
+      if (path == null) {
+        throw new FileNotFoundException("File not found for uri: " + uri);
+      }
+      return readFile(new File(path), offset, length);
+    }
+    return readContent(resolver, uri, offset, length);
+  }
+
+  static @NotNull byte[] readFile(final @NotNull File file, final long offset, final long length)
+      throws IOException {
+    try (FileInputStream stream = new FileInputStream(file)) {
+      final FileChannel channel = stream.getChannel();
+      final int size = rangeSize(channel.size(), offset, length);
+      final byte[] bytes = new byte[size];
+      final ByteBuffer target = ByteBuffer.wrap(bytes);
+      long position = offset;
+      while (target.hasRemaining()) {
+        final int read = channel.read(target, position);
+        if (read < 0) {
+          throw new EOFException("File shrank while reading: " + file);
+        }
+        position += read;
+      }
+      return bytes;
+    }
+  }
+
+  private static @NotNull byte[] readContent(
+      final @NotNull ContentResolver resolver,
+      final @NotNull Uri uri,
+      final long offset,
+      final long length)
+      throws IOException {
+    try (AssetFileDescriptor descriptor = resolver.openAssetFileDescriptor(uri, "r")) {
+      if (descriptor == null) {
+        throw new FileNotFoundException("File not found for uri: " + uri);
+      }
+      final long declared = descriptor.getLength();
+      try (InputStream stream = descriptor.createInputStream()) {
+        skipFully(stream, offset);
+        if (declared != AssetFileDescriptor.UNKNOWN_LENGTH) {
+          return readFully(stream, rangeSize(declared, offset, length));
+        }
+        return readUpTo(stream, length == TO_END ? Integer.MAX_VALUE : length);
+      }
+    }
+  }
+
+  private static int rangeSize(final long size, final long offset, final long length) {
+    if (offset < 0 || offset > size) {
+      throw new IllegalArgumentException("Offset " + offset + " is out of range, size " + size);
+    }
+    final long available = size - offset;
+    final long wanted = length == TO_END ? available : Math.min(length, available);
+    if (wanted > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Range of " + wanted + " bytes is too large");
+    }
+    return (int) wanted;
+  }
+
+  private static void skipFully(final @NotNull InputStream stream, final long count)
+      throws IOException {
+    long remaining = count;
+    while (remaining > 0) {
+      final long skipped = stream.skip(remaining);
+      if (skipped > 0) {
+        remaining -= skipped;
+      } else if (stream.read() < 0) {
+        throw new EOFException("Offset " + count + " is past the end of the content");
+      } else {
+        remaining--;
+      }
+    }
+  }
+
+  private static @NotNull byte[] readFully(final @NotNull InputStream stream, final int size)
+      throws IOException {
+    final byte[] bytes = new byte[size];
+    int position = 0;
+    while (position < size) {
+      final int read = stream.read(bytes, position, Math.min(BLOCK_SIZE, size - position));
+      if (read < 0) {
+        // The provider declared more than it delivered.
+        final byte[] trimmed = new byte[position];
+        System.arraycopy(bytes, 0, trimmed, 0, position);
+        return trimmed;
+      }
+      position += read;
+    }
+    return bytes;
+  }
+
+  private static @NotNull byte[] readUpTo(final @NotNull InputStream stream, final long limit)
+      throws IOException {
+    byte[] bytes = new byte[(int) Math.min(BLOCK_SIZE, limit)];
+    int position = 0;
+    while (position < limit) {
+      if (position == bytes.length) {
+        final int grown = (int) Math.min(limit, Math.max(bytes.length * 2L, BLOCK_SIZE));
+        final byte[] larger = new byte[grown];
+        System.arraycopy(bytes, 0, larger, 0, position);
+        bytes = larger;
+      }
+      final int read = stream.read(bytes, position, bytes.length - position);
+      if (read < 0) {
+        break;
+      }
+      position += read;
+    }
+    if (position == bytes.length) {
+      return bytes;
+    }
+    final byte[] trimmed = new byte[position];
+    System.arraycopy(bytes, 0, trimmed, 0, position);
+    return trimmed;
+  }
+}
@@ -0,0 +1,516 @@
+package io.sentry.react;
+
+import static io.sentry.vendor.Base64.NO_WRAP;
+
+import android.app.Activity;
+import android.content.res.Resources;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.view.Window;
+import io.sentry.ILogger;
+import io.sentry.JsonObjectWriter;
+import io.sentry.SentryLevel;
+import io.sentry.vendor.Base64;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+import org.jetbrains.annotations.VisibleForTesting;
+
+/**
+ * Serializes the view hierarchy of an activity's window for the view hierarchy attachment.
+ *
+ * <p>Instead of snapshotting the whole tree into {@code ViewHierarchyNode} objects and serializing
+ * them into a fresh {@code byte[]}, the tree is walked once and written as JSON straight into a
+ * buffer that is reused between calls. The output matches the Android SDK's view hierarchy format.
+ *
+ * <p>Depth, node count and size are capped. Once a limit is reached the remaining subtrees are
+ * skipped and the JSON is closed properly, so the result is always a valid, if partial, hierarchy.
+ *
+ * <p>In incremental mode the JSON of every view is kept per window between calls. If nothing was
+ * drawn since the last call, the last result is returned as it is. Otherwise the tree is walked
+ * again, but only views whose serialized properties changed are encoded again; the others are
+ * copied from the cache. The cost of encoding is then proportional to what changed on screen.
+ */
+final class RNSentryViewHierarchyWriter {
+
+  static final int DEFAULT_MAX_DEPTH = 100;
+  static final int DEFAULT_MAX_NODES = 10_000;
+  static final int DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+  private static final String RENDERING_SYSTEM = "android_view";
+
+  private static final @NotNull Charset UTF_8 =
+      Charset.forName("UTF-8"); // NOPMD - Allow using UTF-8
+
+  private static final @NotNull byte[] WINDOWS_HEAD =
+      ("{\"rendering_system\":\"" + RENDERING_SYSTEM + "\",\"windows\":[").getBytes(UTF_8);
+  private static final @NotNull byte[] WINDOWS_TAIL = "]}".getBytes(UTF_8);
+  private static final @NotNull byte[] NODE_TAIL = "]}".getBytes(UTF_8);
+
+  /** Buffers that grew beyond this are not kept around after a call. */
+  private static final int MAX_RETAINED_BUFFER_BYTES = 512 * 1024;
+
+  private static final @NotNull RNSentryViewHierarchyWriter instance =
+      new RNSentryViewHierarchyWriter();
+
+  private int maxDepth = DEFAULT_MAX_DEPTH;
+  private int maxNodes = DEFAULT_MAX_NODES;
+  private int maxBytes = DEFAULT_MAX_BYTES;
+  private boolean incremental = false;
+  private @NotNull Buffer buffer = new Buffer();
+
+  /** Cached views of the windows serialized in incremental mode, by their root view. */
+  private final @NotNull Map<View, Snapshot> snapshots = new WeakHashMap<>();
+
+  /** Bumped on every draw of an observed window, a snapshot is current until it changes. */
+  private final @NotNull AtomicLong drawCount = new AtomicLong();
+
+  private final @NotNull ViewTreeObserver.OnDrawListener drawListener =
+      drawCount::incrementAndGet;
+
+  static @NotNull RNSentryViewHierarchyWriter getInstance() {
+    return instance;
+  }
+
+  @TestOnly
+  RNSentryViewHierarchyWriter() {}
+
+  /**
+   * @param maxDepth how many levels below the window's root view are written
+   * @param maxNodes how many views are written at most
+   * @param maxBytes the size after which no further views are written
+   * @param incremental whether the serialized views are cached between calls
+   */
+  synchronized void configure(
+      final int maxDepth, final int maxNodes, final int maxBytes, final boolean incremental) {
+    this.maxDepth = Math.max(0, maxDepth);
+    this.maxNodes = Math.max(1, maxNodes);
+    this.maxBytes = Math.max(1, maxBytes);
+    this.incremental = incremental;
+    // Listeners stay registered, they only count draws.
+    snapshots.clear();
+  }
+
+  /**
+   * Serializes the activity's window and returns it Base64 encoded. Must be called on the UI
+   * thread.
+   *
+   * @return the encoded view hierarchy, or {@code null} if the window has no content
+   */
+  synchronized @Nullable String writeBase64(
+      final @NotNull Activity activity, final @NotNull ILogger logger) {
+    final @Nullable View root = rootOf(activity, logger);
+    if (root == null) {
+      return null;
+    }
+    if (incremental) {
+      final @Nullable byte[] json = serializeIncremental(root, logger);
+      return json != null ? Base64.encodeToString(json, NO_WRAP) : null;
+    }
+    try {
+      if (!serialize(root, logger)) {
+        return null;
+      }
+      return buffer.toBase64();
+    } finally {
+      release();
+    }
+  }
+
+  /**
+   * Serializes the activity's window. Must be called on the UI thread.
+   *
+   * @return the view hierarchy JSON, or {@code null} if the window has no content
+   */
+  synchronized @Nullable byte[] writeBytes(
+      final @NotNull Activity activity, final @NotNull ILogger logger) {
+    final @Nullable View root = rootOf(activity, logger);
+    if (root == null) {
+      return null;
+    }
+    if (incremental) {
+      return serializeIncremental(root, logger);
+    }
+    try {
+      return serialize(root, logger) ? buffer.toByteArray() : null;
+    } finally {
+      release();
+    }
+  }
+
+  private static @Nullable View rootOf(
+      final @NotNull Activity activity, final @NotNull ILogger logger) {
+    final @Nullable Window window = activity.getWindow();
+    final @Nullable View root = window != null ? window.peekDecorView() : null;
+    if (root == null) {
+      logger.log(SentryLevel.DEBUG, "The window has no content, can't get the view hierarchy.");
+    }
+    return root;
+  }
+
+  @VisibleForTesting
+  synchronized @Nullable byte[] write(final @NotNull View root) {
+    if (incremental) {
+      return serializeIncremental(root, null);
+    }
+    try {
+      return serialize(root, null) ? buffer.toByteArray() : null;
+    } finally {
+      release();
+    }
+  }
+
+  private boolean serialize(final @NotNull View root, final @Nullable ILogger logger) {
+    buffer.reset();
+    final CountingWriter writer = new CountingWriter(new OutputStreamWriter(buffer, UTF_8));
+    final JsonObjectWriter json = new JsonObjectWriter(writer, maxDepth + 2);
+    final Walk walk = new Walk(json, writer);
+    try {
+      json.beginObject();
+      json.name("rendering_system").value(RENDERING_SYSTEM);
+      json.name("windows").beginArray();
+      walk.node(root, 0);
+      json.endArray();
+      json.endObject();
+      writer.flush();
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      if (logger != null) {
+        logger.log(SentryLevel.ERROR, "Failed to serialize the view hierarchy.", e);
+      }
+      return false;
+    }
+    if (walk.truncated && logger != null) {
+      logger.log(
+          SentryLevel.DEBUG,
+          String.format("View hierarchy truncated after %d views.", walk.nodes));
+    }
+    return true;
+  }
+
+  private @Nullable byte[] serializeIncremental(
+      final @NotNull View root, final @Nullable ILogger logger) {
+    final ViewTreeObserver observer = root.getViewTreeObserver();
+    @Nullable Snapshot snapshot = snapshots.get(root);
+    if (snapshot != null && snapshot.observer != observer) {
+      // Draws of a replaced observer were not counted, nothing cached can be trusted.
+      snapshot = null;
+    }
+    if (snapshot != null && snapshot.json != null && snapshot.drawCount == drawCount.get()) {
+      return snapshot.json;
+    }
+    if (snapshot == null) {
+      observer.addOnDrawListener(drawListener);
+      snapshot = new Snapshot(observer);
+      snapshots.put(root, snapshot);
+    }
+
+    final long drawsBefore = drawCount.get();
+    final IncrementalWalk walk = new IncrementalWalk(snapshot.nodes);
+    try {
+      final Node node = walk.node(root, 0);
+      buffer.reset();
+      buffer.write(WINDOWS_HEAD);
+      node.emit(buffer);
+      buffer.write(WINDOWS_TAIL);
+      snapshot.nodes = walk.next;
+      snapshot.json = buffer.toByteArray();
+      snapshot.drawCount = drawsBefore;
+    } catch (Throwable e) { // NOPMD - We don't want to crash in any case
+      if (logger != null) {
+        logger.log(SentryLevel.ERROR, "Failed to serialize the view hierarchy.", e);
+      }
+      snapshots.remove(root);
+      return null;
+    } finally {
+      release();
+    }
+    if (logger != null) {
+      logger.log(
+          SentryLevel.DEBUG,
+          String.format(
+              "View hierarchy of %d views serialized, %d encoded again.",
+              walk.nodes, walk.encoded));
+    }
+    return snapshot.json;
+  }
+
+  private void release() {
+    if (buffer.capacity() > MAX_RETAINED_BUFFER_BYTES) {
+      buffer = new Buffer();
+    } else {
+      buffer.reset();
+    }
+  }
+
+  private final class Walk {
+    private final @NotNull JsonObjectWriter json;
+    private final @NotNull CountingWriter writer;
+    int nodes = 0;
+    boolean truncated = false;
+
+    Walk(final @NotNull JsonObjectWriter json, final @NotNull CountingWriter writer) {
+      this.json = json;
+      this.writer = writer;
+    }
+
+    void node(final @NotNull View view, final int depth) throws IOException {
+      nodes++;
+      json.beginObject();
+      writeFields(json, view);
+
+      if (view instanceof ViewGroup && ((ViewGroup) view).getChildCount() > 0) {
+        final ViewGroup group = (ViewGroup) view;
+        if (depth >= maxDepth) {
+          truncated = true;
+        } else {
+          json.name("children").beginArray();
+          for (int i = 0; i < group.getChildCount(); i++) {
+            if (nodes >= maxNodes || writer.count >= maxBytes) {
+              truncated = true;
+              break;
+            }
+            final @Nullable View child = group.getChildAt(i);
+            if (child != null) {
+              node(child, depth + 1);
+            }
+          }
+          json.endArray();
+        }
+      }
+      json.endObject();
+    }
+  }
+
+  /**
+   * Walks the tree like {@link Walk}, but only encodes views that changed since the last walk and
+   * collects the result as a tree of cached {@link Node}s.
+   */
+  private final class IncrementalWalk {
+    private final @NotNull Map<View, Node> previous;
+    final @NotNull Map<View, Node> next = new WeakHashMap<>();
+    int nodes = 0;
+    int encoded = 0;
+    long bytes = 0;
+
+    IncrementalWalk(final @NotNull Map<View, Node> previous) {
+      this.previous = previous;
+    }
+
+    @NotNull
+    Node node(final @NotNull View view, final int depth) throws IOException {
+      nodes++;
+      final boolean parent = view instanceof ViewGroup && ((ViewGroup) view).getChildCount() > 0;
+      final boolean expanded = parent && depth < maxDepth;
+
+      @Nullable Node node = previous.get(view);
+      if (node == null || !node.matches(view, expanded)) {
+        node = new Node(view, expanded, encodeHead(view, expanded));
+        encoded++;
+      }
+      next.put(view, node);
+      node.children.clear();
+      bytes += node.head.length;
+
+      if (expanded) {
+        final ViewGroup group = (ViewGroup) view;
+        for (int i = 0; i < group.getChildCount(); i++) {
+          if (nodes >= maxNodes || bytes >= maxBytes) {
+            break;
+          }
+          final @Nullable View child = group.getChildAt(i);
+          if (child != null) {
+            node.children.add(node(child, depth + 1));
+            bytes++;
+          }
+        }
+        bytes += NODE_TAIL.length;
+      }
+      return node;
+    }
+  }
+
+  /** Encodes the view's object up to and including the opening of its children array. */
+  private static @NotNull byte[] encodeHead(final @NotNull View view, final boolean expanded)
+      throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    final Writer writer = new OutputStreamWriter(out, UTF_8);
+    final JsonObjectWriter json = new JsonObjectWriter(writer, 1);
+    json.beginObject();
+    writeFields(json, view);
+    if (expanded) {
+      json.name("children").beginArray();
+    } else {
+      json.endObject();
+    }
+    writer.flush();
+    return out.toByteArray();
+  }
+
+  private static void writeFields(final @NotNull JsonObjectWriter json, final @NotNull View view)
+      throws IOException {
+    json.name("rendering_system").value(RENDERING_SYSTEM);
+    json.name("type").value(view.getClass().getName());
+    final @Nullable String identifier = identifierOf(view);
+    if (identifier != null) {
+      json.name("identifier").value(identifier);
+    }
+    json.name("width").value(view.getWidth());
+    json.name("height").value(view.getHeight());
+    json.name("x").value(view.getX());
+    json.name("y").value(view.getY());
+    json.name("visibility").value(visibilityOf(view));
+    json.name("alpha").value(view.getAlpha());
+  }
+
+  /** A view's encoded JSON and the properties it was encoded from. */
+  private static final class Node {
+    final int id;
+    final int width;
+    final int height;
+    final float x;
+    final float y;
+    final int visibility;
+    final float alpha;
+    final boolean expanded;
+    final @NotNull byte[] head;
+    final @NotNull List<Node> children = new ArrayList<>();
+
+    Node(final @NotNull View view, final boolean expanded, final @NotNull byte[] head) {
+      this.id = view.getId();
+      this.width = view.getWidth();
+      this.height = view.getHeight();
+      this.x = view.getX();
+      this.y = view.getY();
+      this.visibility = view.getVisibility();
+      this.alpha = view.getAlpha();
+      this.expanded = expanded;
+      this.head = head;
+    }
+
+    boolean matches(final @NotNull View view, final boolean expanded) {
+      return this.expanded == expanded
+          && id == view.getId()
+          && width == view.getWidth()
+          && height == view.getHeight()
+          && Float.compare(x, view.getX()) == 0
+          && Float.compare(y, view.getY()) == 0
+          && visibility == view.getVisibility()
+          && Float.compare(alpha, view.getAlpha()) == 0;
+    }
+
+    void emit(final @NotNull ByteArrayOutputStream out) {
+      out.write(head, 0, head.length);
+      if (!expanded) {
+        return;
+      }
+      for (int i = 0; i < children.size(); i++) {
+        if (i > 0) {
+          out.write(',');
+        }
+        children.get(i).emit(out);
+      }
+      out.write(NODE_TAIL, 0, NODE_TAIL.length);
+    }
+  }
+
+  private static final class Snapshot {
+    final @NotNull ViewTreeObserver observer;
+    @NotNull Map<View, Node> nodes = new WeakHashMap<>();
+    @Nullable byte[] json;
+    long drawCount = -1;
+
+    Snapshot(final @NotNull ViewTreeObserver observer) {
+      this.observer = observer;
+    }
+  }
+
+  private static @Nullable String identifierOf(final @NotNull View view) {
+    final int id = view.getId();
+    // Ids generated at runtime have no resource name.
+    if (id == View.NO_ID || (id >>> 24) == 0) {
+      return null;
+    }
+    try {
+      return view.getResources().getResourceEntryName(id);
+    } catch (Resources.NotFoundException e) {
+      return null;
+    }
+  }
+
+  private static @NotNull String visibilityOf(final @NotNull View view) {
+    switch (view.getVisibility()) {
+      case View.INVISIBLE:
+        return "invisible";
+      case View.GONE:
+        return "gone";
+      default:
+        return "visible";
+    }
+  }
+
+  /** Exposes the backing array, so the Base64 encoding reads it without a copy. */
+  private static final class Buffer extends ByteArrayOutputStream {
+    Buffer() {
+      super(16 * 1024);
+    }
+
+    int capacity() {
+      return buf.length;
+    }
+
+    @NotNull
+    String toBase64() {
+      return Base64.encodeToString(buf, 0, count, NO_WRAP);
+    }
+  }
+
+  /** Counts written chars, which matches the encoded size closely enough for the size cap. */
+  private static final class CountingWriter extends Writer {
+    private final @NotNull Writer delegate;
+    long count = 0;
+
+    CountingWriter(final @NotNull Writer delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void write(final char[] chars, final int offset, final int length) throws IOException {
+      count += length;
+      delegate.write(chars, offset, length);
+    }
+
+    @Override
+    public void write(final @NotNull String string, final int offset, final int length)
+        throws IOException {
+      count += length;
+      delegate.write(string, offset, length);
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+      count++;
+      delegate.write(c);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+  }
+}
@@ -0,0 +1,198 @@
+// Copyright (c) Sentry. All rights reserved.
+//
+// JSI binding that lets the JS transport hand envelope bytes to the Android
+// SDK without the Base64 round trip `RNSentry.captureEnvelope` requires.
+//
+// The binding installs a single host function on the JS global object:
+//
+//   __SENTRY_CAPTURE_ENVELOPE_BYTES__(buffer: ArrayBuffer, hardCrashed: boolean): number
+//
+// The function wraps the ArrayBuffer's backing store in a direct
+// `java.nio.ByteBuffer` (no copy) and calls
+// `io.sentry.react.RNSentryJsiEnvelopeBinding#captureEnvelope`, which copies
+// the bytes exactly once into the `byte[]` the Android SDK expects. The
+// ByteBuffer must not outlive the call: the ArrayBuffer belongs to the JS heap
+// and may be collected or detached as soon as the host function returns.
+//
+// The function returns 1 when the envelope was accepted, 2 when it was
+// dropped or failed in the capture pipeline, and 0 when the bytes could not be
+// passed to Java at all. JS only falls back to Base64 for 0.
+//
+// It also installs
+//
+//   __SENTRY_ENCODE_BASE64__(buffer: ArrayBuffer, urlSafe: boolean): string | undefined
+//
+// which passes the ArrayBuffer the same way to
+// `io.sentry.react.RNSentryJsiEnvelopeBinding#encodeToBase64` and returns the
+// unwrapped Base64 string, or `undefined` when encoding failed.
+//
+// Installation is driven from Java (`nativeInstall`) on the JS thread, which
+// is the only thread allowed to touch the `jsi::Runtime`. The host function
+// itself also only ever runs on the JS thread, which React Native attaches to
+// the JVM, so `GetEnv` is sufficient and we never attach threads ourselves.
+
+#include <jni.h>
+#include <jsi/jsi.h>
+
+#include <mutex>
+
+using namespace facebook;
+
+namespace {
+
+constexpr const char *kCaptureEnvelopeBytesName = "__SENTRY_CAPTURE_ENVELOPE_BYTES__";
+constexpr const char *kEncodeBase64Name = "__SENTRY_ENCODE_BASE64__";
+
+// Mirrors the `CAPTURE_*` constants of `RNSentryJsiEnvelopeBinding`.
+constexpr int kCaptureUnavailable = 0;
+
+JavaVM *gJavaVM = nullptr;
+jclass gBindingClass = nullptr;
+jmethodID gCaptureEnvelopeMethod = nullptr;
+jmethodID gEncodeBase64Method = nullptr;
+std::once_flag gJniInitFlag;
+
+JNIEnv *
+currentJniEnv()
+{
+    JNIEnv *env = nullptr;
+    if (gJavaVM == nullptr
+        || gJavaVM->GetEnv(reinterpret_cast<void **>(&env), JNI_VERSION_1_6) != JNI_OK) {
+        return nullptr;
+    }
+    return env;
+}
+
+jsi::Value
+captureEnvelopeBytes(
+    jsi::Runtime &runtime, const jsi::Value & /*thisValue*/, const jsi::Value *args, size_t count)
+{
+    if (count < 1 || !args[0].isObject()) {
+        return jsi::Value(kCaptureUnavailable);
+    }
+    jsi::Object object = args[0].getObject(runtime);
+    if (!object.isArrayBuffer(runtime)) {
+        return jsi::Value(kCaptureUnavailable);
+    }
+    jsi::ArrayBuffer buffer = object.getArrayBuffer(runtime);
+    const bool hardCrashed = count > 1 && args[1].isBool() && args[1].getBool();
+
+    JNIEnv *env = currentJniEnv();
+    if (env == nullptr || gBindingClass == nullptr || gCaptureEnvelopeMethod == nullptr) {
+        return jsi::Value(kCaptureUnavailable);
+    }
+
+    jobject byteBuffer
+        = env->NewDirectByteBuffer(buffer.data(runtime), static_cast<jlong>(buffer.size(runtime)));
+    if (byteBuffer == nullptr) {
+        env->ExceptionClear();
+        return jsi::Value(kCaptureUnavailable);
+    }
+
+    const jint result = env->CallStaticIntMethod(
+        gBindingClass, gCaptureEnvelopeMethod, byteBuffer, hardCrashed ? JNI_TRUE : JNI_FALSE);
+    env->DeleteLocalRef(byteBuffer);
+
+    // A pending Java exception must never leak back into Hermes. Java catches
+    // everything once the bytes are copied, so JS can fall back to Base64.
+    if (env->ExceptionCheck()) {
+        env->ExceptionClear();
+        return jsi::Value(kCaptureUnavailable);
+    }
+    return jsi::Value(static_cast<int>(result));
+}
+
+jsi::Value
+encodeBase64(
+    jsi::Runtime &runtime, const jsi::Value & /*thisValue*/, const jsi::Value *args, size_t count)
+{
+    if (count < 1 || !args[0].isObject()) {
+        return jsi::Value::undefined();
+    }
+    jsi::Object object = args[0].getObject(runtime);
+    if (!object.isArrayBuffer(runtime)) {
+        return jsi::Value::undefined();
+    }
+    jsi::ArrayBuffer buffer = object.getArrayBuffer(runtime);
+    const bool urlSafe = count > 1 && args[1].isBool() && args[1].getBool();
+
+    JNIEnv *env = currentJniEnv();
+    if (env == nullptr || gBindingClass == nullptr || gEncodeBase64Method == nullptr) {
+        return jsi::Value::undefined();
+    }
+
+    jobject byteBuffer
+        = env->NewDirectByteBuffer(buffer.data(runtime), static_cast<jlong>(buffer.size(runtime)));
+    if (byteBuffer == nullptr) {
+        env->ExceptionClear();
+        return jsi::Value::undefined();
+    }
+
+    auto encoded = static_cast<jstring>(env->CallStaticObjectMethod(
+        gBindingClass, gEncodeBase64Method, byteBuffer, urlSafe ? JNI_TRUE : JNI_FALSE));
+    env->DeleteLocalRef(byteBuffer);
+
+    if (env->ExceptionCheck()) {
+        env->ExceptionClear();
+        return jsi::Value::undefined();
+    }
+    if (encoded == nullptr) {
+        return jsi::Value::undefined();
+    }
+
+    // Base64 is plain ASCII, so the modified UTF-8 JNI returns is valid UTF-8 here.
+    const char *chars = env->GetStringUTFChars(encoded, nullptr);
+    if (chars == nullptr) {
+        env->ExceptionClear();
+        env->DeleteLocalRef(encoded);
+        return jsi::Value::undefined();
+    }
+    const auto length = static_cast<size_t>(env->GetStringUTFLength(encoded));
+    jsi::Value result = jsi::String::createFromAscii(runtime, chars, length);
+    env->ReleaseStringUTFChars(encoded, chars);
+    env->DeleteLocalRef(encoded);
+    return result;
+}
+
+} // namespace
+
+/// Installs `__SENTRY_CAPTURE_ENVELOPE_BYTES__` and `__SENTRY_ENCODE_BASE64__`
+/// into the given runtime.
+/// Linked into Java by name
+/// (`Java_io_sentry_react_RNSentryJsiEnvelopeBinding_nativeInstall`). Must be
+/// called on the JS thread. Safe to call again for a new runtime after a
+/// reload; the JNI handles are resolved only once per process.
+extern "C" JNIEXPORT jboolean JNICALL
+Java_io_sentry_react_RNSentryJsiEnvelopeBinding_nativeInstall(
+    JNIEnv *env, jclass clazz, jlong runtimePointer)
+{
+    auto *runtime = reinterpret_cast<jsi::Runtime *>(runtimePointer);
+    if (runtime == nullptr) {
+        return JNI_FALSE;
+    }
+
+    std::call_once(gJniInitFlag, [env, clazz]() {
+        env->GetJavaVM(&gJavaVM);
+        gBindingClass = static_cast<jclass>(env->NewGlobalRef(clazz));
+        gCaptureEnvelopeMethod
+            = env->GetStaticMethodID(clazz, "captureEnvelope", "(Ljava/nio/ByteBuffer;Z)I");
+        gEncodeBase64Method = env->GetStaticMethodID(
+            clazz, "encodeToBase64", "(Ljava/nio/ByteBuffer;Z)Ljava/lang/String;");
+    });
+    if (gCaptureEnvelopeMethod == nullptr || gEncodeBase64Method == nullptr) {
+        env->ExceptionClear();
+        return JNI_FALSE;
+    }
+
+    try {
+        auto name = jsi::PropNameID::forAscii(*runtime, kCaptureEnvelopeBytesName);
+        runtime->global().setProperty(*runtime, kCaptureEnvelopeBytesName,
+            jsi::Function::createFromHostFunction(*runtime, name, 2, captureEnvelopeBytes));
+        auto encodeName = jsi::PropNameID::forAscii(*runtime, kEncodeBase64Name);
+        runtime->global().setProperty(*runtime, kEncodeBase64Name,
+            jsi::Function::createFromHostFunction(*runtime, encodeName, 2, encodeBase64));
+    } catch (const std::exception &) {
+        return JNI_FALSE;
+    }
+    return JNI_TRUE;
+}
@@ -78,6 +78,16 @@ public class RNSentryModule extends NativeRNSentrySpec {
     this.impl.captureEnvelope(rawBytes, options, promise);
   }
 
+  @Override
+  public void captureEnvelopes(ReadableArray envelopes, Promise promise) {
+    this.impl.captureEnvelopes(envelopes, promise);
+  }
+
+  @Override
+  public boolean installBinaryEnvelopeCapture() {
+    return this.impl.installBinaryEnvelopeCapture();
+  }
+
   @Override
   public void captureScreenshot(Promise promise) {
     this.impl.captureScreenshot(promise);
@@ -88,6 +98,16 @@ public class RNSentryModule extends NativeRNSentrySpec {
     this.impl.fetchViewHierarchy(promise);
   }
 
+  @Override
+  public void storeScreenshot(Promise promise) {
+    this.impl.storeScreenshot(promise);
+  }
+
+  @Override
+  public void storeViewHierarchy(Promise promise) {
+    this.impl.storeViewHierarchy(promise);
+  }
+
   @Override
   public void setUser(final ReadableMap user, final ReadableMap otherUserKeys) {
     this.impl.setUser(user, otherUserKeys);
@@ -98,6 +118,11 @@ public class RNSentryModule extends NativeRNSentrySpec {
     this.impl.addBreadcrumb(breadcrumb);
   }
 
+  @Override
+  public void addBreadcrumbs(final ReadableArray breadcrumbs) {
+    this.impl.addBreadcrumbs(breadcrumbs);
+  }
+
   @Override
   public void clearBreadcrumbs() {
     this.impl.clearBreadcrumbs();
@@ -133,6 +158,11 @@ public class RNSentryModule extends NativeRNSentrySpec {
     this.impl.removeAttribute(key);
   }
 
+  @Override
+  public void applyScopeOperations(ReadableArray operations) {
+    this.impl.applyScopeOperations(operations);
+  }
+
   @Override
   public void closeNativeSdk(Promise promise) {
     this.impl.closeNativeSdk(promise);
@@ -194,6 +224,11 @@ public class RNSentryModule extends NativeRNSentrySpec {
     return this.impl.getCurrentReplayId();
   }
 
+  @Override
+  public double getElidedScopeWriteCount() {
+    return this.impl.getElidedScopeWriteCount();
+  }
+
   @Override
   public void crashedLastRun(Promise promise) {
     this.impl.crashedLastRun(promise);
@@ -205,8 +240,13 @@ public class RNSentryModule extends NativeRNSentrySpec {
   }
 
   @Override
-  public void getDataFromUri(String uri, Promise promise) {
-    this.impl.getDataFromUri(uri, promise);
+  public void getDataFromUri(String uri, ReadableMap options, Promise promise) {
+    this.impl.getDataFromUri(uri, options, promise);
+  }
+
+  @Override
+  public void storeDataFromUri(String uri, ReadableMap options, Promise promise) {
+    this.impl.storeDataFromUri(uri, options, promise);
   }
 
   @Override
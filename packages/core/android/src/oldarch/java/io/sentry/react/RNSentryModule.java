@@ -78,6 +78,17 @@ public class RNSentryModule extends ReactContextBaseJavaModule {
     this.impl.captureEnvelope(rawBytes, options, promise);
   }
 
+  @ReactMethod
+  public void captureEnvelopes(ReadableArray envelopes, Promise promise) {
+    this.impl.captureEnvelopes(envelopes, promise);
+  }
+
+  @ReactMethod(isBlockingSynchronousMethod = true)
+  public boolean installBinaryEnvelopeCapture() {
+    // The JSI binding ships only with the New Architecture, envelopes use the Base64 path here.
+    return false;
+  }
+
   @ReactMethod
   public void captureScreenshot(Promise promise) {
     this.impl.captureScreenshot(promise);
@@ -88,6 +99,16 @@ public class RNSentryModule extends ReactContextBaseJavaModule {
     this.impl.fetchViewHierarchy(promise);
   }
 
+  @ReactMethod
+  public void storeScreenshot(Promise promise) {
+    this.impl.storeScreenshot(promise);
+  }
+
+  @ReactMethod
+  public void storeViewHierarchy(Promise promise) {
+    this.impl.storeViewHierarchy(promise);
+  }
+
   @ReactMethod
   public void setUser(final ReadableMap user, final ReadableMap otherUserKeys) {
     this.impl.setUser(user, otherUserKeys);
@@ -98,6 +119,11 @@ public class RNSentryModule extends ReactContextBaseJavaModule {
     this.impl.addBreadcrumb(breadcrumb);
   }
 
+  @ReactMethod
+  public void addBreadcrumbs(final ReadableArray breadcrumbs) {
+    this.impl.addBreadcrumbs(breadcrumbs);
+  }
+
   @ReactMethod
   public void clearBreadcrumbs() {
     this.impl.clearBreadcrumbs();
@@ -133,6 +159,11 @@ public class RNSentryModule extends ReactContextBaseJavaModule {
     this.impl.removeAttribute(key);
   }
 
+  @ReactMethod
+  public void applyScopeOperations(ReadableArray operations) {
+    this.impl.applyScopeOperations(operations);
+  }
+
   @ReactMethod
   public void closeNativeSdk(Promise promise) {
     this.impl.closeNativeSdk(promise);
@@ -194,6 +225,11 @@ public class RNSentryModule extends ReactContextBaseJavaModule {
     return this.impl.getCurrentReplayId();
   }
 
+  @ReactMethod(isBlockingSynchronousMethod = true)
+  public double getElidedScopeWriteCount() {
+    return this.impl.getElidedScopeWriteCount();
+  }
+
   @ReactMethod
   public void crashedLastRun(Promise promise) {
     this.impl.crashedLastRun(promise);
@@ -205,8 +241,13 @@ public class RNSentryModule extends ReactContextBaseJavaModule {
   }
 
   @ReactMethod
-  public void getDataFromUri(String uri, Promise promise) {
-    this.impl.getDataFromUri(uri, promise);
+  public void getDataFromUri(String uri, ReadableMap options, Promise promise) {
+    this.impl.getDataFromUri(uri, options, promise);
+  }
+
+  @ReactMethod
+  public void storeDataFromUri(String uri, ReadableMap options, Promise promise) {
+    this.impl.storeDataFromUri(uri, options, promise);
   }
 
   @ReactMethod
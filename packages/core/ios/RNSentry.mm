@@ -621,30 +621,63 @@ RCT_EXPORT_METHOD(
     });
 }
 
-RCT_EXPORT_METHOD(captureEnvelope : (NSString *_Nonnull)rawBytes options : (NSDictionary *_Nonnull)
-        options resolve : (RCTPromiseResolveBlock)resolve rejecter : (RCTPromiseRejectBlock)reject)
++ (BOOL)captureEnvelopeFromBase64:(NSString *)rawBytes hardCrashed:(BOOL)hardCrashed
 {
     NSData *data = [[NSData alloc] initWithBase64EncodedString:rawBytes options:0];
 
     SentryEnvelope *envelope = [RNSentryInternal envelopeFromData:data];
     if (envelope == nil) {
-        reject(@"SentryReactNative", @"Failed to parse envelope from byte array.", nil);
-        return;
+        return NO;
     }
 
 #if DEBUG
     [RNSentryInternal capture:envelope];
 #else
-    if ([[options objectForKey:@"hardCrashed"] boolValue]) {
+    if (hardCrashed) {
         // Storing to disk happens asynchronously with captureEnvelope
         [RNSentryInternal store:envelope];
     } else {
         [RNSentryInternal capture:envelope];
     }
 #endif
+    return YES;
+}
+
+RCT_EXPORT_METHOD(captureEnvelope : (NSString *_Nonnull)rawBytes options : (NSDictionary *_Nonnull)
+        options resolve : (RCTPromiseResolveBlock)resolve rejecter : (RCTPromiseRejectBlock)reject)
+{
+    if (![RNSentry captureEnvelopeFromBase64:rawBytes
+                                 hardCrashed:[[options objectForKey:@"hardCrashed"] boolValue]]) {
+        reject(@"SentryReactNative", @"Failed to parse envelope from byte array.", nil);
+        return;
+    }
     resolve(@YES);
 }
 
+RCT_EXPORT_METHOD(captureEnvelopes : (NSArray *_Nonnull)envelopes resolve : (
+    RCTPromiseResolveBlock)resolve rejecter : (RCTPromiseRejectBlock)reject)
+{
+    NSMutableArray<NSNumber *> *results = [NSMutableArray arrayWithCapacity:envelopes.count];
+    for (id envelope in envelopes) {
+        BOOL captured = NO;
+        if ([envelope isKindOfClass:NSDictionary.class]) {
+            id rawBytes = envelope[@"bytes"];
+            if ([rawBytes isKindOfClass:NSString.class]) {
+                captured = [RNSentry captureEnvelopeFromBase64:rawBytes
+                                                   hardCrashed:[envelope[@"hardCrashed"] boolValue]];
+            }
+        }
+        [results addObject:@(captured)];
+    }
+    resolve(results);
+}
+
+RCT_EXPORT_SYNCHRONOUS_TYPED_METHOD(NSNumber *, installBinaryEnvelopeCapture)
+{
+    // The binary envelope path is Android only, iOS keeps using the base64 `captureEnvelope`.
+    return @NO;
+}
+
 RCT_EXPORT_METHOD(
     captureScreenshot : (RCTPromiseResolveBlock)resolve rejecter : (RCTPromiseRejectBlock)reject)
 {
@@ -654,11 +687,8 @@ RCT_EXPORT_METHOD(
 
     int counter = 1;
     for (NSData *raw in rawScreenshots) {
-        NSMutableArray *screenshot = [NSMutableArray arrayWithCapacity:raw.length];
-        const char *bytes = (char *)[raw bytes];
-        for (int i = 0; i < [raw length]; i++) {
-            [screenshot addObject:[[NSNumber alloc] initWithChar:bytes[i]]];
-        }
+        // One string crosses the bridge instead of a boxed number per byte.
+        NSString *screenshot = [raw base64EncodedStringWithOptions:0];
 
         NSString *filename = @"screenshot.png";
         if (counter > 1) {
@@ -690,18 +720,32 @@ RCT_EXPORT_METHOD(
         return;
     }
 
-    NSMutableArray *viewHierarchy = [NSMutableArray arrayWithCapacity:rawViewHierarchy.length];
-    const char *bytes = (char *)[rawViewHierarchy bytes];
-    for (int i = 0; i < [rawViewHierarchy length]; i++) {
-        [viewHierarchy addObject:[[NSNumber alloc] initWithChar:bytes[i]]];
-    }
-
-    resolve(viewHierarchy);
+    // One string crosses the bridge instead of a boxed number per byte.
+    resolve([rawViewHierarchy base64EncodedStringWithOptions:0]);
 #else
     resolve(nil);
 #endif
 }
 
+// The attachment store is only available on Android, JS falls back to the byte based methods.
+RCT_EXPORT_METHOD(
+    storeScreenshot : (RCTPromiseResolveBlock)resolve rejecter : (RCTPromiseRejectBlock)reject)
+{
+    resolve(nil);
+}
+
+RCT_EXPORT_METHOD(
+    storeViewHierarchy : (RCTPromiseResolveBlock)resolve rejecter : (RCTPromiseRejectBlock)reject)
+{
+    resolve(nil);
+}
+
+RCT_EXPORT_METHOD(storeDataFromUri : (NSString *_Nonnull)uri options : (NSDictionary *_Nonnull)
+        options resolve : (RCTPromiseResolveBlock)resolve rejecter : (RCTPromiseRejectBlock)reject)
+{
+    resolve(nil);
+}
+
 RCT_EXPORT_METHOD(setUser : (NSDictionary *)userKeys otherUserKeys : (NSDictionary *)userDataKeys)
 {
     [SentrySDKWrapper configureScope:^(SentryScope *_Nonnull scope) {
@@ -744,6 +788,30 @@ RCT_EXPORT_METHOD(addBreadcrumb : (NSDictionary *)breadcrumb)
 #endif // SENTRY_HAS_UIKIT
 }
 
+RCT_EXPORT_METHOD(addBreadcrumbs : (NSArray *)breadcrumbs)
+{
+    __block NSString *_Nullable screen = nil;
+    [SentrySDKWrapper configureScope:^(SentryScope *_Nonnull scope) {
+        for (id breadcrumb in breadcrumbs) {
+            if (![breadcrumb isKindOfClass:NSDictionary.class]) {
+                continue;
+            }
+            [scope addBreadcrumb:[RNSentryBreadcrumb from:breadcrumb]];
+            NSString *_Nullable breadcrumbScreen =
+                [RNSentryBreadcrumb getCurrentScreenFrom:breadcrumb];
+            if (breadcrumbScreen != nil) {
+                screen = breadcrumbScreen;
+            }
+        }
+    }];
+
+#if SENTRY_HAS_UIKIT
+    if (screen != nil) {
+        [RNSentryInternal setCurrentScreen:screen];
+    }
+#endif // SENTRY_HAS_UIKIT
+}
+
 RCT_EXPORT_METHOD(clearBreadcrumbs)
 {
     [SentrySDKWrapper configureScope:^(SentryScope *_Nonnull scope) { [scope clearBreadcrumbs]; }];
@@ -796,6 +864,79 @@ RCT_EXPORT_METHOD(removeAttribute : (NSString *)key)
         configureScope:^(SentryScope *_Nonnull scope) { [scope removeAttributeForKey:key]; }];
 }
 
+RCT_EXPORT_METHOD(applyScopeOperations : (NSArray *)operations)
+{
+    if (operations.count == 0) {
+        return;
+    }
+
+    __block NSString *_Nullable screen = nil;
+    [SentrySDKWrapper configureScope:^(SentryScope *_Nonnull scope) {
+        for (id operation in operations) {
+            if (![operation isKindOfClass:NSDictionary.class]) {
+                continue;
+            }
+            NSString *op = operation[@"op"];
+            id key = operation[@"key"];
+            id value = operation[@"value"];
+            BOOL hasKey = [key isKindOfClass:NSString.class];
+            BOOL hasStringValue = [value isKindOfClass:NSString.class];
+            BOOL hasMapValue = [value isKindOfClass:NSDictionary.class];
+
+            if ([op isEqualToString:@"setUser"]) {
+                [scope setUser:[RNSentry userFrom:operation[@"user"]
+                                    otherUserKeys:operation[@"otherUserKeys"]]];
+            } else if ([op isEqualToString:@"setTag"] && hasKey && hasStringValue) {
+                [scope setTagValue:value forKey:key];
+            } else if ([op isEqualToString:@"setExtra"] && hasKey && hasStringValue) {
+                [scope setExtraValue:value forKey:key];
+            } else if ([op isEqualToString:@"setContext"] && hasKey) {
+                if (hasMapValue) {
+                    [scope setContextValue:value forKey:key];
+                } else {
+                    [scope removeContextForKey:key];
+                }
+            } else if ([op isEqualToString:@"setAttribute"] && hasKey && hasStringValue) {
+                [scope setAttributeValue:value forKey:key];
+            } else if ([op isEqualToString:@"setAttributes"] && hasMapValue) {
+                [value enumerateKeysAndObjectsUsingBlock:^(NSString *attributeKey,
+                    NSString *attributeValue,
+                    BOOL *stop) { [scope setAttributeValue:attributeValue forKey:attributeKey]; }];
+            } else if ([op isEqualToString:@"removeAttribute"] && hasKey) {
+                [scope removeAttributeForKey:key];
+            } else if ([op isEqualToString:@"addBreadcrumb"] && hasMapValue) {
+                [scope addBreadcrumb:[RNSentryBreadcrumb from:value]];
+                NSString *_Nullable breadcrumbScreen =
+                    [RNSentryBreadcrumb getCurrentScreenFrom:value];
+                if (breadcrumbScreen != nil) {
+                    screen = breadcrumbScreen;
+                }
+            } else if ([op isEqualToString:@"addBreadcrumbs"] &&
+                [value isKindOfClass:NSArray.class]) {
+                for (id breadcrumb in value) {
+                    if (![breadcrumb isKindOfClass:NSDictionary.class]) {
+                        continue;
+                    }
+                    [scope addBreadcrumb:[RNSentryBreadcrumb from:breadcrumb]];
+                    NSString *_Nullable breadcrumbScreen =
+                        [RNSentryBreadcrumb getCurrentScreenFrom:breadcrumb];
+                    if (breadcrumbScreen != nil) {
+                        screen = breadcrumbScreen;
+                    }
+                }
+            } else if ([op isEqualToString:@"clearBreadcrumbs"]) {
+                [scope clearBreadcrumbs];
+            }
+        }
+    }];
+
+#if SENTRY_HAS_UIKIT
+    if (screen != nil) {
+        [RNSentryInternal setCurrentScreen:screen];
+    }
+#endif // SENTRY_HAS_UIKIT
+}
+
 RCT_EXPORT_METHOD(crash) { [SentrySDKWrapper crash]; }
 
 RCT_EXPORT_METHOD(
@@ -899,8 +1040,8 @@ RNSentryIsPathUnderAllowedRoots(NSString *path)
 }
 #endif
 
-RCT_EXPORT_METHOD(getDataFromUri : (NSString *_Nonnull)uri resolve : (
-    RCTPromiseResolveBlock)resolve rejecter : (RCTPromiseRejectBlock)reject)
+RCT_EXPORT_METHOD(getDataFromUri : (NSString *_Nonnull)uri options : (NSDictionary *_Nonnull)
+        options resolve : (RCTPromiseResolveBlock)resolve rejecter : (RCTPromiseRejectBlock)reject)
 {
 #if TARGET_OS_IPHONE || TARGET_OS_MACCATALYST
     NSURL *fileURL = [NSURL URLWithString:uri];
@@ -916,18 +1057,28 @@ RCT_EXPORT_METHOD(getDataFromUri : (NSString *_Nonnull)uri resolve : (
         return;
     }
     NSError *error = nil;
-    NSData *fileData = [NSData dataWithContentsOfURL:fileURL options:0 error:&error];
+    // Mapped reads only page in the requested range.
+    NSData *fileData = [NSData dataWithContentsOfURL:fileURL
+                                             options:NSDataReadingMappedIfSafe
+                                               error:&error];
     if (error || !fileData) {
         reject(@"SentryReactNative", @"Failed to read file data", error);
         return;
     }
-    NSMutableArray *byteArray = [NSMutableArray arrayWithCapacity:fileData.length];
-    const unsigned char *bytes = (const unsigned char *)fileData.bytes;
 
-    for (NSUInteger i = 0; i < fileData.length; i++) {
-        [byteArray addObject:@(bytes[i])];
+    NSUInteger offset = [options[@"offset"] unsignedIntegerValue];
+    if (offset > fileData.length) {
+        reject(@"SentryReactNative", @"The provided offset is past the end of the file", nil);
+        return;
     }
-    resolve(byteArray);
+    NSUInteger length = fileData.length - offset;
+    if (options[@"length"] != nil) {
+        length = MIN(length, [options[@"length"] unsignedIntegerValue]);
+    }
+    if (offset != 0 || length != fileData.length) {
+        fileData = [fileData subdataWithRange:NSMakeRange(offset, length)];
+    }
+    resolve([fileData base64EncodedStringWithOptions:0]);
 #else
     resolve(nil);
 #endif
@@ -942,6 +1093,12 @@ RCT_EXPORT_SYNCHRONOUS_TYPED_METHOD(NSString *, getCurrentReplayId)
 #endif
 }
 
+RCT_EXPORT_SYNCHRONOUS_TYPED_METHOD(NSNumber *, getElidedScopeWriteCount)
+{
+    // Unchanged scope writes are only skipped on Android, see `androidSkipUnchangedScopeWrites`.
+    return @0;
+}
+
 static NSString *const enabledProfilingMessage = @"Enable Hermes to use Sentry Profiling.";
 static SentryId *nativeProfileTraceId = nil;
 static uint64_t nativeProfileStartTime = 0;
@@ -12,13 +12,23 @@ export interface Spec extends TurboModule {
   removeListeners: (id: number) => void;
   getNewScreenTimeToDisplay(): Promise<number | undefined | null>;
   addBreadcrumb(breadcrumb: UnsafeObject): void;
+  addBreadcrumbs(breadcrumbs: UnsafeObject[]): void;
   captureEnvelope(
     bytes: string,
     options: {
       hardCrashed: boolean;
     },
   ): Promise<boolean>;
+  captureEnvelopes(
+    envelopes: {
+      bytes: string;
+      hardCrashed: boolean;
+    }[],
+  ): Promise<boolean[]>;
+  installBinaryEnvelopeCapture(): boolean;
   captureScreenshot(): Promise<NativeScreenshot[] | undefined | null>;
+  storeScreenshot(): Promise<NativeAttachmentHandle[] | undefined | null>;
+  storeViewHierarchy(): Promise<NativeAttachmentHandle[] | undefined | null>;
   clearBreadcrumbs(): void;
   crash(): void;
   closeNativeSdk(): Promise<void>;
@@ -38,9 +48,10 @@ export interface Spec extends TurboModule {
   setAttribute(key: string, value: string): void;
   setAttributes(attributes: UnsafeObject): void;
   removeAttribute(key: string): void;
+  applyScopeOperations(operations: UnsafeObject[]): void;
   enableNativeFramesTracking(): void;
   fetchModules(): Promise<string | undefined | null>;
-  fetchViewHierarchy(): Promise<number[] | undefined | null>;
+  fetchViewHierarchy(): Promise<string | undefined | null>;
   startProfiling(platformProfilers: boolean): { started?: boolean; error?: string };
   stopProfiling(): {
     profile?: string;
@@ -53,8 +64,22 @@ export interface Spec extends TurboModule {
   initNativeReactNavigationNewFrameTracking(): Promise<void>;
   captureReplay(isHardCrash: boolean): Promise<string | undefined | null>;
   getCurrentReplayId(): string | undefined | null;
+  getElidedScopeWriteCount(): number;
   crashedLastRun(): Promise<boolean | undefined | null>;
-  getDataFromUri(uri: string): Promise<number[]>;
+  getDataFromUri(
+    uri: string,
+    options: {
+      offset?: number;
+      length?: number;
+    },
+  ): Promise<string>;
+  storeDataFromUri(
+    uri: string,
+    options: {
+      offset?: number;
+      length?: number;
+    },
+  ): Promise<NativeAttachmentHandle | undefined | null>;
   popTimeToDisplayFor(key: string): Promise<number | undefined | null>;
   setActiveSpanId(spanId: string): boolean;
   encodeToBase64(data: number[]): Promise<string | undefined | null>;
@@ -162,7 +187,15 @@ export type NativeDeviceContextsResponse = {
 };
 
 export type NativeScreenshot = {
-  data: number[];
+  /** Base64 encoded image bytes. */
+  data: string;
+  contentType: string;
+  filename: string;
+};
+
+export type NativeAttachmentHandle = {
+  /** Opaque reference to the bytes kept by the native attachment store. */
+  handle: string;
   contentType: string;
   filename: string;
 };
@@ -1,7 +1,6 @@
-import type { Event, EventHint, Integration } from '@sentry/core';
+import type { Attachment, Event, EventHint, Integration } from '@sentry/core';
 
 import type { ReactNativeClient } from '../client';
-import type { Screenshot as ScreenshotAttachment } from '../wrapper';
 
 import { NATIVE } from '../wrapper';
 
@@ -24,7 +23,8 @@ async function processEvent(event: Event, hint: EventHint, client: ReactNativeCl
     return event;
   }
 
-  const screenshots: ScreenshotAttachment[] | null = await NATIVE.captureScreenshot();
+  // Stored screenshots stay on the native side, only their handles are attached.
+  const screenshots: Attachment[] | null = (await NATIVE.storeScreenshot()) ?? (await NATIVE.captureScreenshot());
   if (screenshots && screenshots.length > 0) {
     hint.attachments = [...screenshots, ...(hint?.attachments || [])];
   }
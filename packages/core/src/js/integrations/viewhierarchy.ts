@@ -27,6 +27,17 @@ async function processEvent(event: Event, hint: EventHint): Promise<Event> {
     return event;
   }
 
+  const stored = await NATIVE.storeViewHierarchy();
+  if (stored) {
+    if (stored.length > 0) {
+      hint.attachments = [
+        ...stored.map(attachment => ({ ...attachment, attachmentType })),
+        ...(hint?.attachments || []),
+      ];
+    }
+    return event;
+  }
+
   let viewHierarchy: Uint8Array | null = null;
   try {
     viewHierarchy = await NATIVE.fetchViewHierarchy();
@@ -219,6 +219,66 @@ export interface BaseReactNativeOptions {
    */
   ndkAppHangTimeoutIntervalMillis?: number;
 
+  /**
+   * Bounds of the native queue that envelopes sent from JS wait in before they are handed to the
+   * Android SDK. Envelopes dropped because the queue is full are reported as client reports with
+   * the `queue_overflow` reason.
+   *
+   * Envelopes captured right before a crash skip the queue.
+   *
+   * @default { maxItems: 100, maxBytes: 16777216, overflowPolicy: 'dropOldest' }
+   * @platform android
+   */
+  androidEnvelopeQueue?: EnvelopeQueueOptions;
+
+  /**
+   * Drops envelopes from JS that were already captured natively before they are written to the
+   * outbox. Events and transactions are recognized by their event id, other envelopes by a digest
+   * of the whole envelope. Envelopes captured by the native SDK itself are not deduplicated.
+   *
+   * When the object is set, `enabled` defaults to `true`.
+   *
+   * @default undefined (disabled)
+   * @platform android
+   */
+  androidEnvelopeDeduplication?: EnvelopeDeduplicationOptions;
+
+  /**
+   * When enabled, envelopes captured right before the JS layer crashes are written straight to a
+   * file in the cache directory instead of going through the native SDK. They are sent on the
+   * next launch. The current session is ended as crashed when the envelope is written.
+   *
+   * This shortens the time the dying process spends on the crash envelope and avoids large heap
+   * allocations while doing so. If the file can't be written, the envelope is captured through the
+   * native SDK as usual.
+   *
+   * @default false
+   * @platform android
+   */
+  androidSpoolHardCrashEnvelopes?: boolean;
+
+  /**
+   * Limits how many envelope items per minute JS can hand to the native SDK, per item type, and
+   * how many bytes per minute in total. Items over the limit are dropped before they are persisted
+   * and reported as client reports with the `ratelimit_backoff` reason. Envelopes captured right
+   * before a crash are never limited.
+   *
+   * By default nothing is limited.
+   *
+   * @platform android
+   */
+  androidEnvelopeRateLimits?: EnvelopeRateLimitOptions;
+
+  /**
+   * Rules dropping envelope items natively, decided from the item headers before the envelope is
+   * decoded. Dropped items are reported as client reports with the `event_processor` reason.
+   *
+   * By default nothing is dropped.
+   *
+   * @platform android
+   */
+  androidEnvelopeDropRules?: EnvelopeDropRulesOptions;
+
   /**
    * Use this feature to enable the Sentry MetricKit integration.
    *
@@ -278,6 +338,39 @@ export interface BaseReactNativeOptions {
      * A list of native view class names to exclude from masking in error screenshots.
      */
     unmaskedViewClasses?: string[];
+    /**
+     * Error screenshots are downscaled so that their longer side is at most this many pixels.
+     * `0` keeps the screen resolution.
+     *
+     * @default 0
+     * @platform android
+     */
+    maxDimension?: number;
+    /**
+     * The image format of error screenshots. Lossy formats are considerably smaller and faster
+     * to encode than PNG.
+     *
+     * @default 'png'
+     * @platform android
+     */
+    format?: 'png' | 'jpeg' | 'webp';
+    /**
+     * The compression quality (0-100) used for `jpeg` and `webp` error screenshots.
+     *
+     * @default 80
+     * @platform android
+     */
+    quality?: number;
+    /**
+     * For how long, in milliseconds, a screenshot is reused for further errors as long as nothing
+     * was drawn on the screen in the meantime. This keeps bursts of errors from a render loop from
+     * capturing and encoding the same frame over and over. `0` captures a new screenshot for every
+     * error.
+     *
+     * @default 1000
+     * @platform android
+     */
+    reuseWindowMillis?: number;
   };
 
   /**
@@ -287,6 +380,155 @@ export interface BaseReactNativeOptions {
    */
   attachViewHierarchy?: boolean;
 
+  /**
+   * Limits for the view hierarchy attached to errors. Once a limit is reached, the remaining views
+   * are left out of the attachment.
+   *
+   * @platform android
+   */
+  viewHierarchy?: {
+    /**
+     * How many levels of nested views are included.
+     *
+     * @default 100
+     */
+    maxDepth?: number;
+    /**
+     * How many views are included at most.
+     *
+     * @default 10000
+     */
+    maxNodes?: number;
+    /**
+     * The size of the serialized view hierarchy, in bytes, after which no further views are added.
+     *
+     * @default 4194304
+     */
+    maxBytes?: number;
+    /**
+     * Keeps the serialized views of each screen between errors. Only views that changed since the
+     * last error are serialized again, and if nothing was drawn in the meantime the last view
+     * hierarchy is reused as it is. Trades memory for less work on screens that report many errors.
+     *
+     * @default false
+     */
+    incremental?: boolean;
+  };
+
+  /**
+   * Keeps screenshots and view hierarchies captured for errors in a native store in the cache
+   * directory. Only a handle of each attachment travels to JS and back, the native SDK adds the
+   * stored bytes when the event's envelope is captured.
+   *
+   * Attachments that are never sent, for example because the event was dropped, are deleted after
+   * `ttlMillis`. When the store exceeds `maxBytes` the least recently used attachments are deleted.
+   *
+   * While enabled, `hint.attachments` in `beforeSend` contain the handles instead of the bytes.
+   *
+   * @platform android
+   */
+  androidAttachmentStore?: {
+    /**
+     * @default true
+     */
+    enabled?: boolean;
+    /**
+     * Total size of the stored attachments, in bytes.
+     *
+     * @default 20971520
+     */
+    maxBytes?: number;
+    /**
+     * How long an attachment is kept when it is not sent, in milliseconds.
+     *
+     * @default 300000
+     */
+    ttlMillis?: number;
+  };
+
+  /**
+   * Queues scope changes synced from JS (user, tags, extras, contexts, attributes and breadcrumbs)
+   * and applies them to the native scope in batches, off the native modules thread. Repeated writes
+   * of the same tag, extra, context or attribute collapse into the last one.
+   *
+   * Queued changes are applied after the next frame, before an event is captured or the native
+   * scope is read, and in place once `maxPendingWrites` changes are waiting. NDK crashes that
+   * happen in between see the scope without the queued changes.
+   *
+   * @platform android
+   */
+  androidScopeWriter?: {
+    /**
+     * @default true
+     */
+    enabled?: boolean;
+    /**
+     * Number of queued scope changes that are applied right away.
+     *
+     * @default 64
+     */
+    maxPendingWrites?: number;
+  };
+
+  /**
+   * Keeps breadcrumbs synced from JS in a compact ring buffer instead of the native scope, which
+   * uses less memory with a large `maxBreadcrumbs`. They are added to native events when the events
+   * are captured.
+   *
+   * Breadcrumbs in the buffer are not persisted with the scope, are not included in NDK crashes and
+   * session replays, and unknown breadcrumb keys are dropped.
+   *
+   * @default false
+   * @platform android
+   */
+  androidCompactBreadcrumbs?: boolean;
+
+  /**
+   * Converts contexts set from JS for the native scope when they are first read, for example when a
+   * native event is captured, instead of on every `setContext`. Useful for large contexts that
+   * change often.
+   *
+   * Lazy contexts are read-only for native code, like `beforeSend` callbacks set natively.
+   *
+   * @default false
+   * @platform android
+   */
+  androidLazyContexts?: boolean;
+
+  /**
+   * Skips `setUser`, `setTag` and `setContext` calls from JS that don't change the value last set
+   * from JS, before they reach the native scope and its observers. Users and contexts are compared
+   * by a structural hash.
+   *
+   * Only values set from JS are remembered. Enable this only when native code doesn't change the
+   * same user, tags or contexts.
+   *
+   * @default false
+   * @platform android
+   */
+  androidSkipUnchangedScopeWrites?: boolean;
+
+  /**
+   * Batches the scope changes synced to the NDK when `enableNdkScopeSync` is enabled. Changes are
+   * synced at most once per `intervalMillis`, and repeated changes of the same user, tag or extra
+   * collapse into the last one.
+   *
+   * Pending changes are synced before the native scope is read and before crashes are captured on
+   * the Java and JS side. Native crashes that happen in between don't see the pending changes.
+   *
+   * @platform android
+   */
+  androidNdkScopeSyncBatching?: {
+    /**
+     * @default true
+     */
+    enabled?: boolean;
+    /**
+     * @default 250
+     */
+    intervalMillis?: number;
+  };
+
   /**
    * When enabled, Sentry will capture failed XHR/Fetch requests. This option also enabled HTTP Errors on iOS.
    * [Sentry Android Gradle Plugin](https://docs.sentry.io/platforms/android/configuration/integrations/okhttp/)
@@ -563,6 +805,99 @@ export interface NativeLogEntry {
 
 export type SentryReplayQuality = 'low' | 'medium' | 'high';
 
+/**
+ * What the native envelope queue does when an envelope doesn't fit.
+ * - `dropOldest`: Evicts the oldest queued envelopes
+ * - `dropNewest`: Drops the incoming envelope
+ * - `block`: Waits up to 500ms for the queue to drain, then drops the incoming envelope
+ *   Envelopes passed as bytes from the JS thread never wait and are dropped like with `dropNewest`
+ */
+export type EnvelopeQueueOverflowPolicy = 'dropOldest' | 'dropNewest' | 'block';
+
+/**
+ * Rules for dropping envelope items natively.
+ */
+export interface EnvelopeDropRulesOptions {
+  /**
+   * Attachments bigger than this many bytes are dropped.
+   */
+  maxAttachmentBytes?: number;
+
+  /**
+   * Drops profiles while the device is in battery saver mode.
+   *
+   * @default false
+   */
+  dropProfilesInPowerSaveMode?: boolean;
+}
+
+/**
+ * Items per minute allowed for each envelope item type, plus a total byte budget.
+ * Item types without a value are not limited.
+ */
+export interface EnvelopeRateLimitOptions {
+  event?: number;
+  transaction?: number;
+  replay_video?: number;
+  profile?: number;
+  attachment?: number;
+  [itemType: string]: number | undefined;
+
+  /**
+   * Bytes per minute shared by all envelopes. An envelope bigger than this is always dropped.
+   */
+  bytesPerMinute?: number;
+}
+
+/**
+ * Configuration options for the native envelope deduplication.
+ */
+export interface EnvelopeDeduplicationOptions {
+  /**
+   * @default true when `androidEnvelopeDeduplication` is set
+   */
+  enabled?: boolean;
+
+  /**
+   * Number of most recently captured envelopes that are remembered.
+   *
+   * @default 256
+   */
+  maxEntries?: number;
+
+  /**
+   * Persists the remembered envelopes to the cache directory, so envelopes resubmitted after a
+   * restart are recognized as well.
+   *
+   * @default false
+   */
+  persist?: boolean;
+}
+
+/**
+ * Configuration options for the native envelope queue.
+ */
+export interface EnvelopeQueueOptions {
+  /**
+   * Maximum number of envelopes waiting to be captured.
+   *
+   * @default 100
+   */
+  maxItems?: number;
+
+  /**
+   * Approximate memory budget of the queued envelopes in bytes.
+   *
+   * @default 16777216 (16 MiB)
+   */
+  maxBytes?: number;
+
+  /**
+   * @default 'dropOldest'
+   */
+  overflowPolicy?: EnvelopeQueueOverflowPolicy;
+}
+
 /**
  * UI profiling lifecycle modes.
  * - `trace`: Profiler runs based on active sampled spans
@@ -19,6 +19,13 @@ const syncedToNativeMap = new WeakMap<Scope, true>();
  */
 const deferredNativeSyncBreadcrumbs = new WeakSet<Breadcrumb>();
 
+/**
+ * Breadcrumbs added after the first one of the current tick, passed to the native SDKs
+ * in one `addBreadcrumbs` call once the tick is over. `undefined` when no breadcrumb
+ * was synced in the current tick.
+ */
+let pendingNativeBreadcrumbs: Breadcrumb[] | undefined;
+
 /**
  * Normalize a breadcrumb the same way it is normalized before being added to the
  * scope, so the native SDKs always receive the same shape.
@@ -53,7 +60,36 @@ export function deferBreadcrumbNativeSync(breadcrumb: Breadcrumb): void {
  * complete a `deferBreadcrumbNativeSync` handover.
  */
 export function syncBreadcrumbToNative(breadcrumb: Breadcrumb): void {
-  NATIVE.addBreadcrumb(normalizeBreadcrumbForNative(breadcrumb));
+  addBreadcrumbToNative(normalizeBreadcrumbForNative(breadcrumb));
+}
+
+/**
+ * Forward a breadcrumb to the native SDKs. The first breadcrumb of a tick is passed right
+ * away, the ones following it in the same tick are batched, so a burst of breadcrumbs
+ * costs two bridge calls instead of one per breadcrumb.
+ */
+function addBreadcrumbToNative(breadcrumb: Breadcrumb): void {
+  if (pendingNativeBreadcrumbs) {
+    pendingNativeBreadcrumbs.push(breadcrumb);
+    return;
+  }
+
+  pendingNativeBreadcrumbs = [];
+  Promise.resolve()
+    .then(flushBreadcrumbsToNative)
+    .then(undefined, error => debug.error('[ScopeSync] Failed to sync breadcrumbs to native.', error));
+  NATIVE.addBreadcrumb(breadcrumb);
+}
+
+/**
+ * Pass the batched breadcrumbs to the native SDKs, in the order they were added.
+ */
+function flushBreadcrumbsToNative(): void {
+  const breadcrumbs = pendingNativeBreadcrumbs;
+  pendingNativeBreadcrumbs = undefined;
+  if (breadcrumbs && breadcrumbs.length > 0) {
+    NATIVE.addBreadcrumbs(breadcrumbs);
+  }
 }
 
 /**
@@ -76,17 +112,16 @@ export function enableSyncToNative(scope: Scope): void {
   });
 
   fillTyped(scope, 'setTags', original => (tags): Scope => {
-    // As native only has setTag, we just loop through each tag key.
+    const processedTags: { [key: string]: string } = {};
     Object.keys(tags).forEach(key => {
-      NATIVE.setTag(key, NATIVE.primitiveProcessor(tags[key]));
+      processedTags[key] = NATIVE.primitiveProcessor(tags[key]);
     });
+    NATIVE.setTags(processedTags);
     return original.call(scope, tags);
   });
 
   fillTyped(scope, 'setExtras', original => (extras): Scope => {
-    Object.keys(extras).forEach(key => {
-      NATIVE.setExtra(key, extras[key]);
-    });
+    NATIVE.setExtras(extras);
     return original.call(scope, extras);
   });
 
@@ -110,7 +145,7 @@ export function enableSyncToNative(scope: Scope): void {
 
     const finalBreadcrumb = scope.getLastBreadcrumb();
     if (finalBreadcrumb) {
-      NATIVE.addBreadcrumb(finalBreadcrumb);
+      addBreadcrumbToNative(finalBreadcrumb);
     } else {
       debug.warn('[ScopeSync] Last created breadcrumb is undefined. Skipping sync to native.');
     }
@@ -119,6 +154,8 @@ export function enableSyncToNative(scope: Scope): void {
   });
 
   fillTyped(scope, 'clearBreadcrumbs', original => (): Scope => {
+    // Batched breadcrumbs were added before the clear, native has to receive them first.
+    flushBreadcrumbsToNative();
     NATIVE.clearBreadcrumbs();
     return original.call(scope);
   });
@@ -8,10 +8,14 @@ import type {
 
 import { makePromiseBuffer } from '@sentry/core';
 
+import { isHardCrash } from '../misc';
 import { NATIVE } from '../wrapper';
 
 export const DEFAULT_BUFFER_SIZE = 30;
 
+/** Maximum number of envelopes passed to native in a single `sendEnvelopes` call. */
+export const MAX_BATCH_SIZE = 30;
+
 export type BaseNativeTransport = BaseTransportOptions;
 
 export interface BaseNativeTransportOptions {
@@ -23,6 +27,10 @@ export class NativeTransport implements Transport {
   /** A simple buffer holding all requests. */
   protected readonly _buffer: PromiseBuffer<void>;
 
+  /** Envelopes waiting for the in-flight native call to finish. */
+  private readonly _pending: { envelope: Envelope; resolve: () => void; reject: (reason: unknown) => void }[] = [];
+  private _isSending: boolean = false;
+
   public constructor(options: BaseNativeTransportOptions = {}) {
     this._buffer = makePromiseBuffer(options.bufferSize || DEFAULT_BUFFER_SIZE);
   }
@@ -34,7 +42,7 @@ export class NativeTransport implements Transport {
    */
   public send(envelope: Envelope): PromiseLike<TransportMakeRequestResponse> {
     // TODO: We currently can't retrieve the response information from native
-    return this._buffer.add(() => NATIVE.sendEnvelope(envelope)).then(() => ({}));
+    return this._buffer.add(() => this._enqueue(envelope)).then(() => ({}));
   }
 
   /**
@@ -48,6 +56,60 @@ export class NativeTransport implements Transport {
   public flush(timeout?: number): PromiseLike<boolean> {
     return this._buffer.drain(timeout);
   }
+
+  /**
+   * Queues the envelope for native. Envelopes that arrive while a native call is in flight are
+   * passed to native together in one `sendEnvelopes` call once it finishes, so a draining backlog
+   * doesn't cost one bridge round trip per envelope.
+   *
+   * Hard crashes are passed to native right away, the app is about to be terminated.
+   *
+   * Batched or not, envelopes native dropped on purpose, e.g. because of a rate limit, resolve.
+   * Only a failing native call rejects.
+   */
+  private _enqueue(envelope: Envelope): PromiseLike<void> {
+    if (isHardCrashEnvelope(envelope)) {
+      return NATIVE.sendEnvelope(envelope);
+    }
+
+    return new Promise<void>((resolve, reject) => {
+      this._pending.push({ envelope, resolve, reject });
+      this._sendPending();
+    });
+  }
+
+  private _sendPending(): void {
+    if (this._isSending || this._pending.length === 0) {
+      return;
+    }
+
+    const batch = this._pending.splice(0, MAX_BATCH_SIZE);
+    this._isSending = true;
+
+    const [first] = batch;
+    const request: PromiseLike<void> =
+      batch.length === 1 && first
+        ? NATIVE.sendEnvelope(first.envelope).then(
+            () => first.resolve(),
+            (reason: unknown) => first.reject(reason),
+          )
+        : NATIVE.sendEnvelopes(batch.map(item => item.envelope)).then(
+            () => batch.forEach(item => item.resolve()),
+            (reason: unknown) => batch.forEach(item => item.reject(reason)),
+          );
+    request.then(() => {
+      this._isSending = false;
+      this._sendPending();
+    });
+  }
+}
+
+/**
+ * Checks if the envelope contains an event of an unhandled JS error that crashes the app.
+ */
+function isHardCrashEnvelope(envelope: Envelope): boolean {
+  const items = envelope[1];
+  return Array.isArray(items) && items.some(([, payload]) => isHardCrash(payload));
 }
 
 /**
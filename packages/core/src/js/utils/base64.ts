@@ -1,4 +1,4 @@
-import { base64StringFromByteArray } from '../vendor';
+import { base64StringFromByteArray, byteArrayFromBase64String } from '../vendor';
 
 // Chunk size for `String.fromCharCode.apply` — keeps argument count well below
 // engine limits while still amortising the call overhead across many bytes.
@@ -23,3 +23,21 @@ export function encodeToBase64(bytes: Uint8Array): string {
   }
   return nativeBtoa(binary);
 }
+
+/**
+ * Decodes a base64 string to bytes. Uses the runtime's native `atob` when
+ * available and falls back to the bundled JS decoder otherwise.
+ */
+export function decodeFromBase64(base64: string): Uint8Array {
+  const nativeAtob = (globalThis as { atob?: (input: string) => string }).atob;
+  if (typeof nativeAtob !== 'function') {
+    return byteArrayFromBase64String(base64);
+  }
+
+  const binary = nativeAtob(base64);
+  const bytes = new Uint8Array(binary.length);
+  for (let i = 0; i < binary.length; i++) {
+    bytes[i] = binary.charCodeAt(i);
+  }
+  return bytes;
+}
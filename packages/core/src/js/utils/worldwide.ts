@@ -40,6 +40,17 @@ export interface ReactNativeInternalGlobal extends InternalGlobal {
   TextEncoder?: TextEncoder;
   alert?: (message: string) => void;
   __SENTRY_OPTIONS__?: ReactNativeOptions;
+  /**
+   * JSI host function installed by `RNSentry.installBinaryEnvelopeCapture` (Android, New Architecture).
+   * Returns `1` when native accepted the envelope, `2` when native dropped it and `0` when the bytes
+   * could not be passed to native, in which case it should be sent via `captureEnvelope`.
+   */
+  __SENTRY_CAPTURE_ENVELOPE_BYTES__?: (envelope: ArrayBuffer, hardCrashed: boolean) => number;
+  /**
+   * JSI host function installed together with `__SENTRY_CAPTURE_ENVELOPE_BYTES__`.
+   * Returns the unwrapped Base64 encoding of the buffer, `undefined` when it could not be encoded.
+   */
+  __SENTRY_ENCODE_BASE64__?: (buffer: ArrayBuffer, urlSafe: boolean) => string | undefined;
   SENTRY_RELEASE?: {
     /** Used by Sentry Webpack Plugin, not used by RN, only to silence TS */
     id?: string;
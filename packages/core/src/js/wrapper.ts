@@ -1,5 +1,6 @@
 /* oxlint-disable eslint(max-lines) */
 import type {
+  Attachment,
   BaseEnvelopeItemHeaders,
   Breadcrumb,
   Envelope,
@@ -16,6 +17,7 @@ import { NativeModules, Platform } from 'react-native';
 
 import type {
   NativeAppStartResponse,
+  NativeAttachmentHandle,
   NativeDeviceContextsResponse,
   NativeFramesResponse,
   NativeReleaseResponse,
@@ -30,11 +32,12 @@ import type { MobileReplayOptions } from './replay/mobilereplay';
 import type { RequiredKeysUser } from './user';
 
 import { isHardCrash } from './misc';
-import { encodeToBase64 } from './utils/base64';
+import { decodeFromBase64, encodeToBase64 } from './utils/base64';
 import { encodeUTF8 } from './utils/encode';
 import { isTurboModuleEnabled } from './utils/environment';
 import { convertToNormalizedObject } from './utils/normalize';
 import { ReactNativeLibraries } from './utils/rnlibraries';
+import { RN_GLOBAL_OBJ } from './utils/worldwide';
 import { SDK_VERSION } from './version';
 
 /**
@@ -54,6 +57,36 @@ export interface Screenshot {
   filename: string;
 }
 
+/**
+ * Content type of attachments whose data is a handle of the native attachment store.
+ * Native replaces the handle with the stored bytes and their real content type when the envelope is captured.
+ */
+export const NATIVE_ATTACHMENT_HANDLE_CONTENT_TYPE = 'application/vnd.sentry.react-native.attachment-handle';
+
+/**
+ * A byte range of the data behind an uri.
+ */
+export interface UriDataRange {
+  /** First byte to read. Defaults to the start of the data. */
+  offset?: number;
+  /** Maximum number of bytes to read. Defaults to the rest of the data. */
+  length?: number;
+}
+
+/**
+ * A scope mutation applied by the native SDKs as part of an ordered batch, see `NATIVE.applyScopeOperations`.
+ * The values are serialized the same way as for the matching single `NATIVE` setter.
+ */
+export type NativeScopeOperation =
+  | { op: 'setUser'; user: { [key: string]: unknown } | null; otherUserKeys: { [key: string]: string } | null }
+  | { op: 'setTag' | 'setExtra' | 'setAttribute'; key: string; value: string }
+  | { op: 'setContext'; key: string; value: Record<string, unknown> | null }
+  | { op: 'setAttributes'; value: Record<string, string> }
+  | { op: 'addBreadcrumb'; value: Breadcrumb }
+  | { op: 'addBreadcrumbs'; value: Breadcrumb[] }
+  | { op: 'removeAttribute'; key: string }
+  | { op: 'clearBreadcrumbs' };
+
 export type NativeSdkOptions = Partial<ReactNativeClientOptions> & {
   devServerUrl: string | undefined;
   defaultSidecarUrl: string | undefined;
@@ -77,9 +110,11 @@ interface SentryNativeWrapper {
 
   _setPrimitiveProcessor: (processor: (value: Primitive) => void) => void;
   _processItem(envelopeItem: EnvelopeItem): EnvelopeItem;
+  _serializeEnvelope(envelope: Envelope): { bytes: Uint8Array; hardCrashed: boolean };
   _processLevels(event: Event): Event;
   _processLevel(level: SeverityLevel): SeverityLevel;
   _serializeObject(data: { [key: string]: unknown }): { [key: string]: string };
+  _serializeExtra(key: string, extra: unknown): string;
   _isModuleLoaded(module: Spec | undefined): module is Spec;
 
   isNativeAvailable(): boolean;
@@ -88,7 +123,13 @@ interface SentryNativeWrapper {
   closeNativeSdk(): PromiseLike<void>;
 
   sendEnvelope(envelope: Envelope): Promise<void>;
+  sendEnvelopes(envelopes: Envelope[]): Promise<boolean[]>;
   captureScreenshot(): Promise<Screenshot[] | null>;
+  /**
+   * Captures screenshots into the native attachment store.
+   * @returns attachments referencing the stored screenshots, `null` if the store is not available
+   */
+  storeScreenshot(): Promise<Attachment[] | null>;
 
   fetchNativeRelease(): PromiseLike<NativeReleaseResponse>;
   fetchNativeDeviceContexts(): PromiseLike<NativeDeviceContextsResponse | null>;
@@ -104,20 +145,35 @@ interface SentryNativeWrapper {
   resumeAppHangTracking(): void;
 
   addBreadcrumb(breadcrumb: Breadcrumb): void;
+  /**
+   * Adds the breadcrumbs to the native scope in one call.
+   */
+  addBreadcrumbs(breadcrumbs: Breadcrumb[]): void;
   // oxlint-disable-next-line typescript-eslint(no-explicit-any)
   setContext(key: string, context: { [key: string]: any } | null): void;
   clearBreadcrumbs(): void;
   setExtra(key: string, extra: unknown): void;
+  setExtras(extras: { [key: string]: unknown }): void;
   setUser(user: User | null): void;
   setTag(key: string, value?: string): void;
+  setTags(tags: { [key: string]: string | undefined }): void;
   setAttribute(key: string, value: string | number | boolean): void;
   setAttributes(attributes: Record<string, string | number | boolean>): void;
   removeAttribute(key: string): void;
+  /**
+   * Applies the scope mutations in order, crossing the bridge and configuring the native scope once.
+   */
+  applyScopeOperations(operations: NativeScopeOperation[]): void;
 
   nativeCrash(): void;
 
   fetchModules(): Promise<Record<string, string> | null>;
   fetchViewHierarchy(): PromiseLike<Uint8Array | null>;
+  /**
+   * Captures the view hierarchy into the native attachment store.
+   * @returns attachments referencing the stored view hierarchy, `null` if the store is not available
+   */
+  storeViewHierarchy(): Promise<Attachment[] | null>;
 
   startProfiling(platformProfilers: boolean): boolean;
   stopProfiling(): {
@@ -137,21 +193,119 @@ interface SentryNativeWrapper {
   captureReplay(isHardCrash: boolean): Promise<string | null>;
   getCurrentReplayId(): string | null;
 
+  /**
+   * Number of `setUser`, `setTag` and `setContext` calls native skipped because they didn't change
+   * the scope, see `androidSkipUnchangedScopeWrites`. Always `0` on iOS.
+   */
+  getElidedScopeWriteCount(): number | null;
+
   crashedLastRun(): Promise<boolean | null>;
   getNewScreenTimeToDisplay(): Promise<number | null | undefined>;
 
-  getDataFromUri(uri: string): Promise<Uint8Array | null>;
+  getDataFromUri(uri: string, range?: UriDataRange): Promise<Uint8Array | null>;
+  /**
+   * Reads the data behind the uri into the native attachment store.
+   * @returns an attachment referencing the stored data, `null` if the store is not available or the read failed
+   */
+  storeDataFromUri(uri: string, range?: UriDataRange): Promise<Attachment | null>;
   popTimeToDisplayFor(key: string): Promise<number | undefined | null>;
 
   setActiveSpanId(spanId: string): void;
 
-  encodeToBase64(data: Uint8Array): Promise<string | null>;
+  /**
+   * Encodes the bytes natively, without wrapping lines.
+   * On the New Architecture the bytes are passed as an `ArrayBuffer` instead of an array of numbers.
+   */
+  encodeToBase64(data: Uint8Array, options?: { urlSafe?: boolean }): Promise<string | null>;
 
   primitiveProcessor(value: Primitive): string;
 }
 
 const EOL = encodeUTF8('\n');
 
+/**
+ * Installs the JSI function used by `sendEnvelope` to pass envelopes to native as an `ArrayBuffer`.
+ * Only available on Android with the New Architecture, everywhere else envelopes stay base64 encoded.
+ */
+function installBinaryEnvelopeCapture(module: Spec): void {
+  try {
+    if (module.installBinaryEnvelopeCapture()) {
+      debug.log('[NATIVE] Envelopes are passed to native as bytes.');
+    }
+  } catch (e) {
+    debug.warn('[NATIVE] Failed to install binary envelope capture, envelopes will be base64 encoded.', e);
+  }
+}
+
+/** Results of `__SENTRY_CAPTURE_ENVELOPE_BYTES__`, see `RNSentryJsiEnvelopeBinding`. */
+const CAPTURE_BYTES_ACCEPTED = 1;
+const CAPTURE_BYTES_DROPPED = 2;
+
+/**
+ * Passes the envelope to native through the JSI function installed by `installBinaryEnvelopeCapture`.
+ * @returns `true` if native accepted the envelope, `false` if native dropped it on purpose and
+ *   `undefined` if the bytes didn't reach native and the envelope has to be sent as base64.
+ */
+function captureEnvelopeAsBytes(bytes: Uint8Array, hardCrashed: boolean): boolean | undefined {
+  const captureEnvelopeBytes = RN_GLOBAL_OBJ.__SENTRY_CAPTURE_ENVELOPE_BYTES__;
+  if (typeof captureEnvelopeBytes !== 'function') {
+    return undefined;
+  }
+  let result: number;
+  try {
+    result = captureEnvelopeBytes(toArrayBuffer(bytes), hardCrashed);
+  } catch (e) {
+    debug.warn('[NATIVE] Failed to capture envelope as bytes, falling back to base64.', e);
+    return undefined;
+  }
+  if (result === CAPTURE_BYTES_ACCEPTED) {
+    return true;
+  }
+  if (result === CAPTURE_BYTES_DROPPED) {
+    // Sending it again as base64 would run it through the native filters a second time.
+    return false;
+  }
+  return undefined;
+}
+
+/**
+ * Encodes the bytes through the JSI function installed by `installBinaryEnvelopeCapture`.
+ * @returns the Base64 string, or `undefined` if the bytes have to be sent over the bridge
+ */
+function encodeToBase64AsBytes(bytes: Uint8Array, urlSafe: boolean): string | undefined {
+  const encodeBase64 = RN_GLOBAL_OBJ.__SENTRY_ENCODE_BASE64__;
+  if (typeof encodeBase64 !== 'function') {
+    return undefined;
+  }
+  try {
+    return encodeBase64(toArrayBuffer(bytes), urlSafe) ?? undefined;
+  } catch (e) {
+    debug.warn('[NATIVE] Failed to encode bytes as an ArrayBuffer, falling back to the bridge.', e);
+    return undefined;
+  }
+}
+
+/**
+ * Returns the buffer backing the given bytes, copying only when the view doesn't cover the whole buffer.
+ */
+function toArrayBuffer(bytes: Uint8Array): ArrayBuffer {
+  if (bytes.byteOffset === 0 && bytes.byteLength === bytes.buffer.byteLength) {
+    return bytes.buffer as ArrayBuffer;
+  }
+  return bytes.slice().buffer as ArrayBuffer;
+}
+
+/**
+ * An attachment whose data is the handle of bytes kept by the native attachment store.
+ */
+function toStoredAttachment(handle: NativeAttachmentHandle): Attachment {
+  return {
+    filename: handle.filename,
+    data: handle.handle,
+    contentType: NATIVE_ATTACHMENT_HANDLE_CONTENT_TYPE,
+  };
+}
+
 /**
  * Our internal interface for calling native functions
  */
@@ -184,54 +338,51 @@ export const NATIVE: SentryNativeWrapper = {
       throw this._NativeClientError;
     }
 
-    const [envelopeHeader, envelopeItems] = envelope;
+    const { bytes, hardCrashed } = this._serializeEnvelope(envelope);
+    if (captureEnvelopeAsBytes(bytes, hardCrashed) !== undefined) {
+      return;
+    }
 
-    const headerString = JSON.stringify(envelopeHeader);
-    const headerBytes = encodeUTF8(headerString);
-    let envelopeBytes: Uint8Array = new Uint8Array(headerBytes.length + EOL.length);
-    envelopeBytes.set(headerBytes);
-    envelopeBytes.set(EOL, headerBytes.length);
+    await RNSentry.captureEnvelope(encodeToBase64(bytes), { hardCrashed });
+  },
 
-    let hardCrashed: boolean = false;
-    for (const rawItem of envelopeItems) {
-      const [itemHeader, itemPayload] = this._processItem(rawItem);
+  /**
+   * Sending multiple envelopes over the bridge to native in a single call
+   * @param envelopes Envelopes
+   * @returns Per envelope result, `true` if the envelope was accepted by native
+   */
+  async sendEnvelopes(envelopes: Envelope[]): Promise<boolean[]> {
+    if (!this.enableNative) {
+      debug.warn('Events were skipped as native SDK is not enabled.');
+      return envelopes.map(() => false);
+    }
 
-      let bytesContentType: string;
-      let bytesPayload: number[] | Uint8Array | undefined;
+    if (!this._isModuleLoaded(RNSentry)) {
+      throw this._NativeClientError;
+    }
 
-      if (typeof itemPayload === 'string') {
-        bytesContentType = 'text/plain';
-        bytesPayload = encodeUTF8(itemPayload);
-      } else if (itemPayload instanceof Uint8Array) {
-        bytesContentType =
-          typeof itemHeader.content_type === 'string' ? itemHeader.content_type : 'application/octet-stream';
-        bytesPayload = itemPayload;
+    const results: boolean[] = new Array(envelopes.length);
+    const base64Indexes: number[] = [];
+    const base64Envelopes: { bytes: string; hardCrashed: boolean }[] = [];
+    envelopes.forEach((envelope, index) => {
+      const { bytes, hardCrashed } = this._serializeEnvelope(envelope);
+      const captured = captureEnvelopeAsBytes(bytes, hardCrashed);
+      if (captured !== undefined) {
+        results[index] = captured;
       } else {
-        bytesContentType = typeof itemHeader.content_type === 'string' ? itemHeader.content_type : 'application/json';
-        bytesPayload = encodeUTF8(JSON.stringify(itemPayload));
-        if (!hardCrashed) {
-          hardCrashed = isHardCrash(itemPayload);
-        }
+        base64Indexes.push(index);
+        base64Envelopes.push({ bytes: encodeToBase64(bytes), hardCrashed });
       }
+    });
 
-      // Content type is not inside BaseEnvelopeItemHeaders.
-      (itemHeader as BaseEnvelopeItemHeaders).content_type = bytesContentType;
-      (itemHeader as BaseEnvelopeItemHeaders).length = bytesPayload.length;
-      const serializedItemHeader = JSON.stringify(itemHeader);
-
-      const bytesItemHeader = encodeUTF8(serializedItemHeader);
-      const newBytes = new Uint8Array(
-        envelopeBytes.length + bytesItemHeader.length + EOL.length + bytesPayload.length + EOL.length,
-      );
-      newBytes.set(envelopeBytes);
-      newBytes.set(bytesItemHeader, envelopeBytes.length);
-      newBytes.set(EOL, envelopeBytes.length + bytesItemHeader.length);
-      newBytes.set(bytesPayload, envelopeBytes.length + bytesItemHeader.length + EOL.length);
-      newBytes.set(EOL, envelopeBytes.length + bytesItemHeader.length + EOL.length + bytesPayload.length);
-      envelopeBytes = newBytes;
+    if (base64Envelopes.length > 0) {
+      const nativeResults = await RNSentry.captureEnvelopes(base64Envelopes);
+      base64Indexes.forEach((envelopeIndex, resultIndex) => {
+        results[envelopeIndex] = !!nativeResults?.[resultIndex];
+      });
     }
 
-    await RNSentry.captureEnvelope(encodeToBase64(envelopeBytes), { hardCrashed });
+    return results;
   },
 
   /**
@@ -328,6 +479,10 @@ export const NATIVE: SentryNativeWrapper = {
     this.nativeIsReady = nativeIsReady;
     this.enableNative = true;
 
+    if (nativeIsReady && isTurboModuleEnabled()) {
+      installBinaryEnvelopeCapture(RNSentry);
+    }
+
     return nativeIsReady;
   },
 
@@ -493,6 +648,19 @@ export const NATIVE: SentryNativeWrapper = {
     RNSentry.setTag(key, stringifiedValue);
   },
 
+  /**
+   * Sets multiple tags in the native scope at once.
+   * @param tags key-value map, values are stringified like in `setTag`
+   */
+  setTags(tags: { [key: string]: string | undefined }): void {
+    this.applyScopeOperations(
+      Object.keys(tags).map(key => {
+        const value = tags[key];
+        return { op: 'setTag', key, value: typeof value === 'string' ? value : JSON.stringify(value) };
+      }),
+    );
+  },
+
   /**
    * Sets an extra in the native scope, will stringify
    * extra value if it isn't already a string.
@@ -507,25 +675,17 @@ export const NATIVE: SentryNativeWrapper = {
       throw this._NativeClientError;
     }
 
-    if (typeof extra === 'string') {
-      return RNSentry.setExtra(key, extra);
-    }
-    if (typeof extra === 'undefined') {
-      return RNSentry.setExtra(key, 'undefined');
-    }
-
-    let stringifiedExtra: string | undefined;
-    try {
-      const normalizedExtra = normalize(extra);
-      stringifiedExtra = JSON.stringify(normalizedExtra);
-    } catch (e) {
-      debug.error('Extra for key ${key} not passed to native SDK, because it contains non-stringifiable values', e);
-    }
+    RNSentry.setExtra(key, this._serializeExtra(key, extra));
+  },
 
-    if (typeof stringifiedExtra === 'string') {
-      return RNSentry.setExtra(key, stringifiedExtra);
-    }
-    return RNSentry.setExtra(key, '**non-stringifiable**');
+  /**
+   * Sets multiple extras in the native scope at once.
+   * @param extras key-value map, values are stringified like in `setExtra`
+   */
+  setExtras(extras: { [key: string]: unknown }): void {
+    this.applyScopeOperations(
+      Object.keys(extras).map(key => ({ op: 'setExtra', key, value: this._serializeExtra(key, extras[key]) })),
+    );
   },
 
   /**
@@ -547,6 +707,30 @@ export const NATIVE: SentryNativeWrapper = {
     });
   },
 
+  /**
+   * Adds breadcrumbs to the native scope in one call.
+   * @param breadcrumbs Breadcrumbs in the order they were recorded
+   */
+  addBreadcrumbs(breadcrumbs: Breadcrumb[]): void {
+    if (!this.enableNative) {
+      return;
+    }
+    if (!this._isModuleLoaded(RNSentry)) {
+      throw this._NativeClientError;
+    }
+    if (breadcrumbs.length === 0) {
+      return;
+    }
+
+    RNSentry.addBreadcrumbs(
+      breadcrumbs.map(breadcrumb => ({
+        ...breadcrumb,
+        // Process and convert deprecated levels
+        level: breadcrumb.level ? this._processLevel(breadcrumb.level) : undefined,
+      })),
+    );
+  },
+
   /**
    * Clears breadcrumbs on the native scope.
    */
@@ -645,6 +829,24 @@ export const NATIVE: SentryNativeWrapper = {
     RNSentry.removeAttribute(key);
   },
 
+  /**
+   * Applies the scope mutations in order in a single native call.
+   * @param operations serialized scope mutations
+   */
+  applyScopeOperations(operations: NativeScopeOperation[]): void {
+    if (!this.enableNative) {
+      return;
+    }
+    if (!this._isModuleLoaded(RNSentry)) {
+      throw this._NativeClientError;
+    }
+    if (operations.length === 0) {
+      return;
+    }
+
+    RNSentry.applyScopeOperations(operations);
+  },
+
   /**
    * Closes the Native Layer SDK
    */
@@ -732,7 +934,7 @@ export const NATIVE: SentryNativeWrapper = {
     if (raw) {
       return raw.map((item: NativeScreenshot) => ({
         ...item,
-        data: new Uint8Array(item.data),
+        data: decodeFromBase64(item.data),
       }));
     } else {
       return null;
@@ -748,7 +950,33 @@ export const NATIVE: SentryNativeWrapper = {
     }
 
     const raw = await RNSentry.fetchViewHierarchy();
-    return raw ? new Uint8Array(raw) : null;
+    return raw ? decodeFromBase64(raw) : null;
+  },
+
+  async storeScreenshot(): Promise<Attachment[] | null> {
+    if (!this.enableNative || !this._isModuleLoaded(RNSentry)) {
+      return null;
+    }
+    try {
+      const handles = await RNSentry.storeScreenshot();
+      return handles ? handles.map(toStoredAttachment) : null;
+    } catch (e) {
+      debug.warn('Failed to store screenshot', e);
+      return null;
+    }
+  },
+
+  async storeViewHierarchy(): Promise<Attachment[] | null> {
+    if (!this.enableNative || !this._isModuleLoaded(RNSentry)) {
+      return null;
+    }
+    try {
+      const handles = await RNSentry.storeViewHierarchy();
+      return handles ? handles.map(toStoredAttachment) : null;
+    } catch (e) {
+      debug.warn('Failed to store view hierarchy', e);
+      return null;
+    }
   },
 
   startProfiling(platformProfilers: boolean): boolean {
@@ -864,6 +1092,19 @@ export const NATIVE: SentryNativeWrapper = {
     return RNSentry.getCurrentReplayId() || null;
   },
 
+  getElidedScopeWriteCount(): number | null {
+    if (!this.enableNative) {
+      debug.warn(`[NATIVE] \`${this.getElidedScopeWriteCount.name}\` is not available when native is disabled.`);
+      return null;
+    }
+    if (!this._isModuleLoaded(RNSentry)) {
+      debug.warn(`[NATIVE] \`${this.getElidedScopeWriteCount.name}\` is not available when native is not available.`);
+      return null;
+    }
+
+    return RNSentry.getElidedScopeWriteCount() ?? null;
+  },
+
   async crashedLastRun(): Promise<boolean | null> {
     if (!this.enableNative) {
       return null;
@@ -884,13 +1125,26 @@ export const NATIVE: SentryNativeWrapper = {
     return RNSentry.getNewScreenTimeToDisplay();
   },
 
-  async getDataFromUri(uri: string): Promise<Uint8Array | null> {
+  async getDataFromUri(uri: string, range?: UriDataRange): Promise<Uint8Array | null> {
+    if (!this.enableNative || !this._isModuleLoaded(RNSentry)) {
+      return null;
+    }
+    try {
+      const data = await RNSentry.getDataFromUri(uri, range ?? {});
+      return decodeFromBase64(data);
+    } catch (error) {
+      debug.error('Error:', error);
+      return null;
+    }
+  },
+
+  async storeDataFromUri(uri: string, range?: UriDataRange): Promise<Attachment | null> {
     if (!this.enableNative || !this._isModuleLoaded(RNSentry)) {
       return null;
     }
     try {
-      const data: number[] = await RNSentry.getDataFromUri(uri);
-      return new Uint8Array(data);
+      const handle = await RNSentry.storeDataFromUri(uri, range ?? {});
+      return handle ? toStoredAttachment(handle) : null;
     } catch (error) {
       debug.error('Error:', error);
       return null;
@@ -923,15 +1177,24 @@ export const NATIVE: SentryNativeWrapper = {
     }
   },
 
-  async encodeToBase64(data: Uint8Array): Promise<string | null> {
+  async encodeToBase64(data: Uint8Array, options?: { urlSafe?: boolean }): Promise<string | null> {
     if (!this.enableNative || !this._isModuleLoaded(RNSentry)) {
       return Promise.resolve(null);
     }
 
+    const urlSafe = !!options?.urlSafe;
+    const encoded = encodeToBase64AsBytes(data, urlSafe);
+    if (encoded !== undefined) {
+      return encoded;
+    }
+
     try {
       const byteArray = Array.from(data);
       const base64 = await RNSentry.encodeToBase64(byteArray);
-      return base64 || null;
+      if (!base64) {
+        return null;
+      }
+      return urlSafe ? base64.replace(/\+/g, '-').replace(/\//g, '_') : base64;
     } catch (error) {
       debug.error('Error:', error);
       return Promise.resolve(null);
@@ -942,6 +1205,65 @@ export const NATIVE: SentryNativeWrapper = {
     return value as string;
   },
 
+  /**
+   * Serializes the envelope to bytes in the format expected by the native SDKs.
+   * @param envelope Envelope
+   * @returns The envelope bytes and whether it contains a hard crash.
+   */
+  _serializeEnvelope(envelope: Envelope): { bytes: Uint8Array; hardCrashed: boolean } {
+    const [envelopeHeader, envelopeItems] = envelope;
+
+    const headerString = JSON.stringify(envelopeHeader);
+    const headerBytes = encodeUTF8(headerString);
+    let envelopeBytes: Uint8Array = new Uint8Array(headerBytes.length + EOL.length);
+    envelopeBytes.set(headerBytes);
+    envelopeBytes.set(EOL, headerBytes.length);
+
+    let hardCrashed: boolean = false;
+    for (const rawItem of envelopeItems) {
+      const [itemHeader, itemPayload] = this._processItem(rawItem);
+
+      let bytesContentType: string;
+      let bytesPayload: number[] | Uint8Array | undefined;
+
+      if (typeof itemPayload === 'string') {
+        bytesContentType =
+          itemHeader.content_type === NATIVE_ATTACHMENT_HANDLE_CONTENT_TYPE
+            ? NATIVE_ATTACHMENT_HANDLE_CONTENT_TYPE
+            : 'text/plain';
+        bytesPayload = encodeUTF8(itemPayload);
+      } else if (itemPayload instanceof Uint8Array) {
+        bytesContentType =
+          typeof itemHeader.content_type === 'string' ? itemHeader.content_type : 'application/octet-stream';
+        bytesPayload = itemPayload;
+      } else {
+        bytesContentType = typeof itemHeader.content_type === 'string' ? itemHeader.content_type : 'application/json';
+        bytesPayload = encodeUTF8(JSON.stringify(itemPayload));
+        if (!hardCrashed) {
+          hardCrashed = isHardCrash(itemPayload);
+        }
+      }
+
+      // Content type is not inside BaseEnvelopeItemHeaders.
+      (itemHeader as BaseEnvelopeItemHeaders).content_type = bytesContentType;
+      (itemHeader as BaseEnvelopeItemHeaders).length = bytesPayload.length;
+      const serializedItemHeader = JSON.stringify(itemHeader);
+
+      const bytesItemHeader = encodeUTF8(serializedItemHeader);
+      const newBytes = new Uint8Array(
+        envelopeBytes.length + bytesItemHeader.length + EOL.length + bytesPayload.length + EOL.length,
+      );
+      newBytes.set(envelopeBytes);
+      newBytes.set(bytesItemHeader, envelopeBytes.length);
+      newBytes.set(EOL, envelopeBytes.length + bytesItemHeader.length);
+      newBytes.set(bytesPayload, envelopeBytes.length + bytesItemHeader.length + EOL.length);
+      newBytes.set(EOL, envelopeBytes.length + bytesItemHeader.length + EOL.length + bytesPayload.length);
+      envelopeBytes = newBytes;
+    }
+
+    return { bytes: envelopeBytes, hardCrashed };
+  },
+
   /**
    * Gets the event from envelopeItem and applies the level filter to the selected event.
    * @param data An envelope item containing the event.
@@ -982,6 +1304,30 @@ export const NATIVE: SentryNativeWrapper = {
     return serialized;
   },
 
+  /**
+   * Stringifies the extra value if it isn't already a string.
+   * @param key used for logging only
+   * @param extra any
+   */
+  _serializeExtra(key: string, extra: unknown): string {
+    if (typeof extra === 'string') {
+      return extra;
+    }
+    if (typeof extra === 'undefined') {
+      return 'undefined';
+    }
+
+    let stringifiedExtra: string | undefined;
+    try {
+      const normalizedExtra = normalize(extra);
+      stringifiedExtra = JSON.stringify(normalizedExtra);
+    } catch (e) {
+      debug.error('Extra for key ${key} not passed to native SDK, because it contains non-stringifiable values', e);
+    }
+
+    return typeof stringifiedExtra === 'string' ? stringifiedExtra : '**non-stringifiable**';
+  },
+
   /**
    * Convert js severity level in event.level and event.breadcrumbs to more widely supported levels.
    * @param event
@@ -1036,8 +1382,9 @@ export const NATIVE: SentryNativeWrapper = {
 /**
  * Fethces the data from the given uri in Uint8Array format.
  * @param uri string
+ * @param range optional byte range, reads the whole file when omitted
  * @returns Uint8Array | null
  */
-export async function getDataFromUri(uri: string): Promise<Uint8Array | null> {
-  return NATIVE.getDataFromUri(uri);
+export async function getDataFromUri(uri: string, range?: UriDataRange): Promise<Uint8Array | null> {
+  return NATIVE.getDataFromUri(uri, range);
 }
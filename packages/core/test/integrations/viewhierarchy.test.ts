@@ -1,7 +1,7 @@
 import type { Client, Event, EventHint } from '@sentry/core';
 
 import { viewHierarchyIntegration } from '../../src/js/integrations/viewhierarchy';
-import { NATIVE } from '../../src/js/wrapper';
+import { NATIVE, NATIVE_ATTACHMENT_HANDLE_CONTENT_TYPE } from '../../src/js/wrapper';
 
 jest.mock('../../src/js/wrapper');
 
@@ -107,6 +107,29 @@ describe('ViewHierarchy', () => {
     expect(mockHint).toEqual({});
   });
 
+  it('attaches the stored view hierarchy instead of its bytes', async () => {
+    (NATIVE.storeViewHierarchy as jest.Mock).mockResolvedValueOnce([
+      {
+        filename: 'view-hierarchy.json',
+        contentType: NATIVE_ATTACHMENT_HANDLE_CONTENT_TYPE,
+        data: 'handle',
+      },
+    ]);
+    const mockHint: EventHint = {};
+    await processEvent(mockEvent, mockHint);
+
+    expect(mockHint).toEqual(<EventHint>{
+      attachments: [
+        {
+          filename: 'view-hierarchy.json',
+          contentType: NATIVE_ATTACHMENT_HANDLE_CONTENT_TYPE,
+          attachmentType: 'event.view_hierarchy',
+          data: 'handle',
+        },
+      ],
+    });
+  });
+
   function processEvent(mockedEvent: Event, mockedHint: EventHint = {}): Event | null | PromiseLike<Event | null> {
     const integration = viewHierarchyIntegration();
     return integration.processEvent!(mockedEvent, mockedHint, {} as Client);
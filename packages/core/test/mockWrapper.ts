@@ -13,9 +13,11 @@ const NATIVE: MockInterface<NativeType> = {
   _DisabledNativeError: new Error('MockNative is disabled'),
 
   _processItem: jest.fn(),
+  _serializeEnvelope: jest.fn(),
   _processLevels: jest.fn(),
   _processLevel: jest.fn(),
   _serializeObject: jest.fn(),
+  _serializeExtra: jest.fn(),
   _isModuleLoaded: <NativeType['_isModuleLoaded'] & jest.Mock>jest.fn(),
   _setPrimitiveProcessor: jest.fn(),
 
@@ -25,7 +27,9 @@ const NATIVE: MockInterface<NativeType> = {
   closeNativeSdk: jest.fn(),
 
   sendEnvelope: jest.fn(),
+  sendEnvelopes: jest.fn(),
   captureScreenshot: jest.fn(),
+  storeScreenshot: jest.fn(),
 
   fetchNativeRelease: jest.fn(),
   fetchNativeDeviceContexts: jest.fn(),
@@ -40,19 +44,24 @@ const NATIVE: MockInterface<NativeType> = {
   resumeAppHangTracking: jest.fn(),
 
   addBreadcrumb: jest.fn(),
+  addBreadcrumbs: jest.fn(),
   setContext: jest.fn(),
   clearBreadcrumbs: jest.fn(),
   setExtra: jest.fn(),
+  setExtras: jest.fn(),
   setUser: jest.fn(),
   setTag: jest.fn(),
+  setTags: jest.fn(),
   setAttribute: jest.fn(),
   setAttributes: jest.fn(),
   removeAttribute: jest.fn(),
+  applyScopeOperations: jest.fn(),
 
   nativeCrash: jest.fn(),
 
   fetchModules: jest.fn(),
   fetchViewHierarchy: jest.fn(),
+  storeViewHierarchy: jest.fn(),
 
   startProfiling: jest.fn(),
   stopProfiling: jest.fn(),
@@ -64,10 +73,12 @@ const NATIVE: MockInterface<NativeType> = {
 
   captureReplay: jest.fn(),
   getCurrentReplayId: jest.fn(),
+  getElidedScopeWriteCount: jest.fn(),
 
   crashedLastRun: jest.fn(),
   getNewScreenTimeToDisplay: jest.fn(),
   getDataFromUri: jest.fn(),
+  storeDataFromUri: jest.fn(),
   popTimeToDisplayFor: jest.fn(),
   setActiveSpanId: jest.fn(),
   encodeToBase64: jest.fn(),
@@ -77,6 +88,7 @@ const NATIVE: MockInterface<NativeType> = {
 NATIVE.isNativeAvailable.mockReturnValue(true);
 NATIVE.initNativeSdk.mockResolvedValue(true);
 NATIVE.captureScreenshot.mockResolvedValue(null);
+NATIVE.storeScreenshot.mockResolvedValue(null);
 NATIVE.fetchNativeRelease.mockResolvedValue({
   version: 'mock-native-version',
   build: 'mock-native-build',
@@ -89,6 +101,7 @@ NATIVE.fetchNativeFramesDelay.mockResolvedValue(null);
 NATIVE.fetchNativeSdkInfo.mockResolvedValue(null);
 NATIVE.fetchModules.mockResolvedValue(null);
 NATIVE.fetchViewHierarchy.mockResolvedValue(null);
+NATIVE.storeViewHierarchy.mockResolvedValue(null);
 NATIVE.startProfiling.mockReturnValue(false);
 NATIVE.stopProfiling.mockReturnValue(null);
 NATIVE.fetchNativePackageName.mockReturnValue('mock-native-package-name');
@@ -96,6 +109,7 @@ NATIVE.fetchNativeStackFramesBy.mockReturnValue(null);
 NATIVE.initNativeReactNavigationNewFrameTracking.mockReturnValue(Promise.resolve());
 NATIVE.captureReplay.mockResolvedValue(null);
 NATIVE.getCurrentReplayId.mockReturnValue(null);
+NATIVE.getElidedScopeWriteCount.mockReturnValue(null);
 NATIVE.crashedLastRun.mockResolvedValue(false);
 NATIVE.popTimeToDisplayFor.mockResolvedValue(null);
 NATIVE.getNewScreenTimeToDisplay.mockResolvedValue(null);
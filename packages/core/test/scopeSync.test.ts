@@ -107,6 +107,33 @@ describe('ScopeSync', () => {
           }),
         );
       });
+
+      it('batches breadcrumbs added in the same tick', async () => {
+        scope.addBreadcrumb({ message: 'first' });
+        scope.addBreadcrumb({ message: 'second' });
+        scope.addBreadcrumb({ message: 'third' });
+
+        expect(NATIVE.addBreadcrumb).toHaveBeenCalledExactlyOnceWith(expect.objectContaining({ message: 'first' }));
+        expect(NATIVE.addBreadcrumbs).not.toHaveBeenCalled();
+
+        await Promise.resolve();
+
+        expect(NATIVE.addBreadcrumbs).toHaveBeenCalledExactlyOnceWith([
+          expect.objectContaining({ message: 'second' }),
+          expect.objectContaining({ message: 'third' }),
+        ]);
+      });
+
+      it('passes batched breadcrumbs to native before clearing', () => {
+        scope.addBreadcrumb({ message: 'first' });
+        scope.addBreadcrumb({ message: 'second' });
+        scope.clearBreadcrumbs();
+
+        expect(NATIVE.addBreadcrumbs).toHaveBeenCalledExactlyOnceWith([expect.objectContaining({ message: 'second' })]);
+        expect((NATIVE.addBreadcrumbs as jest.Mock).mock.invocationCallOrder[0]).toBeLessThan(
+          (NATIVE.clearBreadcrumbs as jest.Mock).mock.invocationCallOrder[0],
+        );
+      });
     });
 
     describe('deferBreadcrumbNativeSync', () => {
@@ -229,9 +256,8 @@ describe('ScopeSync', () => {
       expect(SentryCore.getIsolationScope().setTags).not.toBe(setTagsScopeSpy);
 
       SentryCore.setTags({ key: 'value', second: 'bar' });
-      expect(NATIVE.setTag).toHaveBeenCalledTimes(2);
-      expect(NATIVE.setTag).toHaveBeenCalledWith('key', 'value');
-      expect(NATIVE.setTag).toHaveBeenCalledWith('second', 'bar');
+      expect(NATIVE.setTags).toHaveBeenCalledExactlyOnceWith({ key: 'value', second: 'bar' });
+      expect(NATIVE.setTag).not.toHaveBeenCalled();
       expect(setTagsScopeSpy).toHaveBeenCalledExactlyOnceWith({ key: 'value', second: 'bar' });
     });
 
@@ -247,9 +273,8 @@ describe('ScopeSync', () => {
       expect(SentryCore.getIsolationScope().setExtras).not.toBe(setExtrasScopeSpy);
 
       SentryCore.setExtras({ key: 'value', second: 'bar' });
-      expect(NATIVE.setExtra).toHaveBeenCalledTimes(2);
-      expect(NATIVE.setExtra).toHaveBeenCalledWith('key', 'value');
-      expect(NATIVE.setExtra).toHaveBeenCalledWith('second', 'bar');
+      expect(NATIVE.setExtras).toHaveBeenCalledExactlyOnceWith({ key: 'value', second: 'bar' });
+      expect(NATIVE.setExtra).not.toHaveBeenCalled();
       expect(setExtrasScopeSpy).toHaveBeenCalledExactlyOnceWith({ key: 'value', second: 'bar' });
     });
 
@@ -1,16 +1,106 @@
 import type { Envelope } from '@sentry/core';
 
 import { NativeTransport } from '../../src/js/transports/native';
+import { NATIVE } from '../../src/js/wrapper';
 
 jest.mock('../../src/js/wrapper', () => ({
   NATIVE: {
     sendEnvelope: jest.fn(() => Promise.resolve(undefined)),
+    sendEnvelopes: jest.fn((envelopes: unknown[]) => Promise.resolve(envelopes.map(() => true))),
   },
 }));
 
 describe('NativeTransport', () => {
+  afterEach(() => {
+    jest.clearAllMocks();
+  });
+
   test('call native sendEvent', async () => {
     const transport = new NativeTransport();
     await expect(transport.send({} as Envelope)).resolves.toEqual({});
   });
+
+  test('batches envelopes queued while a native call is in flight', async () => {
+    let finishFirstSend: () => void = () => undefined;
+    (NATIVE.sendEnvelope as jest.Mock).mockImplementationOnce(
+      () => new Promise<void>(resolve => (finishFirstSend = resolve)),
+    );
+
+    const transport = new NativeTransport();
+    const first = {} as Envelope;
+    const second = {} as Envelope;
+    const third = {} as Envelope;
+
+    const sent = [transport.send(first), transport.send(second), transport.send(third)];
+    expect(NATIVE.sendEnvelope).toHaveBeenCalledWith(first);
+    expect(NATIVE.sendEnvelopes).not.toHaveBeenCalled();
+
+    finishFirstSend();
+    await expect(Promise.all(sent)).resolves.toEqual([{}, {}, {}]);
+
+    expect(NATIVE.sendEnvelope).toHaveBeenCalledTimes(1);
+    expect(NATIVE.sendEnvelopes).toHaveBeenCalledTimes(1);
+    expect(NATIVE.sendEnvelopes).toHaveBeenCalledWith([second, third]);
+  });
+
+  test('rejects every envelope of a failed batch', async () => {
+    let failFirstSend: (reason: Error) => void = () => undefined;
+    (NATIVE.sendEnvelope as jest.Mock).mockImplementationOnce(
+      () => new Promise<void>((_, reject) => (failFirstSend = reject)),
+    );
+    (NATIVE.sendEnvelopes as jest.Mock).mockImplementationOnce(() => Promise.reject(new Error('batch failed')));
+
+    const transport = new NativeTransport();
+    const first = transport.send({} as Envelope);
+    const second = transport.send({} as Envelope);
+    const third = transport.send({} as Envelope);
+
+    failFirstSend(new Error('first failed'));
+
+    await expect(first).rejects.toThrow('first failed');
+    await expect(second).rejects.toThrow('batch failed');
+    await expect(third).rejects.toThrow('batch failed');
+  });
+
+  test('resolves batched envelopes native did not accept like single envelopes', async () => {
+    let finishFirstSend: () => void = () => undefined;
+    (NATIVE.sendEnvelope as jest.Mock).mockImplementationOnce(
+      () => new Promise<void>(resolve => (finishFirstSend = resolve)),
+    );
+    (NATIVE.sendEnvelopes as jest.Mock).mockImplementationOnce(() => Promise.resolve([true, false]));
+
+    const transport = new NativeTransport();
+    const first = transport.send({} as Envelope);
+    const second = transport.send({} as Envelope);
+    const third = transport.send({} as Envelope);
+
+    finishFirstSend();
+
+    await expect(first).resolves.toEqual({});
+    await expect(second).resolves.toEqual({});
+    await expect(third).resolves.toEqual({});
+  });
+
+  test('sends hard crashes without waiting for the in-flight native call', async () => {
+    let finishFirstSend: () => void = () => undefined;
+    (NATIVE.sendEnvelope as jest.Mock).mockImplementationOnce(
+      () => new Promise<void>(resolve => (finishFirstSend = resolve)),
+    );
+
+    const transport = new NativeTransport();
+    const crash = [
+      {},
+      [[{ type: 'event' }, { exception: { values: [{ mechanism: { handled: false, type: 'onerror' } }] } }]],
+    ] as unknown as Envelope;
+
+    const first = transport.send({} as Envelope);
+    await expect(transport.send(crash)).resolves.toEqual({});
+
+    expect(NATIVE.sendEnvelope).toHaveBeenCalledTimes(2);
+    expect(NATIVE.sendEnvelope).toHaveBeenLastCalledWith(crash);
+    expect(NATIVE.sendEnvelopes).not.toHaveBeenCalled();
+
+    finishFirstSend();
+    await expect(first).resolves.toEqual({});
+  });
 });
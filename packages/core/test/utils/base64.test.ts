@@ -1,4 +1,4 @@
-import { encodeToBase64 } from '../../src/js/utils/base64';
+import { decodeFromBase64, encodeToBase64 } from '../../src/js/utils/base64';
 
 describe('encodeToBase64', () => {
   test('encodes a small byte array correctly', () => {
@@ -29,3 +29,29 @@ describe('encodeToBase64', () => {
     }
   });
 });
+
+describe('decodeFromBase64', () => {
+  test('decodes a small string correctly', () => {
+    expect(decodeFromBase64('c2VudHJ5')).toEqual(new Uint8Array([0x73, 0x65, 0x6e, 0x74, 0x72, 0x79]));
+  });
+
+  test('round trips a large byte array', () => {
+    const bytes = new Uint8Array(100_000);
+    for (let i = 0; i < bytes.length; i++) {
+      bytes[i] = i % 256;
+    }
+    expect(decodeFromBase64(encodeToBase64(bytes))).toEqual(bytes);
+  });
+
+  test('falls back to the JS decoder when `atob` is unavailable', () => {
+    const originalAtob = (globalThis as { atob?: unknown }).atob;
+    // eslint-disable-next-line @typescript-eslint/no-explicit-any
+    delete (globalThis as any).atob;
+    try {
+      expect(decodeFromBase64('c2VudHJ5IQ==')).toEqual(new Uint8Array([0x73, 0x65, 0x6e, 0x74, 0x72, 0x79, 0x21]));
+    } finally {
+      // eslint-disable-next-line @typescript-eslint/no-explicit-any
+      (globalThis as any).atob = originalAtob;
+    }
+  });
+});
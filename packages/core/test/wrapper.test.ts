@@ -15,8 +15,9 @@ import * as RN from 'react-native';
 import type { Spec } from '../src/js/NativeRNSentry';
 import type { ReactNativeOptions } from '../src/js/options';
 
+import { RN_GLOBAL_OBJ } from '../src/js/utils/worldwide';
 import { base64StringFromByteArray, utf8ToBytes } from '../src/js/vendor';
-import { NATIVE } from '../src/js/wrapper';
+import { NATIVE, NATIVE_ATTACHMENT_HANDLE_CONTENT_TYPE } from '../src/js/wrapper';
 
 const VALID_DSN = 'https://key@sentry.io/123';
 
@@ -25,10 +26,13 @@ jest.mock('react-native', () => {
 
   const RNSentry: Spec = {
     addBreadcrumb: jest.fn(),
+    addBreadcrumbs: jest.fn(),
     captureEnvelope: jest.fn(),
+    captureEnvelopes: jest.fn((envelopes: unknown[]) => Promise.resolve(envelopes.map(() => true))),
     clearBreadcrumbs: jest.fn(),
     crashedLastRun: jest.fn(),
     crash: jest.fn(),
+    getElidedScopeWriteCount: jest.fn(),
     fetchNativeDeviceContexts: jest.fn(() =>
       Promise.resolve({
         someContext: {
@@ -46,6 +50,7 @@ jest.mock('react-native', () => {
     setContext: jest.fn(),
     setExtra: jest.fn(),
     setTag: jest.fn(),
+    applyScopeOperations: jest.fn(),
     setUser: jest.fn(() => {
       return;
     }),
@@ -61,6 +66,8 @@ jest.mock('react-native', () => {
     stopProfiling: jest.fn(),
     pauseAppHangTracking: jest.fn(),
     resumeAppHangTracking: jest.fn(),
+    getDataFromUri: jest.fn(),
+    encodeToBase64: jest.fn(),
   };
 
   return {
@@ -560,6 +567,89 @@ describe('Tests Native Wrapper', () => {
         { hardCrashed: false },
       );
     });
+    test('keeps the content type of stored attachment handles', async () => {
+      const env = createEnvelope<EventEnvelope>({ event_id: 'event0', sent_at: '123' }, [
+        [
+          {
+            type: 'attachment',
+            length: 6,
+            filename: 'screenshot.png',
+            content_type: NATIVE_ATTACHMENT_HANDLE_CONTENT_TYPE,
+          },
+          'handle',
+        ],
+      ]);
+
+      await NATIVE.sendEnvelope(env);
+
+      expect(RNSentry.captureEnvelope).toHaveBeenCalledWith(
+        base64StringFromByteArray(
+          utf8ToBytes(
+            '{"event_id":"event0","sent_at":"123"}\n' +
+              `{"type":"attachment","length":6,"filename":"screenshot.png","content_type":"${NATIVE_ATTACHMENT_HANDLE_CONTENT_TYPE}"}\n` +
+              'handle\n',
+          ),
+        ),
+        { hardCrashed: false },
+      );
+    });
+
+    describe('binary envelope capture', () => {
+      const createEventEnvelope = (): EventEnvelope =>
+        createEnvelope<EventEnvelope>({ event_id: 'event0', sent_at: '123' }, [
+          [{ type: 'event' }, { event_id: 'event0' }] as EventItem,
+        ]);
+
+      afterEach(() => {
+        delete RN_GLOBAL_OBJ.__SENTRY_CAPTURE_ENVELOPE_BYTES__;
+      });
+
+      test('passes envelope bytes to the JSI function instead of captureEnvelope', async () => {
+        const captureEnvelopeBytes = jest.fn(() => 1);
+        RN_GLOBAL_OBJ.__SENTRY_CAPTURE_ENVELOPE_BYTES__ = captureEnvelopeBytes;
+
+        await NATIVE.sendEnvelope(createEventEnvelope());
+
+        expect(captureEnvelopeBytes).toHaveBeenCalledTimes(1);
+        const [buffer, hardCrashed] = captureEnvelopeBytes.mock.calls[0] as unknown as [ArrayBuffer, boolean];
+        expect(new Uint8Array(buffer)).toEqual(
+          utf8ToBytes(
+            '{"event_id":"event0","sent_at":"123"}\n' +
+              '{"type":"event","content_type":"application/json","length":21}\n' +
+              '{"event_id":"event0"}\n',
+          ),
+        );
+        expect(hardCrashed).toBe(false);
+        expect(RNSentry.captureEnvelope).not.toHaveBeenCalled();
+      });
+
+      test('falls back to captureEnvelope when the JSI function could not pass the bytes to native', async () => {
+        RN_GLOBAL_OBJ.__SENTRY_CAPTURE_ENVELOPE_BYTES__ = jest.fn(() => 0);
+
+        await NATIVE.sendEnvelope(createEventEnvelope());
+
+        expect(RNSentry.captureEnvelope).toHaveBeenCalledTimes(1);
+      });
+
+      test('does not send an envelope dropped by native again', async () => {
+        RN_GLOBAL_OBJ.__SENTRY_CAPTURE_ENVELOPE_BYTES__ = jest.fn(() => 2);
+
+        await NATIVE.sendEnvelope(createEventEnvelope());
+
+        expect(RN_GLOBAL_OBJ.__SENTRY_CAPTURE_ENVELOPE_BYTES__).toHaveBeenCalledTimes(1);
+        expect(RNSentry.captureEnvelope).not.toHaveBeenCalled();
+      });
+
+      test('falls back to captureEnvelope when the JSI function throws', async () => {
+        RN_GLOBAL_OBJ.__SENTRY_CAPTURE_ENVELOPE_BYTES__ = jest.fn(() => {
+          throw new Error('JNI failure');
+        });
+
+        await NATIVE.sendEnvelope(createEventEnvelope());
+
+        expect(RNSentry.captureEnvelope).toHaveBeenCalledTimes(1);
+      });
+    });
     test('serializes class instances', async () => {
       class TestInstance {
         value: number = 0;
@@ -851,6 +941,92 @@ describe('Tests Native Wrapper', () => {
     });
   });
 
+  describe('sendEnvelopes', () => {
+    const createEventEnvelope = (eventId: string): EventEnvelope =>
+      createEnvelope<EventEnvelope>({ event_id: eventId, sent_at: '123' }, [
+        [{ type: 'event' }, { event_id: eventId }] as EventItem,
+      ]);
+
+    afterEach(() => {
+      delete RN_GLOBAL_OBJ.__SENTRY_CAPTURE_ENVELOPE_BYTES__;
+    });
+
+    test('passes all envelopes to native in a single call', async () => {
+      const results = await NATIVE.sendEnvelopes([createEventEnvelope('event0'), createEventEnvelope('event1')]);
+
+      expect(results).toEqual([true, true]);
+      expect(RNSentry.captureEnvelope).not.toHaveBeenCalled();
+      expect(RNSentry.captureEnvelopes).toHaveBeenCalledTimes(1);
+      expect(RNSentry.captureEnvelopes).toHaveBeenCalledWith([
+        {
+          bytes: base64StringFromByteArray(
+            utf8ToBytes(
+              '{"event_id":"event0","sent_at":"123"}\n' +
+                '{"type":"event","content_type":"application/json","length":21}\n' +
+                '{"event_id":"event0"}\n',
+            ),
+          ),
+          hardCrashed: false,
+        },
+        {
+          bytes: base64StringFromByteArray(
+            utf8ToBytes(
+              '{"event_id":"event1","sent_at":"123"}\n' +
+                '{"type":"event","content_type":"application/json","length":21}\n' +
+                '{"event_id":"event1"}\n',
+            ),
+          ),
+          hardCrashed: false,
+        },
+      ]);
+    });
+
+    test('maps native results back to the envelopes sent as base64', async () => {
+      RN_GLOBAL_OBJ.__SENTRY_CAPTURE_ENVELOPE_BYTES__ = jest
+        .fn()
+        .mockReturnValueOnce(1)
+        .mockReturnValueOnce(0)
+        .mockReturnValueOnce(0);
+      (RNSentry.captureEnvelopes as jest.Mock).mockResolvedValueOnce([false, true]);
+
+      const results = await NATIVE.sendEnvelopes([
+        createEventEnvelope('event0'),
+        createEventEnvelope('event1'),
+        createEventEnvelope('event2'),
+      ]);
+
+      expect(results).toEqual([true, false, true]);
+      expect((RNSentry.captureEnvelopes as jest.Mock).mock.calls[0][0]).toHaveLength(2);
+    });
+
+    test('does not send envelopes dropped by native again as base64', async () => {
+      RN_GLOBAL_OBJ.__SENTRY_CAPTURE_ENVELOPE_BYTES__ = jest.fn().mockReturnValueOnce(2).mockReturnValueOnce(1);
+
+      const results = await NATIVE.sendEnvelopes([createEventEnvelope('event0'), createEventEnvelope('event1')]);
+
+      expect(results).toEqual([false, true]);
+      expect(RNSentry.captureEnvelopes).not.toHaveBeenCalled();
+    });
+
+    test('does not call native if all envelopes were captured as bytes', async () => {
+      RN_GLOBAL_OBJ.__SENTRY_CAPTURE_ENVELOPE_BYTES__ = jest.fn(() => 1);
+
+      const results = await NATIVE.sendEnvelopes([createEventEnvelope('event0'), createEventEnvelope('event1')]);
+
+      expect(results).toEqual([true, true]);
+      expect(RNSentry.captureEnvelopes).not.toHaveBeenCalled();
+    });
+
+    test('skips envelopes when native is disabled', async () => {
+      NATIVE.enableNative = false;
+
+      const results = await NATIVE.sendEnvelopes([createEventEnvelope('event0')]);
+
+      expect(results).toEqual([false]);
+      expect(RNSentry.captureEnvelopes).not.toHaveBeenCalled();
+    });
+  });
+
   describe('fetchRelease', () => {
     test('fetches the release from native', async () => {
       await expect(NATIVE.fetchNativeRelease()).resolves.toMatchObject({
@@ -1158,6 +1334,73 @@ describe('Tests Native Wrapper', () => {
     });
   });
 
+  describe('addBreadcrumbs', () => {
+    test('passes the breadcrumbs to native in one call', () => {
+      NATIVE.addBreadcrumbs([{ message: 'first', level: 'warning' }, { message: 'second' }]);
+
+      expect(RNSentry.addBreadcrumbs).toHaveBeenCalledExactlyOnceWith([
+        { message: 'first', level: 'warning' },
+        { message: 'second', level: undefined },
+      ]);
+      expect(RNSentry.addBreadcrumb).not.toHaveBeenCalled();
+    });
+
+    test('does not call native without breadcrumbs', () => {
+      NATIVE.addBreadcrumbs([]);
+
+      expect(RNSentry.addBreadcrumbs).not.toHaveBeenCalled();
+    });
+  });
+
+  describe('applyScopeOperations', () => {
+    test('passes the operations to native in one call', () => {
+      NATIVE.applyScopeOperations([
+        { op: 'setTag', key: 'key', value: 'value' },
+        { op: 'removeAttribute', key: 'attribute' },
+      ]);
+
+      expect(RNSentry.applyScopeOperations).toHaveBeenCalledExactlyOnceWith([
+        { op: 'setTag', key: 'key', value: 'value' },
+        { op: 'removeAttribute', key: 'attribute' },
+      ]);
+    });
+
+    test('does not call native without operations', () => {
+      NATIVE.applyScopeOperations([]);
+
+      expect(RNSentry.applyScopeOperations).not.toHaveBeenCalled();
+    });
+
+    test('does not call native when native is disabled', () => {
+      NATIVE.enableNative = false;
+
+      NATIVE.applyScopeOperations([{ op: 'clearBreadcrumbs' }]);
+
+      expect(RNSentry.applyScopeOperations).not.toHaveBeenCalled();
+    });
+
+    test('setTags stringifies the values like setTag', () => {
+      NATIVE.setTags({ key: 'value', missing: undefined });
+
+      expect(RNSentry.applyScopeOperations).toHaveBeenCalledExactlyOnceWith([
+        { op: 'setTag', key: 'key', value: 'value' },
+        { op: 'setTag', key: 'missing', value: undefined },
+      ]);
+      expect(RNSentry.setTag).not.toHaveBeenCalled();
+    });
+
+    test('setExtras stringifies the values like setExtra', () => {
+      NATIVE.setExtras({ string: 'value', number: 42, object: { foo: 'bar' } });
+
+      expect(RNSentry.applyScopeOperations).toHaveBeenCalledExactlyOnceWith([
+        { op: 'setExtra', key: 'string', value: 'value' },
+        { op: 'setExtra', key: 'number', value: '42' },
+        { op: 'setExtra', key: 'object', value: '{"foo":"bar"}' },
+      ]);
+      expect(RNSentry.setExtra).not.toHaveBeenCalled();
+    });
+  });
+
   describe('setContext', () => {
     test('passes plain JS object to native method', () => {
       const context = { foo: 'bar', baz: 123 };
@@ -1245,6 +1488,77 @@ describe('Tests Native Wrapper', () => {
     });
   });
 
+  describe('getElidedScopeWriteCount', () => {
+    test('returns the native count', () => {
+      (RNSentry.getElidedScopeWriteCount as jest.Mock).mockReturnValue(3);
+
+      expect(NATIVE.getElidedScopeWriteCount()).toBe(3);
+    });
+
+    test('returns null when native is disabled', () => {
+      NATIVE.enableNative = false;
+
+      expect(NATIVE.getElidedScopeWriteCount()).toBeNull();
+      expect(RNSentry.getElidedScopeWriteCount).not.toHaveBeenCalled();
+    });
+  });
+
+  describe('encodeToBase64', () => {
+    afterEach(() => {
+      delete RN_GLOBAL_OBJ.__SENTRY_ENCODE_BASE64__;
+    });
+
+    test('passes the bytes as an ArrayBuffer when available', async () => {
+      const encodeBase64 = jest.fn(() => 'AQID');
+      RN_GLOBAL_OBJ.__SENTRY_ENCODE_BASE64__ = encodeBase64;
+
+      const result = await NATIVE.encodeToBase64(new Uint8Array([1, 2, 3]), { urlSafe: true });
+
+      expect(result).toBe('AQID');
+      expect(encodeBase64).toHaveBeenCalledWith(expect.any(ArrayBuffer), true);
+      expect(RNSentry.encodeToBase64).not.toHaveBeenCalled();
+    });
+
+    test('falls back to the bridge', async () => {
+      RN_GLOBAL_OBJ.__SENTRY_ENCODE_BASE64__ = jest.fn(() => undefined);
+      (RNSentry.encodeToBase64 as jest.Mock).mockResolvedValue('+/8=');
+
+      expect(await NATIVE.encodeToBase64(new Uint8Array([251, 255]))).toBe('+/8=');
+      expect(RNSentry.encodeToBase64).toHaveBeenCalledWith([251, 255]);
+    });
+
+    test('converts bridge results to the url safe alphabet', async () => {
+      (RNSentry.encodeToBase64 as jest.Mock).mockResolvedValue('+/8=');
+
+      expect(await NATIVE.encodeToBase64(new Uint8Array([251, 255]), { urlSafe: true })).toBe('-_8=');
+    });
+  });
+
+  describe('getDataFromUri', () => {
+    test('decodes the base64 data', async () => {
+      (RNSentry.getDataFromUri as jest.Mock).mockResolvedValue('AQID');
+
+      const result = await NATIVE.getDataFromUri('file:///data/image.png');
+
+      expect(RNSentry.getDataFromUri).toHaveBeenCalledWith('file:///data/image.png', {});
+      expect(result).toEqual(new Uint8Array([1, 2, 3]));
+    });
+
+    test('passes the range to native', async () => {
+      (RNSentry.getDataFromUri as jest.Mock).mockResolvedValue('');
+
+      await NATIVE.getDataFromUri('file:///data/image.png', { offset: 10, length: 20 });
+
+      expect(RNSentry.getDataFromUri).toHaveBeenCalledWith('file:///data/image.png', { offset: 10, length: 20 });
+    });
+
+    test('returns null when native rejects', async () => {
+      (RNSentry.getDataFromUri as jest.Mock).mockRejectedValue(new Error('Unsupported uri'));
+
+      expect(await NATIVE.getDataFromUri('file:///etc/passwd')).toBeNull();
+    });
+  });
+
   describe('pauseAppHangTracking', () => {
     test('calls native pauseAppHangTracking', async () => {
       await NATIVE.initNativeSdk({